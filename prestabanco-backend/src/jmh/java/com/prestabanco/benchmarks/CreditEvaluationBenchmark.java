@@ -0,0 +1,111 @@
+package com.prestabanco.benchmarks;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.services.CreditEvaluationService;
+import com.prestabanco.services.LoanCalculatorService;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CreditEvaluationBenchmark {
+
+    private static final ApplicationEntity.PropertyType[] PROPERTY_TYPES = ApplicationEntity.PropertyType.values();
+
+    // Con métricas: contadores por regla y criterio, y tiempos muestreados, sobre el registro de Prometheus
+    @Param({"false", "true"})
+    private boolean metrics;
+
+    private CreditEvaluationService evaluationService;
+    private ApplicationEntity[] applications;
+    private UserEntity[] users;
+    private SavingsEntity[] savings;
+    private BigDecimal[] monthlyPayments;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        evaluationService = new CreditEvaluationService();
+        if (metrics) {
+            evaluationService.setMeterRegistry(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        }
+        LoanCalculatorService calculatorService = new LoanCalculatorService();
+        LoanInputs inputs = new LoanInputs(7L);
+        SplittableRandom random = new SplittableRandom(7L);
+
+        applications = new ApplicationEntity[LoanInputs.SIZE];
+        users = new UserEntity[LoanInputs.SIZE];
+        savings = new SavingsEntity[LoanInputs.SIZE];
+        monthlyPayments = new BigDecimal[LoanInputs.SIZE];
+
+        for (int i = 0; i < LoanInputs.SIZE; i++) {
+            UserEntity user = new UserEntity();
+            user.setId((long) i);
+            user.setAge(random.nextInt(25, 61));
+            users[i] = user;
+
+            BigDecimal amount = inputs.amounts[i];
+            ApplicationEntity application = new ApplicationEntity();
+            application.setId((long) i);
+            application.setUser(user);
+            application.setPropertyType(PROPERTY_TYPES[random.nextInt(PROPERTY_TYPES.length)]);
+            application.setRequestedAmount(amount);
+            application.setInterestRate(inputs.rates[i]);
+            application.setTerm(inputs.years[i]);
+            application.setMonthlyIncome(BigDecimal.valueOf(random.nextLong(8, 61) * 100_000L));
+            application.setEmploymentYears(random.nextInt(0, 20));
+            application.setCurrentDebt(BigDecimal.valueOf(random.nextLong(0, 11) * 100_000L));
+            application.setPropertyValue(amount.multiply(BigDecimal.valueOf(random.nextInt(12, 25), 1)));
+            applications[i] = application;
+
+            SavingsEntity account = new SavingsEntity();
+            account.setId((long) i);
+            account.setUser(user);
+            account.setCurrentBalance(amount.multiply(BigDecimal.valueOf(random.nextInt(0, 30), 2)));
+            account.setMonthlyDepositsAmount(BigDecimal.valueOf(random.nextLong(0, 11) * 50_000L));
+            account.setLargestWithdrawalLast6Months(BigDecimal.valueOf(random.nextLong(0, 21) * 100_000L));
+            account.setLargestWithdrawalDate(LocalDateTime.now().minusMonths(random.nextInt(1, 7)));
+            account.setConsecutiveMonthsWithBalance(random.nextInt(0, 48));
+            account.setSignificantWithdrawalsCount(random.nextInt(0, 3));
+            savings[i] = account;
+
+            monthlyPayments[i] = calculatorService.calculateMonthlyPayment(amount, inputs.rates[i], inputs.years[i]);
+        }
+    }
+
+    @Benchmark
+    public CreditEvaluationService.CreditEvaluationResult evaluateApplication() {
+        int i = cursor++ & LoanInputs.MASK;
+        return evaluationService.evaluateApplication(applications[i], users[i], savings[i], monthlyPayments[i]);
+    }
+
+    @Benchmark
+    public CreditEvaluationService.CreditEvaluationResult evaluateApplicationFailFast() {
+        int i = cursor++ & LoanInputs.MASK;
+        return evaluationService.evaluateApplication(applications[i], users[i], savings[i], monthlyPayments[i],
+                CreditEvaluationService.EvaluationMode.FAIL_FAST);
+    }
+}
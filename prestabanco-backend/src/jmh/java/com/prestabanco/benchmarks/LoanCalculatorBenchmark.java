@@ -0,0 +1,67 @@
+package com.prestabanco.benchmarks;
+
+import com.prestabanco.services.LoanCalculatorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LoanCalculatorBenchmark {
+
+    private LoanCalculatorService calculatorService;
+    private LoanInputs inputs;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        calculatorService = new LoanCalculatorService();
+        inputs = new LoanInputs(42L);
+    }
+
+    @Benchmark
+    public BigDecimal calculateMonthlyPayment() {
+        int i = cursor++ & LoanInputs.MASK;
+        return calculatorService.calculateMonthlyPayment(inputs.amounts[i], inputs.rates[i], inputs.years[i]);
+    }
+
+    @Benchmark
+    public BigDecimal calculateMonthlyPaymentExact() {
+        int i = cursor++ & LoanInputs.MASK;
+        return calculatorService.calculateMonthlyPaymentExact(inputs.amounts[i], inputs.rates[i], inputs.years[i]);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalCost() {
+        int i = cursor++ & LoanInputs.MASK;
+        return calculatorService.calculateTotalCost(inputs.amounts[i], inputs.rates[i], inputs.years[i]);
+    }
+
+    // Línea base: la fórmula original sin caché, con BigDecimal.pow exacto en cada llamada
+    @Benchmark
+    public BigDecimal referenceMonthlyPayment() {
+        int i = cursor++ & LoanInputs.MASK;
+        BigDecimal monthlyRate = inputs.rates[i]
+                .divide(BigDecimal.valueOf(12), 6, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP);
+        BigDecimal compoundFactor = BigDecimal.ONE.add(monthlyRate).pow(inputs.years[i] * 12);
+        return inputs.amounts[i].multiply(monthlyRate).multiply(compoundFactor)
+                .divide(compoundFactor.subtract(BigDecimal.ONE), 0, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,31 @@
+package com.prestabanco.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+// Distribución de entradas parecida al tráfico real del simulador: tasas entre
+// 3% y 10% en pasos de 0.1 (concentradas entre 4% y 7%), plazos típicos de
+// crédito hipotecario y montos entre 10 y 200 millones de pesos
+final class LoanInputs {
+
+    static final int SIZE = 1024;
+    static final int MASK = SIZE - 1;
+
+    private static final int[] TERMS = {5, 10, 15, 20, 20, 25, 25, 30, 30, 30};
+
+    final BigDecimal[] amounts = new BigDecimal[SIZE];
+    final BigDecimal[] rates = new BigDecimal[SIZE];
+    final int[] years = new int[SIZE];
+
+    LoanInputs(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < SIZE; i++) {
+            int rateTenths = random.nextInt(10) < 8
+                    ? random.nextInt(40, 71)
+                    : random.nextInt(30, 101);
+            rates[i] = BigDecimal.valueOf(rateTenths, 1);
+            years[i] = TERMS[random.nextInt(TERMS.length)];
+            amounts[i] = BigDecimal.valueOf(random.nextLong(100, 2001) * 100_000L);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.prestabanco.benchmarks;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Búsquedas de los repositorios sobre el esquema sin índices (V1) y con los índices de V2.
+// H2 crea por su cuenta índices para las claves foráneas (PostgreSQL no), por eso solo se miden
+// las búsquedas por correo, RUT y número de cuenta.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LookupIndexBenchmark {
+
+    private static final int USERS = 200_000;
+
+    @Param({"1", "2"})
+    public String schemaVersion;
+
+    private Connection connection;
+    private PreparedStatement findByEmail;
+    private PreparedStatement existsByRut;
+    private PreparedStatement findByAccountNumber;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:lookups" + schemaVersion + ";DB_CLOSE_DELAY=-1");
+        Flyway.configure().dataSource(dataSource).target(schemaVersion).load().migrate();
+
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (rut, first_name, last_name, email, password, age, role) "
+                    + "SELECT X || '-K', 'Cliente', 'Número ' || X, 'cliente' || X || '@email.com', "
+                    + "'$2a$10$7EqJtq98hPqEX7fNZaFWoO5rZ1x7o0Zb8k9yH2kq6t3n1T2mB3uXy', 35, 0 "
+                    + "FROM SYSTEM_RANGE(1, " + USERS + ")");
+            statement.execute("INSERT INTO savings (user_id, account_number, current_balance) "
+                    + "SELECT id, LPAD(id, 10, '0'), 1000000 FROM users");
+            statement.execute("ANALYZE");
+        }
+
+        findByEmail = connection.prepareStatement("SELECT id, first_name, password FROM users WHERE email = ?");
+        existsByRut = connection.prepareStatement("SELECT 1 FROM users WHERE rut = ? FETCH FIRST 1 ROWS ONLY");
+        findByAccountNumber = connection.prepareStatement(
+                "SELECT id, user_id, current_balance FROM savings WHERE account_number = ?");
+        random = new SplittableRandom(13L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    private static long first(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    @Benchmark
+    public long findUserByEmail() throws SQLException {
+        findByEmail.setString(1, "cliente" + random.nextInt(1, USERS + 1) + "@email.com");
+        return first(findByEmail);
+    }
+
+    @Benchmark
+    public long existsUserByRut() throws SQLException {
+        existsByRut.setString(1, random.nextInt(1, USERS + 1) + "-K");
+        return first(existsByRut);
+    }
+
+    @Benchmark
+    public long findSavingsByAccountNumber() throws SQLException {
+        findByAccountNumber.setString(1, String.format("%010d", random.nextInt(1, USERS + 1)));
+        return first(findByAccountNumber);
+    }
+}
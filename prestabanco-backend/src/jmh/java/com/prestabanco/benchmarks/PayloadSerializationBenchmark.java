@@ -0,0 +1,93 @@
+package com.prestabanco.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.projections.ApplicationSummary;
+import com.prestabanco.services.CursorPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Compara una página del listado de solicitudes como entidades completas y como proyección
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadSerializationBenchmark {
+
+    private static final int PAGE_SIZE = CursorPage.DEFAULT_LIMIT;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<ApplicationEntity> entities;
+    private List<ApplicationSummary> summaries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(11L);
+        entities = new ArrayList<>(PAGE_SIZE);
+        summaries = new ArrayList<>(PAGE_SIZE);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            UserEntity user = new UserEntity();
+            user.setId((long) i);
+            user.setRut("1234567" + i + "-9");
+            user.setFirstName("Cliente");
+            user.setLastName("Número " + i);
+            user.setEmail("cliente" + i + "@email.com");
+            user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoO5rZ1x7o0Zb8k9yH2kq6t3n1T2mB3uXy");
+            user.setPhoneNumber("+5691234567" + (i % 10));
+            user.setAge(random.nextInt(25, 61));
+            user.setRole(UserEntity.UserRole.CLIENT);
+
+            ApplicationEntity application = new ApplicationEntity();
+            application.setId((long) i);
+            application.setUser(user);
+            application.setPropertyType(ApplicationEntity.PropertyType.FIRST_HOME);
+            application.setRequestedAmount(BigDecimal.valueOf(random.nextLong(20_000_000L, 400_000_000L)));
+            application.setTerm(random.nextInt(5, 31));
+            application.setInterestRate(new BigDecimal("4.5"));
+            application.setStatus(ApplicationEntity.ApplicationStatus.IN_EVALUATION);
+            application.setMonthlyIncome(BigDecimal.valueOf(random.nextLong(800_000L, 6_000_000L)));
+            application.setEmploymentYears(random.nextInt(0, 20));
+            application.setCurrentDebt(BigDecimal.valueOf(random.nextLong(0L, 500_000L)));
+            application.setPropertyValue(BigDecimal.valueOf(random.nextLong(50_000_000L, 600_000_000L)));
+            application.setDocumentationComplete(true);
+            application.setVersion(0L);
+            entities.add(application);
+
+            summaries.add(new ApplicationSummary(application.getId(), user.getId(), user.getFirstName(),
+                    user.getLastName(), application.getStatus(), application.getPropertyType(),
+                    application.getRequestedAmount(), application.getTerm(), application.getInterestRate(),
+                    application.getMonthlyIncome(), application.getEmploymentYears(),
+                    application.getPropertyValue(), Boolean.TRUE, application.getVersion()));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
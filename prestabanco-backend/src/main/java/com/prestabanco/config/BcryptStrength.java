@@ -0,0 +1,64 @@
+package com.prestabanco.config;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.util.Arrays;
+
+/**
+ * Elige el factor de costo de bcrypt a partir de una latencia objetivo por hash.
+ * Cada punto de costo duplica el trabajo, así que basta medir un costo bajo y
+ * extrapolar en lugar de probar los costos altos uno por uno al arrancar.
+ */
+final class BcryptStrength {
+
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    private static final int PROBE_STRENGTH = 8;
+    private static final int PROBE_ROUNDS = 7;
+    // El calentamiento termina cuando dos hashes seguidos difieren en menos de este margen
+    private static final double SETTLED_TOLERANCE = 0.10;
+    private static final int MAX_WARMUP_ROUNDS = 30;
+
+    private BcryptStrength() {
+    }
+
+    // Mide el costo de prueba en este equipo y extrapola hasta la latencia objetivo. Con la JVM
+    // recién iniciada los primeros hashes son mucho más lentos (intérprete, JIT): se calienta con
+    // el mismo costo que se mide hasta que los tiempos se estabilizan, y se usa la mediana
+    static int calibrate(long targetMillis) {
+        String probeSalt = BCrypt.gensalt(PROBE_STRENGTH);
+        long previous = timeHash(probeSalt);
+        for (int i = 1; i < MAX_WARMUP_ROUNDS; i++) {
+            long current = timeHash(probeSalt);
+            boolean settled = Math.abs(current - previous) <= SETTLED_TOLERANCE * previous;
+            previous = current;
+            if (settled) {
+                break;
+            }
+        }
+
+        long[] rounds = new long[PROBE_ROUNDS];
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            rounds[i] = timeHash(probeSalt);
+        }
+        Arrays.sort(rounds);
+        return forTarget(targetMillis, PROBE_STRENGTH, rounds[PROBE_ROUNDS / 2] / 1_000_000.0);
+    }
+
+    private static long timeHash(String salt) {
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibracion", salt);
+        return System.nanoTime() - start;
+    }
+
+    // Mayor costo cuyo hash no supera la latencia objetivo, sabiendo que un hash de costo
+    // probeStrength tarda probeMillis; acotado a [MIN_STRENGTH, MAX_STRENGTH]
+    static int forTarget(long targetMillis, int probeStrength, double probeMillis) {
+        if (probeMillis <= 0) {
+            return MAX_STRENGTH;
+        }
+        int extraRounds = (int) Math.floor(Math.log(targetMillis / probeMillis) / Math.log(2));
+        return Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, probeStrength + extraRounds));
+    }
+}
@@ -0,0 +1,71 @@
+package com.prestabanco.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caché de segundo nivel de Hibernate para usuarios y cuentas de ahorro, que se leen en cada
+ * login, evaluación y carga del panel y casi no se escriben. Las regiones son cachés Caffeine
+ * acotadas por tamaño y con expiración tras la escritura; esta última limita cuánto tarda una
+ * instancia en ver un cambio hecho por otra. Hibernate las actualiza al guardar o eliminar por
+ * el EntityManager y vacía la región completa ante un UPDATE masivo (JPQL).
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    private static final List<String> REGIONS = List.of(UserEntity.CACHE_REGION, SavingsEntity.CACHE_REGION);
+
+    // Cada contexto (por ejemplo, en las pruebas) tiene su propio CacheManager y no comparte entradas
+    private static final AtomicInteger MANAGER_SEQUENCE = new AtomicInteger();
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            @Value("${prestabanco.cache.entities.max-size:10000}") long maxSize,
+            @Value("${prestabanco.cache.entities.expire-after-write:10m}") Duration expireAfterWrite) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager(
+                URI.create("prestabanco-entities-" + MANAGER_SEQUENCE.incrementAndGet()),
+                EntityCacheConfig.class.getClassLoader());
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        // Aciertos, fallos y desalojos para JCacheMetrics
+        configuration.setStatisticsEnabled(true);
+        REGIONS.forEach(region -> cacheManager.createCache(region, configuration));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            // Una entidad con @Cache sin región configurada aquí es un error de configuración
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> REGIONS.forEach(region ->
+                JCacheMetrics.monitor(registry, entityCacheManager.getCache(region)));
+    }
+}
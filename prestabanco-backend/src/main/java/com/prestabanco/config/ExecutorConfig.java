@@ -0,0 +1,98 @@
+package com.prestabanco.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    // Pool acotado para la simulación en lote: si la cola se llena, el hilo que
+    // envía ejecuta la tarea (contrapresión en lugar de rechazar la solicitud)
+    @Bean(name = "simulationExecutor", destroyMethod = "shutdown")
+    public ExecutorService simulationExecutor(
+            @Value("${prestabanco.simulation.batch.threads:0}") int threads,
+            @Value("${prestabanco.simulation.batch.queue-capacity:1024}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreadFactory("simulation-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Pool para evaluar en paralelo las solicitudes del trabajo de reevaluación masiva
+    @Bean(name = "reevaluationExecutor", destroyMethod = "shutdown")
+    public ExecutorService reevaluationExecutor(
+            @Value("${prestabanco.reevaluation.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(poolSize * 64),
+                namedThreadFactory("reevaluation-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Pool exclusivo para verificar contraseñas: bcrypt no ocupa hilos de Tomcat y, con la
+    // cola llena, el login se rechaza de inmediato en lugar de esperar detrás de otros hashes
+    @Bean(name = "loginExecutor", destroyMethod = "shutdown")
+    public ExecutorService loginExecutor(
+            @Value("${prestabanco.login.threads:0}") int threads,
+            @Value("${prestabanco.login.queue-capacity:32}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreadFactory("login-"),
+                new ThreadPoolExecutor.AbortPolicy()) {
+            // La búsqueda del usuario corre en este pool: sus sentencias se cuentan en la petición
+            @Override
+            public void execute(Runnable command) {
+                super.execute(SqlStatementCounter.propagate(command));
+            }
+        };
+    }
+
+    // Con spring.threads.virtual.enabled=true sobre Java 21+, Tomcat y el ejecutor de MVC asíncrono
+    // usan hilos virtuales; los pools de esta clase siguen siendo de plataforma y acotados
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Peticiones atendidas en hilos virtuales");
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled requiere Java 21 o superior (actual: {}); se usan hilos de plataforma",
+                    Runtime.version().feature());
+        }
+    }
+
+    static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.prestabanco.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Métricas propias de la aplicación; las de endpoints, JVM y pool de conexiones las publica actuator.
+// Se exponen en /actuator/prometheus del puerto de administración (management.server.*).
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, SqlStatementCounter.INSTANCE);
+    }
+
+    @Bean
+    public SqlStatementMetricsInterceptor sqlStatementMetricsInterceptor(MeterRegistry registry) {
+        return new SqlStatementMetricsInterceptor(registry);
+    }
+}
@@ -1,17 +1,26 @@
 package com.prestabanco.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -19,13 +28,27 @@ public class SecurityConfig {
                 .csrf().ignoringRequestMatchers("/api/**").and()  // Ignora CSRF solo para APIs
                 .authorizeHttpRequests()
                 .requestMatchers("/api/**").permitAll()
+                // Página de error de Spring Boot: sin esto un sendError de la API responde 403
+                .requestMatchers("/error").permitAll()
+                // Solo escucha en localhost (management.server.address)
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                 .anyRequest().authenticated();
 
         return http.build();
     }
 
+    // Los hashes nuevos se guardan como {bcrypt} con el costo configurado (o calibrado si es 0).
+    // Los hashes antiguos sin prefijo se siguen validando y se actualizan en el siguiente login.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${prestabanco.security.bcrypt.strength:0}") int strength,
+            @Value("${prestabanco.security.bcrypt.target-millis:250}") long targetMillis) {
+        int cost = strength > 0 ? strength : BcryptStrength.calibrate(targetMillis);
+        log.info("Costo de bcrypt para contraseñas: {}", cost);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(
+                "bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(cost)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(cost));
+        return encoder;
     }
 }
@@ -0,0 +1,63 @@
+package com.prestabanco.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara durante una petición. El contador lo
+ * abre {@link SqlStatementMetricsInterceptor} y vive en un ThreadLocal; sin petición en
+ * curso (trabajos en segundo plano, arranque) inspeccionar una sentencia no cuesta más
+ * que leer ese ThreadLocal. Las consultas hechas con JdbcTemplate no pasan por Hibernate
+ * y no se cuentan.
+ */
+public final class SqlStatementCounter implements StatementInspector {
+
+    public static final SqlStatementCounter INSTANCE = new SqlStatementCounter();
+
+    // StatementInspector extiende Serializable; el contador no tiene estado propio que serializar
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+
+    static void bind(AtomicInteger counter) {
+        CURRENT.set(counter);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    // Lleva el contador de la petición al hilo del pool que ejecuta parte de su trabajo
+    static Runnable propagate(Runnable task) {
+        AtomicInteger counter = CURRENT.get();
+        if (counter == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = CURRENT.get();
+            CURRENT.set(counter);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+}
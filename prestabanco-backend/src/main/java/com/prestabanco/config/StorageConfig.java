@@ -0,0 +1,22 @@
+package com.prestabanco.config;
+
+import com.prestabanco.services.ContentAddressedStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+
+// Programa el barrido del contenido que ya no usa ningún documento (DocumentService)
+@Configuration
+@EnableScheduling
+public class StorageConfig {
+
+    // Contenido de los documentos adjuntos; en la base de datos solo quedan sus metadatos
+    @Bean
+    public ContentAddressedStore documentStore(
+            @Value("${prestabanco.documents.storage-dir:data/documents}") String storageDir) {
+        return new ContentAddressedStore(Path.of(storageDir));
+    }
+}
@@ -0,0 +1,155 @@
+package com.prestabanco.controllers;
+
+import com.prestabanco.services.ApplicationStatusCounters;
+import com.prestabanco.services.BulkImportService;
+import com.prestabanco.services.BulkImportService.ImportFormat;
+import com.prestabanco.services.BulkImportService.ImportTarget;
+import com.prestabanco.services.PortfolioStatsService;
+import com.prestabanco.services.ReevaluationJobService;
+import com.prestabanco.services.SavingsLedgerService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private ReevaluationJobService reevaluationJobService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private PortfolioStatsService portfolioStatsService;
+
+    @Autowired
+    private SavingsLedgerService savingsLedgerService;
+
+    // Inicia la reevaluación masiva de solicitudes en evaluación o pre-aprobadas
+    @PostMapping("/reevaluation")
+    public ResponseEntity<?> startReevaluation(@RequestParam(defaultValue = "0") long fromId) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reevaluationJobService.start(fromId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/reevaluation")
+    public ResponseEntity<ReevaluationJobService.JobProgress> getReevaluationProgress() {
+        return ResponseEntity.ok(reevaluationJobService.getProgress());
+    }
+
+    @PostMapping("/reevaluation/pause")
+    public ResponseEntity<?> pauseReevaluation() {
+        try {
+            return ResponseEntity.ok(reevaluationJobService.pause());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/reevaluation/resume")
+    public ResponseEntity<?> resumeReevaluation() {
+        try {
+            return ResponseEntity.ok(reevaluationJobService.resume());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/reevaluation/cancel")
+    public ResponseEntity<?> cancelReevaluation() {
+        try {
+            return ResponseEntity.ok(reevaluationJobService.cancel());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Importación masiva de usuarios, ahorros o solicitudes; el cuerpo es el archivo NDJSON o CSV.
+    // Responde 202 al terminar de recibirlo y procesa en segundo plano.
+    @PostMapping("/imports/{target}")
+    public ResponseEntity<?> startImport(@PathVariable String target,
+                                         @RequestParam(defaultValue = "ndjson") String format,
+                                         HttpServletRequest request) throws IOException {
+        ImportTarget importTarget;
+        ImportFormat importFormat;
+        try {
+            importTarget = ImportTarget.from(target);
+            importFormat = ImportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(bulkImportService.start(importTarget, importFormat, request.getInputStream()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/imports")
+    public ResponseEntity<BulkImportService.ImportProgress> getImportProgress() {
+        return ResponseEntity.ok(bulkImportService.getProgress());
+    }
+
+    @PostMapping("/imports/cancel")
+    public ResponseEntity<?> cancelImport() {
+        try {
+            return ResponseEntity.ok(bulkImportService.cancel());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Líneas rechazadas de la última importación, en NDJSON: {"line":..,"error":..,"content":..}
+    @GetMapping("/imports/rejections")
+    public ResponseEntity<StreamingResponseBody> getImportRejections() {
+        if (!bulkImportService.hasRejectionsReport()) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = outputStream -> bulkImportService.writeRejections(outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Totales de solicitudes y préstamos calculados en la base
+    @GetMapping("/portfolio")
+    public ResponseEntity<PortfolioStatsService.PortfolioStats> getPortfolioStats() {
+        return ResponseEntity.ok(portfolioStatsService.getPortfolioStats());
+    }
+
+    // Solicitudes por estado desde los contadores en memoria
+    @GetMapping("/portfolio/status-counts")
+    public ResponseEntity<ApplicationStatusCounters.StatusCounts> getStatusCounts() {
+        return ResponseEntity.ok(portfolioStatsService.getStatusCounts());
+    }
+
+    @PostMapping("/portfolio/status-counts/reconcile")
+    public ResponseEntity<ApplicationStatusCounters.StatusCounts> reconcileStatusCounts() {
+        return ResponseEntity.ok(portfolioStatsService.reconcileStatusCounts());
+    }
+
+    // Recalcula los campos derivados de las cuentas desde el libro de movimientos; sin savingsId, todas
+    @PostMapping("/savings-ledger/rebuild")
+    public ResponseEntity<?> rebuildSavingsLedger(@RequestParam(required = false) Long savingsId) {
+        try {
+            return ResponseEntity.ok(savingsLedgerService.rebuild(savingsId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.prestabanco.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.prestabanco.entities.ApplicationEntity;
-import com.prestabanco.entities.SavingsEntity;
-import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.projections.ApplicationSummary;
 import com.prestabanco.services.ApplicationService;
-import com.prestabanco.services.LoanCalculatorService;
 import com.prestabanco.services.CreditEvaluationService;
-import com.prestabanco.services.UserService;
-import com.prestabanco.services.SavingsService;
+import com.prestabanco.services.CursorPage;
+import com.prestabanco.services.EvaluationResultService;
+import com.prestabanco.services.ExportService;
+import com.prestabanco.services.ExportService.ExportFormat;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -25,13 +32,9 @@ public class ApplicationController {
     @Autowired
     private ApplicationService applicationService;
     @Autowired
-    private UserService userService;
+    private EvaluationResultService evaluationResultService;
     @Autowired
-    private SavingsService savingsService;
-    @Autowired
-    private LoanCalculatorService calculatorService;
-    @Autowired
-    private CreditEvaluationService evaluationService;
+    private ExportService exportService;
 
     @PostMapping
     public ResponseEntity<?> createApplication(@RequestBody ApplicationEntity application) {
@@ -50,37 +53,53 @@ public class ApplicationController {
 
     @PostMapping("/{applicationId}/evaluate")
     public ResponseEntity<CreditEvaluationService.CreditEvaluationResult> evaluateApplication(
-            @PathVariable Long applicationId) {
+            @PathVariable Long applicationId,
+            @RequestParam(defaultValue = "FULL") CreditEvaluationService.EvaluationMode mode) {
 
-        ApplicationEntity application = applicationService.getApplicationById(applicationId)
+        ApplicationService.EvaluationData data = applicationService.getEvaluationData(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
-        UserEntity user = userService.getUserById(application.getUser().getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        SavingsEntity savings = savingsService.getSavingsByUserId(user.getId())
-                .orElse(null);
-
-        BigDecimal monthlyPayment = calculatorService.calculateMonthlyPayment(
-                application.getRequestedAmount(),
-                application.getInterestRate(),
-                application.getTerm()
-        );
-
-        return ResponseEntity.ok(evaluationService.evaluateApplication(
-                application, user, savings, monthlyPayment));
+        // Si los datos no cambiaron desde la última evaluación se devuelve el resultado almacenado
+        return ResponseEntity.ok(evaluationResultService.evaluate(data.getApplication(), data.getSavings(), mode));
     }
 
+    // Listado paginado por keyset; status acepta varios valores (status=APPROVED,REJECTED)
     @GetMapping
-    public ResponseEntity<List<ApplicationEntity>> getAllApplications() {
+    public ResponseEntity<CursorPage<ApplicationSummary>> getApplications(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) List<ApplicationEntity.ApplicationStatus> status,
+            @RequestParam(required = false) ApplicationEntity.PropertyType propertyType) {
         try {
-            List<ApplicationEntity> applications = applicationService.getAllApplications();
-            return ResponseEntity.ok(applications);
+            return ResponseEntity.ok(applicationService.getApplicationsPage(cursor, limit, status, propertyType));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    // Extracto completo en CSV o NDJSON (opcionalmente .gz), escrito mientras se lee de la base. Va en el
+    // hilo de la petición porque puede durar más que el timeout de las respuestas asíncronas.
+    // Las solicitudes no guardan fecha, por lo que no hay filtro por rango de fechas
+    @GetMapping("/export")
+    public void exportApplications(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) List<ApplicationEntity.ApplicationStatus> status,
+            @RequestParam(required = false) ApplicationEntity.PropertyType propertyType,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        response.setContentType(exportFormat.getMediaType(gzip).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(exportFormat.fileName("solicitudes", gzip)).build().toString());
+        exportService.exportApplications(status, propertyType, exportFormat, gzip, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApplicationEntity> getApplicationById(@PathVariable Long id) {
         return applicationService.getApplicationById(id)
@@ -89,23 +108,56 @@ public class ApplicationController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ApplicationEntity>> getApplicationsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(applicationService.getApplicationsByUserId(userId));
+    public ResponseEntity<List<ApplicationSummary>> getApplicationsByUserId(@PathVariable Long userId) {
+        return ResponseEntity.ok(applicationService.getApplicationSummariesByUserId(userId));
     }
 
 
     @PutMapping("/{id}")
-    public ResponseEntity<ApplicationEntity> updateApplication(@PathVariable Long id, @RequestBody ApplicationEntity application) {
+    public ResponseEntity<?> updateApplication(@PathVariable Long id, @RequestBody ApplicationEntity application) {
         application.setId(id);
-        return ResponseEntity.ok(applicationService.updateApplication(application));
+        try {
+            return ResponseEntity.ok(applicationService.updateApplication(application));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Solo las columnas del cuerpo (JSON Merge Patch); responde 204 sin volver a leer la solicitud
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchApplication(@PathVariable Long id, @RequestBody JsonNode patch) {
+        try {
+            applicationService.patchApplication(id, patch);
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
     }
 
+    // Cuerpo: {"status": nuevo, "version": opcional, "currentStatus": opcional}. Con versión y estado
+    // actual el cambio es un solo UPDATE; si la solicitud cambió entretanto responde 409
     @PutMapping("/{id}/status")
-    public ResponseEntity<ApplicationEntity> updateStatus(
+    public ResponseEntity<?> updateStatus(
             @PathVariable Long id,
             @RequestBody Map<String, String> statusUpdate
     ) {
-        return ResponseEntity.ok(applicationService.updateStatus(id, statusUpdate.get("status")));
+        try {
+            String version = statusUpdate.get("version");
+            return ResponseEntity.ok(applicationService.updateStatus(id, statusUpdate.get("status"),
+                    statusUpdate.get("currentStatus"), version == null ? null : Long.valueOf(version)));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
     }
 
 
@@ -0,0 +1,198 @@
+package com.prestabanco.controllers;
+
+import com.prestabanco.entities.DocumentEntity;
+import com.prestabanco.services.CursorPage;
+import com.prestabanco.services.DocumentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@RestController
+@CrossOrigin
+@RequestMapping("/api/documents")
+public class DocumentController {
+
+    private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of("application/pdf", "image/jpeg", "image/png");
+
+    // Atributos con los que Tomcat envía el archivo con sendfile, sin pasar los bytes por la JVM
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private DocumentService documentService;
+
+    @GetMapping
+    public ResponseEntity<CursorPage<DocumentEntity>> getDocuments(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(documentService.getDocumentsPage(cursor, limit));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DocumentEntity> getDocumentById(@PathVariable Long id) {
+        return documentService.getDocumentById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/application/{applicationId}")
+    public ResponseEntity<List<DocumentEntity>> getDocumentsByApplicationId(@PathVariable Long applicationId) {
+        return ResponseEntity.ok(documentService.getDocumentsByApplicationId(applicationId));
+    }
+
+    // El multipart lo escribe el contenedor en disco; aquí se copia por bloques al almacén
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadDocument(@RequestParam Long applicationId,
+                                            @RequestParam String documentType,
+                                            @RequestParam("file") MultipartFile file) throws IOException {
+        if (!ALLOWED_CONTENT_TYPES.contains(file.getContentType())) {
+            return unsupportedType();
+        }
+        try (InputStream content = file.getInputStream()) {
+            Optional<DocumentEntity> document = documentService.uploadDocument(
+                    applicationId, documentType, file.getOriginalFilename(), file.getContentType(), content);
+            return document.<ResponseEntity<?>>map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved))
+                    .orElse(ResponseEntity.notFound().build());
+        }
+    }
+
+    @PutMapping(path = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> replaceDocument(@PathVariable Long id,
+                                             @RequestParam("file") MultipartFile file) throws IOException {
+        if (!ALLOWED_CONTENT_TYPES.contains(file.getContentType())) {
+            return unsupportedType();
+        }
+        try (InputStream content = file.getInputStream()) {
+            Optional<DocumentEntity> document = documentService.replaceContent(
+                    id, file.getOriginalFilename(), file.getContentType(), content);
+            return document.<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteDocument(@PathVariable Long id) {
+        return documentService.deleteDocument(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // Contenido del documento; admite un rango de bytes (Range: bytes=inicio-fin)
+    @GetMapping("/{id}/content")
+    public void downloadContent(@PathVariable Long id,
+                                @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        Optional<DocumentEntity> found = documentService.getDocumentById(id);
+        if (found.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        DocumentEntity document = found.get();
+        Path path = documentService.getContentPath(document);
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        try (channel) {
+            long length = channel.size();
+            // El contenido no cambia para un mismo hash, así que el hash sirve como ETag fuerte
+            String etag = "\"" + document.getContentHash() + "\"";
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            response.setHeader("X-Content-Type-Options", "nosniff");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                    .filename(document.getFileName() == null ? "documento" : document.getFileName(),
+                            StandardCharsets.UTF_8)
+                    .build().toString());
+            response.setContentType(document.getContentType() == null
+                    ? MediaType.APPLICATION_OCTET_STREAM_VALUE : document.getContentType());
+
+            long start = 0;
+            long end = length - 1;
+            // Con If-Range distinto del ETag actual se entrega el archivo completo; con varios rangos también
+            List<HttpRange> ranges = parseRanges(range);
+            if (ranges.size() == 1 && (ifRange == null || ifRange.equals(etag))) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+            long count = end - start + 1;
+            response.setContentLengthLong(count);
+            if (count == 0 || "HEAD".equals(request.getMethod())) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, path.toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+
+            // Sin sendfile (otro contenedor, pruebas) el rango se copia con transferTo hacia la respuesta
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    // Un Range mal formado se ignora y se responde el archivo completo
+    private static List<HttpRange> parseRanges(String range) {
+        if (range == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private static ResponseEntity<?> unsupportedType() {
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .body(Map.of("error", "Solo se permiten archivos PDF, JPG o PNG"));
+    }
+}
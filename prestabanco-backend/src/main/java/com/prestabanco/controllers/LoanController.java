@@ -1,14 +1,33 @@
 package com.prestabanco.controllers;
 
 import com.prestabanco.entities.LoanEntity;
+import com.prestabanco.repositories.projections.LoanSummary;
 import com.prestabanco.services.LoanService;
 import com.prestabanco.services.LoanCalculatorService;
+import com.prestabanco.services.AmortizationScheduleService;
+import com.prestabanco.services.AmortizationScheduleService.ScheduleFormat;
+import com.prestabanco.services.BatchSimulationService;
+import com.prestabanco.services.SimulationGridService;
+import com.prestabanco.services.CursorPage;
+import com.prestabanco.services.ExportService;
+import com.prestabanco.services.ExportService.ExportFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import com.prestabanco.entities.ApplicationEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @RestController
 @CrossOrigin
@@ -21,6 +40,18 @@ public class LoanController {
     @Autowired
     private LoanService loanService;
 
+    @Autowired
+    private AmortizationScheduleService scheduleService;
+
+    @Autowired
+    private BatchSimulationService batchSimulationService;
+
+    @Autowired
+    private SimulationGridService gridService;
+
+    @Autowired
+    private ExportService exportService;
+
     @PostMapping
     public ResponseEntity<LoanEntity> createLoan(@RequestBody LoanEntity loan) {
         return ResponseEntity.ok(loanService.createLoan(loan));
@@ -40,6 +71,34 @@ public class LoanController {
         return ResponseEntity.ok(loan);
     }
 
+    @PostMapping(value = "/simulate/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> simulateBatch(HttpServletRequest request) throws IOException {
+        // Acepta un arreglo JSON o NDJSON; responde NDJSON en el mismo orden, con errores por elemento
+        InputStream input = request.getInputStream();
+        StreamingResponseBody body = outputStream -> batchSimulationService.simulate(input, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/simulate/grid")
+    public ResponseEntity<?> simulateGrid(
+            @RequestParam BigDecimal amount,
+            @RequestParam(defaultValue = "3.0") BigDecimal rateFrom,
+            @RequestParam(defaultValue = "10.0") BigDecimal rateTo,
+            @RequestParam(defaultValue = "0.1") BigDecimal rateStep,
+            @RequestParam(defaultValue = "5") int yearsFrom,
+            @RequestParam(defaultValue = "30") int yearsTo,
+            @RequestParam(defaultValue = "1") int yearsStep) {
+        try {
+            return ResponseEntity.ok(gridService.simulateGrid(
+                    amount, rateFrom, rateTo, rateStep, yearsFrom, yearsTo, yearsStep));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/calculate-cost")
     public ResponseEntity<LoanEntity> calculateLoanCost(@RequestBody LoanEntity loan) {
         // Calcular costo total
@@ -54,6 +113,81 @@ public class LoanController {
         return ResponseEntity.ok(loan);
     }
 
+    @PostMapping("/schedule")
+    public ResponseEntity<?> streamSchedule(
+            @RequestBody LoanEntity loan,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return scheduleResponse(loan, format);
+    }
+
+    @GetMapping("/{id}/schedule")
+    public ResponseEntity<?> getLoanSchedule(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return loanService.getLoanById(id)
+                .<ResponseEntity<?>>map(loan -> scheduleResponse(loan, format))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<?> scheduleResponse(LoanEntity loan, String format) {
+        ScheduleFormat scheduleFormat;
+        try {
+            scheduleFormat = ScheduleFormat.from(format);
+            AmortizationScheduleService.validate(loan.getRequestedAmount(), loan.getInterestRate(), loan.getTerm());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        BigDecimal amount = loan.getRequestedAmount();
+        BigDecimal rate = loan.getInterestRate();
+        int years = loan.getTerm();
+        StreamingResponseBody body = outputStream ->
+                scheduleService.writeSchedule(amount, rate, years, scheduleFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(scheduleFormat.getMediaType())
+                .body(body);
+    }
+
+    // Listado paginado por keyset, con filtro opcional por tipo de propiedad
+    @GetMapping
+    public ResponseEntity<CursorPage<LoanSummary>> getLoans(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) ApplicationEntity.PropertyType propertyType) {
+        return ResponseEntity.ok(loanService.getLoansPage(cursor, limit, propertyType));
+    }
+
+    // Extracto de préstamos en CSV o NDJSON (opcionalmente .gz), escrito mientras se lee de la base
+    // y en el hilo de la petición, como el de solicitudes. from y to son días, ambos incluidos
+    @GetMapping("/export")
+    public void exportLoans(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) ApplicationEntity.PropertyType propertyType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "La fecha final es anterior a la inicial");
+            return;
+        }
+        response.setContentType(exportFormat.getMediaType(gzip).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(exportFormat.fileName("prestamos", gzip)).build().toString());
+        exportService.exportLoans(propertyType,
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(),
+                exportFormat, gzip, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<LoanEntity> getLoanById(@PathVariable Long id) {
         return loanService.getLoanById(id)
@@ -62,15 +196,15 @@ public class LoanController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<LoanEntity>> getLoansByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(loanService.getLoansByUserId(userId));
+    public ResponseEntity<List<LoanSummary>> getLoansByUserId(@PathVariable Long userId) {
+        return ResponseEntity.ok(loanService.getLoanSummariesByUserId(userId, null));
     }
 
     @GetMapping("/user/{userId}/type/{propertyType}")
-    public ResponseEntity<List<LoanEntity>> getLoansByUserAndPropertyType(
+    public ResponseEntity<List<LoanSummary>> getLoansByUserAndPropertyType(
             @PathVariable Long userId,
             @PathVariable ApplicationEntity.PropertyType propertyType) {
-        return ResponseEntity.ok(loanService.getLoansByUserAndPropertyType(userId, propertyType));
+        return ResponseEntity.ok(loanService.getLoanSummariesByUserId(userId, propertyType));
     }
 
     @PutMapping("/{id}")
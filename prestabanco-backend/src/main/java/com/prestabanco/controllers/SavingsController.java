@@ -1,11 +1,20 @@
 package com.prestabanco.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.repositories.projections.SavingsView;
+import com.prestabanco.services.SavingsLedgerService;
 import com.prestabanco.services.SavingsService;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @CrossOrigin
 @RequestMapping("/api/savings")
@@ -14,21 +23,24 @@ public class SavingsController {
     @Autowired
     private SavingsService savingsService;
 
+    @Autowired
+    private SavingsLedgerService savingsLedgerService;
+
     @PostMapping
     public ResponseEntity<SavingsEntity> createSavings(@RequestBody SavingsEntity savings) {
         return ResponseEntity.ok(savingsService.createSavings(savings));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<SavingsEntity> getSavingsById(@PathVariable Long id) {
-        return savingsService.getSavingsById(id)
+    public ResponseEntity<SavingsView> getSavingsById(@PathVariable Long id) {
+        return savingsService.getSavingsViewById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<SavingsEntity> getSavingsByUserId(@PathVariable Long userId) {
-        return savingsService.getSavingsByUserId(userId)
+    public ResponseEntity<SavingsView> getSavingsByUserId(@PathVariable Long userId) {
+        return savingsService.getSavingsViewByUserId(userId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -39,6 +51,37 @@ public class SavingsController {
         return ResponseEntity.ok(savingsService.updateSavings(savings));
     }
 
+    // Solo las columnas del cuerpo (JSON Merge Patch); el usuario dueño no se toca
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchSavings(@PathVariable Long id, @RequestBody JsonNode patch) {
+        try {
+            savingsService.patchSavings(id, patch);
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "El número de cuenta ya existe"));
+        }
+    }
+
+    // Cuerpo: {"type": "DEPOSIT" | "WITHDRAWAL", "amount": monto, "occurredAt": opcional}.
+    // Responde los campos derivados de la cuenta ya actualizados
+    @PostMapping("/{id}/transactions")
+    public ResponseEntity<?> recordTransaction(@PathVariable Long id,
+                                               @RequestBody SavingsLedgerService.TransactionRequest transaction) {
+        try {
+            return ResponseEntity.ok(savingsLedgerService.record(id, transaction));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSavings(@PathVariable Long id) {
         savingsService.deleteSavings(id);
@@ -1,15 +1,26 @@
 package com.prestabanco.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.prestabanco.entities.UserEntity;
+import com.prestabanco.services.CursorPage;
+import com.prestabanco.services.LoginService;
 import com.prestabanco.services.UserService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @CrossOrigin
@@ -19,9 +30,18 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LoginService loginService;
+
+    // Crear, registrar y cambiar la contraseña calculan bcrypt en el pool de login, no en el hilo de la petición
     @PostMapping
-    public ResponseEntity<UserEntity> createUser(@RequestBody UserEntity user) {
-        return ResponseEntity.ok(userService.createUser(user));
+    public CompletableFuture<ResponseEntity<?>> createUser(@RequestBody UserEntity user) {
+        try {
+            return loginService.withPasswordHashing(() -> userService.createUser(user))
+                    .thenApply(ResponseEntity::ok);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
+        }
     }
 
     @GetMapping("/{id}")
@@ -31,15 +51,52 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Listado paginado por keyset: se pide la página siguiente con cursor = nextCursor
     @GetMapping
-    public ResponseEntity<List<UserEntity>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<CursorPage<UserEntity>> getUsers(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userService.getUsersPage(cursor, limit));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<UserEntity> updateUser(@PathVariable Long id, @RequestBody UserEntity user) {
+    public CompletableFuture<ResponseEntity<?>> updateUser(@PathVariable Long id, @RequestBody UserEntity user) {
         user.setId(id);
-        return ResponseEntity.ok(userService.updateUser(user));
+        if (user.getPassword() == null || user.getPassword().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(userService.updateUser(user)));
+        }
+        try {
+            return loginService.withPasswordHashing(() -> userService.updateUser(user))
+                    .thenApply(ResponseEntity::ok);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
+        }
+    }
+
+    // Solo las columnas del cuerpo (JSON Merge Patch); bcrypt corre en el pool de login solo si viene la contraseña
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public CompletableFuture<ResponseEntity<?>> patchUser(@PathVariable Long id, @RequestBody JsonNode patch) {
+        if (patch == null || !patch.has("password")) {
+            return CompletableFuture.completedFuture(patchResult(() -> userService.patchUser(id, patch)));
+        }
+        try {
+            return loginService.withPasswordHashing(() -> patchResult(() -> userService.patchUser(id, patch)));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
+        }
+    }
+
+    private static ResponseEntity<?> patchResult(Runnable patch) {
+        try {
+            patch.run();
+            return ResponseEntity.noContent().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "El correo o el RUT ya están registrados"));
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -49,35 +106,57 @@ public class UserController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody UserEntity user) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody UserEntity user) {
         try {
-            UserEntity newUser = userService.createUser(user);
-            return ResponseEntity.ok(newUser);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Error al registrar usuario: " + e.getMessage()));
+            return loginService.withPasswordHashing(() -> userService.createUser(user))
+                    .handle((newUser, error) -> {
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                            return ResponseEntity.badRequest()
+                                    .body(Map.of("error", "Error al registrar usuario: " + cause.getMessage()));
+                        }
+                        return ResponseEntity.ok(newUser);
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
         }
     }
 
+    // La verificación corre en el pool de login y el hilo de Tomcat queda libre mientras tanto.
+    // Los intentos sobre el límite responden 429 y, con el pool saturado, 503; ambos sin bcrypt.
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
-        try {
-            String email = credentials.get("email");
-            String password = credentials.get("password");
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> credentials,
+                                                      HttpServletRequest request) {
+        String email = credentials.get("email");
+        String password = credentials.get("password");
 
-            UserEntity user = userService.validateLogin(email, password);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("user", user);
-            response.put("isAuthenticated", true);
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Credenciales inválidas"));
+        try {
+            return loginService.login(email, password, request.getRemoteAddr())
+                    .handle((user, error) -> {
+                        if (error != null) {
+                            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                    .body(Map.of("error", "Credenciales inválidas"));
+                        }
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("user", user);
+                        response.put("isAuthenticated", true);
+                        return ResponseEntity.ok(response);
+                    });
+        } catch (LoginService.TooManyAttemptsException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", "Demasiados intentos, espere antes de volver a intentar")));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
         }
     }
 
+    private static ResponseEntity<?> hashingBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Servicio ocupado, intente nuevamente en unos segundos"));
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<?> logout() {
         return ResponseEntity.ok(Map.of("message", "Sesión cerrada exitosamente"));
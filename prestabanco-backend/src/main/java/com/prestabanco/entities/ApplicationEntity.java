@@ -15,7 +15,9 @@ import java.math.BigDecimal;
 public class ApplicationEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Mismo esquema de ids que UserEntity
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "applications_seq")
+    @SequenceGenerator(name = "applications_seq", sequenceName = "applications_seq", allocationSize = 50)
     @Column(unique = true, nullable = false)
     private Long id;
 
@@ -34,8 +36,9 @@ public class ApplicationEntity {
     private BigDecimal propertyValue;
     private Boolean documentationComplete;
 
-    @Column(columnDefinition = "text")
-    private String documents;
+    // Bloqueo optimista: los cambios de estado se condicionan a esta versión
+    @Version
+    private Long version;
 
     public enum PropertyType {
         FIRST_HOME,
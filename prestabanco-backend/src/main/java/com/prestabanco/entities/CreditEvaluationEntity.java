@@ -0,0 +1,40 @@
+package com.prestabanco.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Último resultado de evaluación crediticia de una solicitud, junto con la huella de sus datos de entrada
+@Entity
+@Table(name = "credit_evaluations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditEvaluationEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(unique = true, nullable = false)
+    private Long id;
+
+    @Column(name = "application_id", unique = true, nullable = false)
+    private Long applicationId;
+
+    // SHA-256 en hexadecimal de los datos evaluados, la versión de la política y el modo
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private String policyVersion;
+    private String mode;
+    private Boolean approved;
+    private String message;
+
+    // Detalle por regla serializado como JSON
+    @Column(columnDefinition = "text")
+    private String details;
+
+    private LocalDateTime evaluatedAt;
+}
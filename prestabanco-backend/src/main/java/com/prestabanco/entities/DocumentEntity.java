@@ -0,0 +1,39 @@
+package com.prestabanco.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Metadatos de un documento adjunto; el contenido vive en el almacén en disco bajo su hash
+@Entity
+@Table(name = "documents")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(unique = true, nullable = false)
+    private Long id;
+
+    @Column(name = "application_id", nullable = false)
+    private Long applicationId;
+
+    // Clave del documento en la solicitud (incomeProof, propertyAppraisal, ...)
+    @Column(nullable = false)
+    private String documentType;
+
+    private String fileName;
+    private String contentType;
+    private Long fileSize;
+
+    // SHA-256 en hexadecimal del contenido
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    private LocalDateTime uploadedAt;
+}
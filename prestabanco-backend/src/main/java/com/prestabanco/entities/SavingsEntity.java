@@ -5,6 +5,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -13,10 +15,16 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SavingsEntity.CACHE_REGION)
 public class SavingsEntity {
 
+    // Región del caché de segundo nivel (ver EntityCacheConfig)
+    public static final String CACHE_REGION = "savings";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Mismo esquema de ids que UserEntity
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "savings_seq")
+    @SequenceGenerator(name = "savings_seq", sequenceName = "savings_seq", allocationSize = 50)
     @Column(unique = true, nullable = false)
     private Long id;
 
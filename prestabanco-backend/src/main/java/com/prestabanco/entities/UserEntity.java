@@ -4,17 +4,31 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "users")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserEntity.CACHE_REGION)
 public class UserEntity {
 
+    // Región del caché de segundo nivel (ver EntityCacheConfig)
+    public static final String CACHE_REGION = "users";
+
+    // Hash inutilizable de los usuarios sin contraseña (p. ej. importados): ningún codificador usa
+    // este prefijo, así que no hay contraseña que lo valide hasta que se asigne una nueva
+    public static final String DISABLED_PASSWORD = "{disabled}";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con bloques de 50 ids por llamada (V5__sequence_ids): a diferencia de IDENTITY,
+    // permite que Hibernate agrupe los INSERT en batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(unique = true, nullable = false)
     private Long id;
 
@@ -22,6 +36,8 @@ public class UserEntity {
     private String firstName;
     private String lastName;
     private String email;
+    // Se acepta al registrar o actualizar, pero nunca se serializa en las respuestas
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     private String phoneNumber;
     private Integer age;
@@ -1,13 +1,105 @@
 package com.prestabanco.repositories;
 
 import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.repositories.projections.ApplicationExportRow;
+import com.prestabanco.repositories.projections.ApplicationSummary;
+import com.prestabanco.repositories.projections.PortfolioTotals;
+import com.prestabanco.repositories.projections.PropertyTypeTotals;
+import com.prestabanco.repositories.projections.StatusTotals;
+import com.prestabanco.repositories.projections.StatusVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ApplicationRepository extends JpaRepository<ApplicationEntity, Long> {
+public interface ApplicationRepository extends JpaRepository<ApplicationEntity, Long>,
+        JpaSpecificationExecutor<ApplicationEntity>, ApplicationRepositoryCustom {
     
     List<ApplicationEntity> findByUserId(Long userId);
+
+    @Query("select new com.prestabanco.repositories.projections.ApplicationSummary("
+            + "a.id, u.id, u.firstName, u.lastName, a.status, a.propertyType, a.requestedAmount, a.term, "
+            + "a.interestRate, a.monthlyIncome, a.employmentYears, a.propertyValue, "
+            + "case when exists (select d.id from DocumentEntity d where d.applicationId = a.id) "
+            + "then true else false end, a.version) "
+            + "from ApplicationEntity a join a.user u where u.id = :userId order by a.id")
+    List<ApplicationSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    // Paginación por keyset (id > cursor) con el usuario cargado en el mismo SELECT
+    @EntityGraph(attributePaths = "user")
+    List<ApplicationEntity> findByStatusInAndIdGreaterThanOrderByIdAsc(
+            Collection<ApplicationEntity.ApplicationStatus> statuses, Long id, Limit limit);
+
+    long countByStatusInAndIdGreaterThan(Collection<ApplicationEntity.ApplicationStatus> statuses, Long id);
+
+    // Solicitud, usuario y cuenta de ahorro en un solo SELECT; cada fila es [solicitud, ahorro (o null)]
+    @Query("select a, s from ApplicationEntity a join fetch a.user u "
+            + "left join SavingsEntity s on s.user = u "
+            + "where a.id = :id order by s.id")
+    List<Object[]> findWithUserAndSavingsById(@Param("id") Long id);
+
+    // Filas que el driver trae por viaje al recorrer una exportación (en PostgreSQL el cursor
+    // solo respeta el fetch size dentro de una transacción)
+    String EXPORT_FETCH_SIZE = "1000";
+
+    // Exportación en orden de id como proyección: nada queda en el contexto de persistencia mientras
+    // se recorre. anyStatus evita un IN vacío cuando no se filtra por estado
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select new com.prestabanco.repositories.projections.ApplicationExportRow("
+            + "a.id, a.user.id, a.status, a.propertyType, a.requestedAmount, a.term, a.interestRate, "
+            + "a.monthlyIncome, a.employmentYears, a.currentDebt, a.propertyValue, a.documentationComplete) "
+            + "from ApplicationEntity a "
+            + "where (:anyStatus = true or a.status in :statuses) "
+            + "and (:propertyType is null or a.propertyType = :propertyType) "
+            + "order by a.id")
+    Stream<ApplicationExportRow> streamExportRows(@Param("anyStatus") boolean anyStatus,
+                                                  @Param("statuses") Collection<ApplicationEntity.ApplicationStatus> statuses,
+                                                  @Param("propertyType") ApplicationEntity.PropertyType propertyType);
+
+    // Solo estado y versión: para condicionar un cambio de estado y ajustar los contadores sin cargar la solicitud
+    @Query("select new com.prestabanco.repositories.projections.StatusVersion(a.status, a.version) "
+            + "from ApplicationEntity a where a.id = :id")
+    Optional<StatusVersion> findStatusAndVersionById(@Param("id") Long id);
+
+    // Cambio de estado en un solo UPDATE: no modifica nada (devuelve 0) si otra escritura cambió
+    // el estado o la versión desde que se leyeron. from nulo corresponde a solicitudes sin estado
+    @Modifying
+    @Transactional
+    @Query("update ApplicationEntity a set a.status = :to, a.version = a.version + 1 "
+            + "where a.id = :id and a.version = :version "
+            + "and (a.status = :from or (a.status is null and :from is null))")
+    int updateStatusIfUnchanged(@Param("id") Long id,
+                                @Param("from") ApplicationEntity.ApplicationStatus from,
+                                @Param("to") ApplicationEntity.ApplicationStatus to,
+                                @Param("version") Long version);
+
+    // Agregados del panel de cartera: se calculan en la base con GROUP BY, sin traer filas
+    @Query("select new com.prestabanco.repositories.projections.StatusTotals("
+            + "a.status, count(a), sum(a.requestedAmount)) "
+            + "from ApplicationEntity a group by a.status order by a.status")
+    List<StatusTotals> sumByStatus();
+
+    @Query("select new com.prestabanco.repositories.projections.PropertyTypeTotals("
+            + "a.propertyType, count(a), sum(a.requestedAmount), avg(a.interestRate), avg(a.term)) "
+            + "from ApplicationEntity a group by a.propertyType order by a.propertyType")
+    List<PropertyTypeTotals> sumByPropertyType();
+
+    @Query("select new com.prestabanco.repositories.projections.PortfolioTotals("
+            + "count(a), sum(a.requestedAmount), avg(a.interestRate), avg(a.term)) "
+            + "from ApplicationEntity a")
+    PortfolioTotals sumAll();
 }
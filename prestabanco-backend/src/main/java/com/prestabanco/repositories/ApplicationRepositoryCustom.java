@@ -0,0 +1,13 @@
+package com.prestabanco.repositories;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.repositories.projections.ApplicationSummary;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ApplicationRepositoryCustom {
+
+    // Resúmenes ordenados por id que cumplen la Specification, como máximo limit filas
+    List<ApplicationSummary> findSummaries(Specification<ApplicationEntity> specification, int limit);
+}
@@ -0,0 +1,53 @@
+package com.prestabanco.repositories;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.DocumentEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.projections.ApplicationSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class ApplicationRepositoryCustomImpl implements ApplicationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ApplicationSummary> findSummaries(Specification<ApplicationEntity> specification, int limit) {
+        return ProjectionQueries.findProjected(entityManager, ApplicationEntity.class, ApplicationSummary.class,
+                specification, limit, (root, query, cb) -> {
+                    Join<ApplicationEntity, UserEntity> user = root.join("user", JoinType.LEFT);
+                    // Solo se informa si hay documentos; sus metadatos y contenido se piden aparte
+                    Subquery<Long> documents = query.subquery(Long.class);
+                    Root<DocumentEntity> document = documents.from(DocumentEntity.class);
+                    documents.select(document.get("id"))
+                            .where(cb.equal(document.get("applicationId"), root.get("id")));
+                    return new Selection<?>[]{
+                            root.get("id"),
+                            user.get("id"),
+                            user.get("firstName"),
+                            user.get("lastName"),
+                            root.get("status"),
+                            root.get("propertyType"),
+                            root.get("requestedAmount"),
+                            root.get("term"),
+                            root.get("interestRate"),
+                            root.get("monthlyIncome"),
+                            root.get("employmentYears"),
+                            root.get("propertyValue"),
+                            cb.<Boolean>selectCase()
+                                    .when(cb.exists(documents), true)
+                                    .otherwise(false),
+                            root.get("version")
+                    };
+                });
+    }
+}
@@ -0,0 +1,36 @@
+package com.prestabanco.repositories;
+
+import com.prestabanco.entities.CreditEvaluationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface CreditEvaluationRepository extends JpaRepository<CreditEvaluationEntity, Long> {
+
+    Optional<CreditEvaluationEntity> findByApplicationId(Long applicationId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from CreditEvaluationEntity e where e.applicationId = :applicationId")
+    int deleteByApplicationId(@Param("applicationId") Long applicationId);
+
+    // Invalida las evaluaciones de todas las solicitudes del usuario
+    @Modifying
+    @Transactional
+    @Query("delete from CreditEvaluationEntity e where e.applicationId in "
+            + "(select a.id from ApplicationEntity a where a.user.id = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Invalida las evaluaciones de las solicitudes del dueño de la cuenta de ahorro
+    @Modifying
+    @Transactional
+    @Query("delete from CreditEvaluationEntity e where e.applicationId in "
+            + "(select a.id from ApplicationEntity a, SavingsEntity s where s.id = :savingsId and a.user = s.user)")
+    int deleteBySavingsId(@Param("savingsId") Long savingsId);
+}
@@ -0,0 +1,28 @@
+package com.prestabanco.repositories;
+
+import com.prestabanco.entities.DocumentEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public interface DocumentRepository extends JpaRepository<DocumentEntity, Long> {
+
+    List<DocumentEntity> findByApplicationIdOrderByIdAsc(Long applicationId);
+
+    Optional<DocumentEntity> findByApplicationIdAndDocumentType(Long applicationId, String documentType);
+
+    // Un mismo contenido puede estar adjunto a varias solicitudes: de los hashes dados, los que aún usa alguno
+    @Query("select distinct d.contentHash from DocumentEntity d where d.contentHash in :hashes")
+    Set<String> findContentHashesIn(@Param("hashes") Collection<String> hashes);
+
+    // Paginación por keyset sobre el id
+    List<DocumentEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
@@ -0,0 +1,58 @@
+package com.prestabanco.repositories;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.LoanEntity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Filtros para los listados paginados por keyset (id > cursor). Cuando se consultan entidades
+// completas el usuario se carga en el mismo SELECT
+public final class KeysetSpecifications {
+
+    private KeysetSpecifications() {
+    }
+
+    public static Specification<ApplicationEntity> applications(
+            long afterId,
+            Collection<ApplicationEntity.ApplicationStatus> statuses,
+            ApplicationEntity.PropertyType propertyType) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = keyset(root, query, cb, afterId);
+            if (statuses != null && !statuses.isEmpty()) {
+                predicates.add(root.get("status").in(statuses));
+            }
+            if (propertyType != null) {
+                predicates.add(cb.equal(root.get("propertyType"), propertyType));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<LoanEntity> loans(long afterId, ApplicationEntity.PropertyType propertyType) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = keyset(root, query, cb, afterId);
+            if (propertyType != null) {
+                predicates.add(cb.equal(root.get("propertyType"), propertyType));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static List<Predicate> keyset(Root<?> root, CriteriaQuery<?> query, CriteriaBuilder cb, long afterId) {
+        // Solo al seleccionar la entidad: los conteos y las proyecciones no admiten fetch join
+        if (query.getResultType() == root.getJavaType()) {
+            root.fetch("user", JoinType.LEFT);
+        }
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(root.get("id"), afterId));
+        return predicates;
+    }
+}
@@ -2,15 +2,63 @@ package com.prestabanco.repositories;
 
 import com.prestabanco.entities.LoanEntity;
 import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.repositories.projections.LoanExportRow;
+import com.prestabanco.repositories.projections.LoanSummary;
+import com.prestabanco.repositories.projections.PortfolioTotals;
+import com.prestabanco.repositories.projections.PropertyTypeTotals;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface LoanRepository extends JpaRepository<LoanEntity, Long> {
+public interface LoanRepository extends JpaRepository<LoanEntity, Long>, JpaSpecificationExecutor<LoanEntity>,
+        LoanRepositoryCustom {
 
     List<LoanEntity> findByUserId(Long userId);
 
     List<LoanEntity> findByUserIdAndPropertyType(Long userId, ApplicationEntity.PropertyType propertyType);
-}
\ No newline at end of file
+
+    // propertyType nulo lista todos los tipos
+    @Query("select new com.prestabanco.repositories.projections.LoanSummary("
+            + "l.id, u.id, u.firstName, u.lastName, l.propertyType, l.requestedAmount, l.term, l.interestRate, "
+            + "l.monthlyPayment, l.insuranceCost, l.administrativeFee, l.totalCost, l.simulationDate) "
+            + "from LoanEntity l join l.user u "
+            + "where u.id = :userId and (:propertyType is null or l.propertyType = :propertyType) order by l.id")
+    List<LoanSummary> findSummariesByUserId(@Param("userId") Long userId,
+                                            @Param("propertyType") ApplicationEntity.PropertyType propertyType);
+
+    // Exportación por fecha de simulación, en [from, to); los límites nulos no filtran y el cast
+    // fija su tipo (PostgreSQL no infiere el de un parámetro nulo)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = ApplicationRepository.EXPORT_FETCH_SIZE))
+    @Query("select new com.prestabanco.repositories.projections.LoanExportRow("
+            + "l.id, l.user.id, l.propertyType, l.requestedAmount, l.term, l.interestRate, l.monthlyPayment, "
+            + "l.insuranceCost, l.administrativeFee, l.totalCost, l.simulationDate) "
+            + "from LoanEntity l "
+            + "where (:propertyType is null or l.propertyType = :propertyType) "
+            + "and (cast(:from as LocalDateTime) is null or l.simulationDate >= :from) "
+            + "and (cast(:to as LocalDateTime) is null or l.simulationDate < :to) "
+            + "order by l.id")
+    Stream<LoanExportRow> streamExportRows(@Param("propertyType") ApplicationEntity.PropertyType propertyType,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    // Agregados del panel de cartera, igual que en ApplicationRepository
+    @Query("select new com.prestabanco.repositories.projections.PropertyTypeTotals("
+            + "l.propertyType, count(l), sum(l.requestedAmount), avg(l.interestRate), avg(l.term)) "
+            + "from LoanEntity l group by l.propertyType order by l.propertyType")
+    List<PropertyTypeTotals> sumByPropertyType();
+
+    @Query("select new com.prestabanco.repositories.projections.PortfolioTotals("
+            + "count(l), sum(l.requestedAmount), avg(l.interestRate), avg(l.term)) "
+            + "from LoanEntity l")
+    PortfolioTotals sumAll();
+}
@@ -0,0 +1,13 @@
+package com.prestabanco.repositories;
+
+import com.prestabanco.entities.LoanEntity;
+import com.prestabanco.repositories.projections.LoanSummary;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface LoanRepositoryCustom {
+
+    // Resúmenes ordenados por id que cumplen la Specification, como máximo limit filas
+    List<LoanSummary> findSummaries(Specification<LoanEntity> specification, int limit);
+}
@@ -0,0 +1,42 @@
+package com.prestabanco.repositories;
+
+import com.prestabanco.entities.LoanEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.projections.LoanSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class LoanRepositoryCustomImpl implements LoanRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LoanSummary> findSummaries(Specification<LoanEntity> specification, int limit) {
+        return ProjectionQueries.findProjected(entityManager, LoanEntity.class, LoanSummary.class,
+                specification, limit, (root, query, cb) -> {
+                    Join<LoanEntity, UserEntity> user = root.join("user", JoinType.LEFT);
+                    return new Selection<?>[]{
+                            root.get("id"),
+                            user.get("id"),
+                            user.get("firstName"),
+                            user.get("lastName"),
+                            root.get("propertyType"),
+                            root.get("requestedAmount"),
+                            root.get("term"),
+                            root.get("interestRate"),
+                            root.get("monthlyPayment"),
+                            root.get("insuranceCost"),
+                            root.get("administrativeFee"),
+                            root.get("totalCost"),
+                            root.get("simulationDate")
+                    };
+                });
+    }
+}
@@ -0,0 +1,44 @@
+package com.prestabanco.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Ejecuta una Specification seleccionando solo las columnas de la proyección (constructor del record)
+final class ProjectionQueries {
+
+    private ProjectionQueries() {
+    }
+
+    // Columnas del SELECT; recibe la consulta para poder armar subconsultas
+    @FunctionalInterface
+    interface Columns<E> {
+        Selection<?>[] select(Root<E> root, CriteriaQuery<?> query, CriteriaBuilder cb);
+    }
+
+    static <E, P> List<P> findProjected(EntityManager entityManager,
+                                        Class<E> entityClass,
+                                        Class<P> projectionClass,
+                                        Specification<E> specification,
+                                        int limit,
+                                        Columns<E> columns) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = cb.createQuery(projectionClass);
+        Root<E> root = query.from(entityClass);
+
+        query.select(cb.construct(projectionClass, columns.select(root, query, cb)));
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, cb));
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
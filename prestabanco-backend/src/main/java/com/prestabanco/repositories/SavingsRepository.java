@@ -1,8 +1,14 @@
 package com.prestabanco.repositories;
 
 import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.repositories.projections.SavingsView;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,23 @@ public interface SavingsRepository extends JpaRepository<SavingsEntity, Long> {
     Optional<SavingsEntity> findByUserId(Long userId);
 
     Optional<SavingsEntity> findByAccountNumber(String accountNumber);
+
+    String SAVINGS_VIEW = "select new com.prestabanco.repositories.projections.SavingsView("
+            + "s.id, s.user.id, s.accountNumber, s.currentBalance, s.openingDate, s.lastTransactionDate, "
+            + "s.monthlyDepositsCount, s.monthlyDepositsAmount, s.largestWithdrawalLast6Months, "
+            + "s.largestWithdrawalDate, s.consecutiveMonthsWithBalance, s.significantWithdrawalsCount, "
+            + "s.lastSixMonthsAverageBalance, s.meetsSavingsCriteria) from SavingsEntity s ";
+
+    @Query(SAVINGS_VIEW + "where s.id = :id")
+    Optional<SavingsView> findViewById(@Param("id") Long id);
+
+    @Query(SAVINGS_VIEW + "where s.user.id = :userId")
+    Optional<SavingsView> findViewByUserId(@Param("userId") Long userId);
+
+    @Query(SAVINGS_VIEW + "where s.accountNumber = :accountNumber")
+    Optional<SavingsView> findViewByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // Carga en bloque las cuentas de varios usuarios (un solo SELECT con join al usuario)
+    @EntityGraph(attributePaths = "user")
+    List<SavingsEntity> findByUserIdIn(Collection<Long> userIds);
 }
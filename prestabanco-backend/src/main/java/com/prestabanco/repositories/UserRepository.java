@@ -1,9 +1,15 @@
 package com.prestabanco.repositories;
 
 import com.prestabanco.entities.UserEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +22,13 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     boolean existsByEmail(String email);
     
     boolean existsByRut(String rut);
+
+    // Paginación por keyset sobre el id
+    List<UserEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Reemplaza el hash solo si no cambió desde que se leyó (no pisa un cambio de contraseña concurrente)
+    @Modifying
+    @Transactional
+    @Query("update UserEntity u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -0,0 +1,21 @@
+package com.prestabanco.repositories.projections;
+
+import com.prestabanco.entities.ApplicationEntity;
+
+import java.math.BigDecimal;
+
+// Fila de la exportación de solicitudes: columnas planas, sin entidades que Hibernate deba administrar
+public record ApplicationExportRow(
+        Long id,
+        Long userId,
+        ApplicationEntity.ApplicationStatus status,
+        ApplicationEntity.PropertyType propertyType,
+        BigDecimal requestedAmount,
+        Integer term,
+        BigDecimal interestRate,
+        BigDecimal monthlyIncome,
+        Integer employmentYears,
+        BigDecimal currentDebt,
+        BigDecimal propertyValue,
+        Boolean documentationComplete) {
+}
@@ -0,0 +1,34 @@
+package com.prestabanco.repositories.projections;
+
+import com.prestabanco.entities.ApplicationEntity;
+
+import java.math.BigDecimal;
+
+// Fila de los listados de solicitudes: sin la entidad de usuario ni la columna de documentos
+public record ApplicationSummary(
+        Long id,
+        Long userId,
+        String userName,
+        ApplicationEntity.ApplicationStatus status,
+        ApplicationEntity.PropertyType propertyType,
+        BigDecimal requestedAmount,
+        Integer term,
+        BigDecimal interestRate,
+        BigDecimal monthlyIncome,
+        Integer employmentYears,
+        BigDecimal propertyValue,
+        boolean hasDocuments,
+        Long version) {
+
+    // Constructor usado por las consultas: recibe nombre y apellido por separado
+    public ApplicationSummary(Long id, Long userId, String firstName, String lastName,
+                              ApplicationEntity.ApplicationStatus status,
+                              ApplicationEntity.PropertyType propertyType,
+                              BigDecimal requestedAmount, Integer term, BigDecimal interestRate,
+                              BigDecimal monthlyIncome, Integer employmentYears, BigDecimal propertyValue,
+                              Boolean hasDocuments, Long version) {
+        this(id, userId, FullName.of(firstName, lastName), status, propertyType, requestedAmount, term,
+                interestRate, monthlyIncome, employmentYears, propertyValue, Boolean.TRUE.equals(hasDocuments),
+                version);
+    }
+}
@@ -0,0 +1,15 @@
+package com.prestabanco.repositories.projections;
+
+final class FullName {
+
+    private FullName() {
+    }
+
+    // "Nombre Apellido", omitiendo las partes nulas
+    static String of(String firstName, String lastName) {
+        if (firstName == null) {
+            return lastName;
+        }
+        return lastName == null ? firstName : firstName + " " + lastName;
+    }
+}
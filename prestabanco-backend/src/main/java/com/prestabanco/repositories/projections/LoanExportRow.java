@@ -0,0 +1,21 @@
+package com.prestabanco.repositories.projections;
+
+import com.prestabanco.entities.ApplicationEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Fila de la exportación de préstamos
+public record LoanExportRow(
+        Long id,
+        Long userId,
+        ApplicationEntity.PropertyType propertyType,
+        BigDecimal requestedAmount,
+        Integer term,
+        BigDecimal interestRate,
+        BigDecimal monthlyPayment,
+        BigDecimal insuranceCost,
+        BigDecimal administrativeFee,
+        BigDecimal totalCost,
+        LocalDateTime simulationDate) {
+}
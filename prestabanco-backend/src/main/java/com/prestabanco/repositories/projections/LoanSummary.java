@@ -0,0 +1,31 @@
+package com.prestabanco.repositories.projections;
+
+import com.prestabanco.entities.ApplicationEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Fila de los listados de préstamos: el usuario se reduce a id y nombre
+public record LoanSummary(
+        Long id,
+        Long userId,
+        String userName,
+        ApplicationEntity.PropertyType propertyType,
+        BigDecimal requestedAmount,
+        Integer term,
+        BigDecimal interestRate,
+        BigDecimal monthlyPayment,
+        BigDecimal insuranceCost,
+        BigDecimal administrativeFee,
+        BigDecimal totalCost,
+        LocalDateTime simulationDate) {
+
+    public LoanSummary(Long id, Long userId, String firstName, String lastName,
+                       ApplicationEntity.PropertyType propertyType,
+                       BigDecimal requestedAmount, Integer term, BigDecimal interestRate,
+                       BigDecimal monthlyPayment, BigDecimal insuranceCost, BigDecimal administrativeFee,
+                       BigDecimal totalCost, LocalDateTime simulationDate) {
+        this(id, userId, FullName.of(firstName, lastName), propertyType, requestedAmount, term, interestRate,
+                monthlyPayment, insuranceCost, administrativeFee, totalCost, simulationDate);
+    }
+}
@@ -0,0 +1,11 @@
+package com.prestabanco.repositories.projections;
+
+import java.math.BigDecimal;
+
+// Totales de toda la cartera; con la tabla vacía la cantidad es 0 y el resto queda nulo
+public record PortfolioTotals(
+        Long count,
+        BigDecimal requestedAmount,
+        Double averageInterestRate,
+        Double averageTerm) {
+}
@@ -0,0 +1,14 @@
+package com.prestabanco.repositories.projections;
+
+import com.prestabanco.entities.ApplicationEntity;
+
+import java.math.BigDecimal;
+
+// Solicitudes o préstamos agrupados por tipo de propiedad; los promedios ignoran los valores nulos
+public record PropertyTypeTotals(
+        ApplicationEntity.PropertyType propertyType,
+        Long count,
+        BigDecimal requestedAmount,
+        Double averageInterestRate,
+        Double averageTerm) {
+}
@@ -0,0 +1,22 @@
+package com.prestabanco.repositories.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Cuenta de ahorro sin la entidad de usuario (solo su id)
+public record SavingsView(
+        Long id,
+        Long userId,
+        String accountNumber,
+        BigDecimal currentBalance,
+        LocalDateTime openingDate,
+        LocalDateTime lastTransactionDate,
+        Integer monthlyDepositsCount,
+        BigDecimal monthlyDepositsAmount,
+        BigDecimal largestWithdrawalLast6Months,
+        LocalDateTime largestWithdrawalDate,
+        Integer consecutiveMonthsWithBalance,
+        Integer significantWithdrawalsCount,
+        BigDecimal lastSixMonthsAverageBalance,
+        Boolean meetsSavingsCriteria) {
+}
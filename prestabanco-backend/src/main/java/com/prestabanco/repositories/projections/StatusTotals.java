@@ -0,0 +1,12 @@
+package com.prestabanco.repositories.projections;
+
+import com.prestabanco.entities.ApplicationEntity;
+
+import java.math.BigDecimal;
+
+// Solicitudes agrupadas por estado: cantidad y monto solicitado
+public record StatusTotals(
+        ApplicationEntity.ApplicationStatus status,
+        Long count,
+        BigDecimal requestedAmount) {
+}
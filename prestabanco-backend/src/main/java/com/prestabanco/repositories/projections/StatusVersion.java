@@ -0,0 +1,9 @@
+package com.prestabanco.repositories.projections;
+
+import com.prestabanco.entities.ApplicationEntity;
+
+// Estado y versión actuales de una solicitud, lo necesario para condicionar un cambio de estado
+public record StatusVersion(
+        ApplicationEntity.ApplicationStatus status,
+        Long version) {
+}
@@ -0,0 +1,123 @@
+package com.prestabanco.services;
+
+import com.prestabanco.services.LoanCalculatorService.AmortizationRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+@Service
+public class AmortizationScheduleService {
+
+    private static final String CSV_HEADER =
+            "month,payment,interest,principal,lifeInsurance,fee,totalPayment,remainingBalance";
+
+    // El mismo plazo máximo que ofrece el simulador; acota las filas de una tabla a 360
+    public static final int MAX_YEARS = 30;
+
+    @Autowired
+    private LoanCalculatorService calculatorService;
+
+    public enum ScheduleFormat {
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        CSV(MediaType.parseMediaType("text/csv"));
+
+        private final MediaType mediaType;
+
+        ScheduleFormat(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static ScheduleFormat from(String value) {
+            try {
+                return ScheduleFormat.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Formato no soportado: " + value);
+            }
+        }
+    }
+
+    // Se llama antes de empezar a escribir: una vez enviado el encabezado ya no se puede responder 400
+    public static void validate(BigDecimal loanAmount, BigDecimal annualInterestRate, Integer years) {
+        if (loanAmount == null || annualInterestRate == null || years == null) {
+            throw new IllegalArgumentException("Monto, tasa y plazo son obligatorios");
+        }
+        if (loanAmount.signum() <= 0) {
+            throw new IllegalArgumentException("El monto debe ser mayor a cero");
+        }
+        if (annualInterestRate.signum() <= 0 || years <= 0) {
+            throw new IllegalArgumentException("La tasa y el plazo deben ser mayores a cero");
+        }
+        if (years > MAX_YEARS) {
+            throw new IllegalArgumentException("El plazo máximo es de " + MAX_YEARS + " años");
+        }
+    }
+
+    // Escribe la tabla de amortización fila por fila en el stream de salida
+    public void writeSchedule(BigDecimal loanAmount, BigDecimal annualInterestRate, int years,
+                              ScheduleFormat format, OutputStream outputStream) throws IOException {
+        validate(loanAmount, annualInterestRate, years);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder(160);
+
+        if (format == ScheduleFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try {
+            calculatorService.forEachScheduleRow(loanAmount, annualInterestRate, years, row -> {
+                line.setLength(0);
+                if (format == ScheduleFormat.CSV) {
+                    appendCsv(line, row);
+                } else {
+                    appendJson(line, row);
+                }
+                line.append('\n');
+                try {
+                    writer.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void appendCsv(StringBuilder line, AmortizationRow row) {
+        line.append(row.getMonth()).append(',')
+                .append(row.getPayment().toPlainString()).append(',')
+                .append(row.getInterest().toPlainString()).append(',')
+                .append(row.getPrincipal().toPlainString()).append(',')
+                .append(row.getLifeInsurance().toPlainString()).append(',')
+                .append(row.getFee().toPlainString()).append(',')
+                .append(row.getTotalPayment().toPlainString()).append(',')
+                .append(row.getRemainingBalance().toPlainString());
+    }
+
+    private void appendJson(StringBuilder line, AmortizationRow row) {
+        line.append("{\"month\":").append(row.getMonth())
+                .append(",\"payment\":").append(row.getPayment().toPlainString())
+                .append(",\"interest\":").append(row.getInterest().toPlainString())
+                .append(",\"principal\":").append(row.getPrincipal().toPlainString())
+                .append(",\"lifeInsurance\":").append(row.getLifeInsurance().toPlainString())
+                .append(",\"fee\":").append(row.getFee().toPlainString())
+                .append(",\"totalPayment\":").append(row.getTotalPayment().toPlainString())
+                .append(",\"remainingBalance\":").append(row.getRemainingBalance().toPlainString())
+                .append('}');
+    }
+}
@@ -1,10 +1,23 @@
 package com.prestabanco.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.SavingsEntity;
 import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.CreditEvaluationRepository;
+import com.prestabanco.repositories.KeysetSpecifications;
+import com.prestabanco.repositories.projections.ApplicationSummary;
+import com.prestabanco.repositories.projections.StatusVersion;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,42 +26,185 @@ public class ApplicationService {
 
     @Autowired
     private ApplicationRepository applicationRepository;
+    @Autowired
+    private CreditEvaluationRepository evaluationRepository;
+    @Autowired
+    private DocumentService documentService;
+    @Autowired
+    private ApplicationStatusCounters statusCounters;
+    @Autowired
+    private ColumnPatcher columnPatcher;
 
+    // Los contadores por estado se ajustan después de guardar, cuando el cambio ya está en la base
     public ApplicationEntity createApplication(ApplicationEntity application) {
-        return applicationRepository.save(application);
+        ApplicationEntity saved = applicationRepository.save(application);
+        statusCounters.created(saved.getStatus());
+        return saved;
+    }
+
+    // Datos que necesita la evaluación crediticia; la cuenta de ahorro puede no existir
+    @Getter
+    @AllArgsConstructor
+    public static class EvaluationData {
+        private final ApplicationEntity application;
+        private final SavingsEntity savings;
     }
 
     public Optional<ApplicationEntity> getApplicationById(Long id) {
         return applicationRepository.findById(id);
     }
 
+    // Carga la solicitud con su usuario y la cuenta de ahorro del usuario en una sola consulta
+    public Optional<EvaluationData> getEvaluationData(Long id) {
+        List<Object[]> rows = applicationRepository.findWithUserAndSavingsById(id);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        return Optional.of(new EvaluationData((ApplicationEntity) row[0], (SavingsEntity) row[1]));
+    }
+
     public List<ApplicationEntity> getApplicationsByUserId(Long userId) {
         return applicationRepository.findByUserId(userId);
     }
 
+    public List<ApplicationSummary> getApplicationSummariesByUserId(Long userId) {
+        return applicationRepository.findSummariesByUserId(userId);
+    }
+
     public List<ApplicationEntity> getAllApplications() {
         return applicationRepository.findAll();
     }
 
+    // Página de solicitudes con id > cursor; los filtros nulos o vacíos no se aplican
+    public CursorPage<ApplicationSummary> getApplicationsPage(Long cursor, Integer limit,
+                                                             Collection<ApplicationEntity.ApplicationStatus> statuses,
+                                                             ApplicationEntity.PropertyType propertyType) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<ApplicationSummary> fetched = applicationRepository.findSummaries(
+                KeysetSpecifications.applications(CursorPage.startAfter(cursor), statuses, propertyType),
+                pageSize + 1);
+        return CursorPage.of(fetched, pageSize, ApplicationSummary::id);
+    }
+
+    // Sin versión en el cuerpo se toma la actual (la última escritura gana, como antes); con una
+    // versión anterior el UPDATE de Hibernate no encuentra la fila y falla con un conflicto
     public ApplicationEntity updateApplication(ApplicationEntity application) {
-        return applicationRepository.save(application);
+        StatusVersion current = applicationRepository.findStatusAndVersionById(application.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Solicitud no encontrada"));
+        if (application.getStatus() != current.status()
+                && !ApplicationStatusTransitions.isAllowed(current.status(), application.getStatus())) {
+            throw invalidTransition(current.status(), application.getStatus());
+        }
+        if (application.getVersion() == null) {
+            application.setVersion(current.version());
+        }
+        evaluationRepository.deleteByApplicationId(application.getId());
+        ApplicationEntity saved = applicationRepository.save(application);
+        statusCounters.changed(current.status(), saved.getStatus());
+        return saved;
+    }
+
+    // Merge patch: solo las columnas presentes en el cuerpo, sin cargar la solicitud ni su usuario.
+    // El estado tiene su propio endpoint con las transiciones permitidas; "version", si viene,
+    // condiciona el UPDATE igual que en updateApplication.
+    public void patchApplication(Long id, JsonNode body) {
+        ObjectNode fields = ColumnPatcher.body(body);
+        if (fields.has("status")) {
+            throw new IllegalArgumentException("El estado se cambia con PUT /api/applications/{id}/status");
+        }
+        JsonNode versionNode = fields.remove("version");
+        if (versionNode != null && !versionNode.isNull() && !versionNode.canConvertToLong()) {
+            throw new IllegalArgumentException("Valor inválido para version: " + versionNode);
+        }
+        Long version = versionNode == null || versionNode.isNull() ? null : versionNode.asLong();
+
+        ColumnPatcher.ColumnPatch patch = columnPatcher.prepare(ColumnPatcher.PatchTarget.APPLICATIONS, fields);
+        if (columnPatcher.execute(patch, id, version) == 0) {
+            StatusVersion current = applicationRepository.findStatusAndVersionById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Solicitud no encontrada"));
+            throw concurrentChange(current);
+        }
+        if (!patch.isEmpty()) {
+            evaluationRepository.deleteByApplicationId(id);
+        }
     }
 
-    public ApplicationEntity updateStatus(Long id, String newStatus) {
-        ApplicationEntity application = applicationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Solicitud no encontrada"));
+    // Resultado de un cambio de estado: la versión es la que queda después del cambio
+    @Getter
+    @AllArgsConstructor
+    public static class StatusChange {
+        private final Long id;
+        private final ApplicationEntity.ApplicationStatus previousStatus;
+        private final ApplicationEntity.ApplicationStatus status;
+        private final Long version;
+    }
+
+    public StatusChange updateStatus(Long id, String newStatus) {
+        return updateStatus(id, newStatus, null, null);
+    }
+
+    // Un solo UPDATE condicionado al estado y la versión esperados. Si el cliente no los envía se leen
+    // los actuales (solo esas dos columnas) y el UPDATE igual detecta una escritura concurrente.
+    public StatusChange updateStatus(Long id, String newStatus, String expectedStatus, Long expectedVersion) {
+        ApplicationEntity.ApplicationStatus status = parseStatus(newStatus);
+        ApplicationEntity.ApplicationStatus from = expectedStatus == null ? null : parseStatus(expectedStatus);
+        Long version = expectedVersion;
+        if (expectedStatus == null || version == null) {
+            StatusVersion current = applicationRepository.findStatusAndVersionById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Solicitud no encontrada"));
+            if ((expectedStatus != null && from != current.status())
+                    || (version != null && !version.equals(current.version()))) {
+                throw concurrentChange(current);
+            }
+            from = current.status();
+            version = current.version();
+        }
+        if (from == status) {
+            return new StatusChange(id, from, status, version);
+        }
+        if (!ApplicationStatusTransitions.isAllowed(from, status)) {
+            throw invalidTransition(from, status);
+        }
+
+        if (applicationRepository.updateStatusIfUnchanged(id, from, status, version) == 0) {
+            StatusVersion current = applicationRepository.findStatusAndVersionById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Solicitud no encontrada"));
+            throw concurrentChange(current);
+        }
+        evaluationRepository.deleteByApplicationId(id);
+        statusCounters.changed(from, status);
+        return new StatusChange(id, from, status, version + 1);
+    }
 
+    private static ApplicationEntity.ApplicationStatus parseStatus(String value) {
         try {
-            ApplicationEntity.ApplicationStatus status = ApplicationEntity.ApplicationStatus.valueOf(newStatus);
-            application.setStatus(status);
-            return applicationRepository.save(application);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Estado de solicitud inválido");
+            return ApplicationEntity.ApplicationStatus.valueOf(value);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Estado de solicitud inválido: " + value);
         }
     }
 
+    private static IllegalStateException invalidTransition(ApplicationEntity.ApplicationStatus from,
+                                                           ApplicationEntity.ApplicationStatus to) {
+        return new IllegalStateException("No se puede pasar una solicitud de " + from + " a " + to
+                + "; estados permitidos: " + ApplicationStatusTransitions.next(from));
+    }
+
+    private static OptimisticLockingFailureException concurrentChange(StatusVersion current) {
+        return new OptimisticLockingFailureException("La solicitud fue modificada por otro usuario: ahora está en "
+                + current.status() + " (versión " + current.version() + ")");
+    }
+
+    // Evaluaciones, documentos y solicitud se borran juntos o no se borra nada (p. ej. si una subida
+    // concurrente deja un documento que la clave foránea no permite dejar huérfano)
+    @Transactional
     public void deleteApplication(Long id) {
+        Optional<StatusVersion> current = applicationRepository.findStatusAndVersionById(id);
+        evaluationRepository.deleteByApplicationId(id);
+        documentService.deleteByApplicationId(id);
         applicationRepository.deleteById(id);
+        current.ifPresent(deleted -> AfterCommit.run(() -> statusCounters.deleted(deleted.status())));
     }
 
 }
@@ -0,0 +1,116 @@
+package com.prestabanco.services;
+
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.projections.StatusTotals;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cantidad de solicitudes por estado mantenida en memoria, para que el panel la lea sin
+ * consultar la base. Se carga con un GROUP BY al arrancar y cada alta, cambio de estado o
+ * eliminación la ajusta después de escribir en la base. Los cambios hechos por fuera de esta
+ * instancia (otro nodo, SQL manual) no se ven hasta el siguiente reconcile().
+ */
+@Service
+public class ApplicationStatusCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationStatusCounters.class);
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+
+    private final ApplicationRepository applicationRepository;
+    private final LongAdder[] counts = new LongAdder[STATUSES.length];
+
+    private volatile Instant reconciledAt;
+
+    @Getter
+    @AllArgsConstructor
+    public static class StatusCounts {
+        private final Map<ApplicationStatus, Long> counts;
+        private final long total;
+        // Nulo mientras no se haya cargado desde la base
+        private final Instant reconciledAt;
+    }
+
+    @Autowired
+    public ApplicationStatusCounters(ApplicationRepository applicationRepository) {
+        this.applicationRepository = applicationRepository;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    // Si la base no responde al arrancar la aplicación igual inicia; los contadores quedan en cero
+    // (reconciledAt nulo) hasta el siguiente reconcile()
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reconcile();
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron cargar los contadores de solicitudes por estado: {}", e.getMessage());
+        }
+    }
+
+    // Vuelve a contar en la base; un cambio que ocurra durante la consulta puede quedar contado dos veces o ninguna
+    public StatusCounts reconcile() {
+        long[] fresh = new long[STATUSES.length];
+        for (StatusTotals totals : applicationRepository.sumByStatus()) {
+            if (totals.status() != null) {
+                fresh[totals.status().ordinal()] = totals.count();
+            }
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i].reset();
+            counts[i].add(fresh[i]);
+        }
+        reconciledAt = Instant.now();
+        return snapshot();
+    }
+
+    // Las solicitudes sin estado no se cuentan
+    public void created(ApplicationStatus status) {
+        if (status != null) {
+            counts[status.ordinal()].increment();
+        }
+    }
+
+    public void changed(ApplicationStatus from, ApplicationStatus to) {
+        if (from != to) {
+            deleted(from);
+            created(to);
+        }
+    }
+
+    public void deleted(ApplicationStatus status) {
+        if (status != null) {
+            counts[status.ordinal()].decrement();
+        }
+    }
+
+    public long get(ApplicationStatus status) {
+        return counts[status.ordinal()].sum();
+    }
+
+    public StatusCounts snapshot() {
+        Map<ApplicationStatus, Long> values = new EnumMap<>(ApplicationStatus.class);
+        long total = 0;
+        for (ApplicationStatus status : STATUSES) {
+            long count = counts[status.ordinal()].sum();
+            values.put(status, count);
+            total += count;
+        }
+        return new StatusCounts(values, total, reconciledAt);
+    }
+}
@@ -0,0 +1,44 @@
+package com.prestabanco.services;
+
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.prestabanco.entities.ApplicationEntity.ApplicationStatus.*;
+
+/**
+ * Cambios de estado permitidos para una solicitud. Rechazada, cancelada y en desembolso son
+ * estados finales; la reevaluación masiva solo mueve solicitudes entre IN_EVALUATION y PRE_APPROVED.
+ */
+public final class ApplicationStatusTransitions {
+
+    private static final Map<ApplicationStatus, Set<ApplicationStatus>> NEXT = new EnumMap<>(ApplicationStatus.class);
+
+    static {
+        NEXT.put(IN_REVIEW, EnumSet.of(PENDING_DOCUMENTS, IN_EVALUATION, REJECTED, CANCELLED));
+        NEXT.put(PENDING_DOCUMENTS, EnumSet.of(IN_REVIEW, IN_EVALUATION, REJECTED, CANCELLED));
+        NEXT.put(IN_EVALUATION, EnumSet.of(PENDING_DOCUMENTS, PRE_APPROVED, REJECTED, CANCELLED));
+        NEXT.put(PRE_APPROVED, EnumSet.of(IN_EVALUATION, FINAL_APPROVAL, REJECTED, CANCELLED));
+        NEXT.put(FINAL_APPROVAL, EnumSet.of(APPROVED, REJECTED, CANCELLED));
+        NEXT.put(APPROVED, EnumSet.of(IN_DISBURSEMENT, CANCELLED));
+        NEXT.put(IN_DISBURSEMENT, EnumSet.noneOf(ApplicationStatus.class));
+        NEXT.put(REJECTED, EnumSet.noneOf(ApplicationStatus.class));
+        NEXT.put(CANCELLED, EnumSet.noneOf(ApplicationStatus.class));
+    }
+
+    private ApplicationStatusTransitions() {
+    }
+
+    // Una solicitud antigua sin estado puede recibir cualquiera
+    public static boolean isAllowed(ApplicationStatus from, ApplicationStatus to) {
+        return to != null && (from == null || NEXT.get(from).contains(to));
+    }
+
+    public static Set<ApplicationStatus> next(ApplicationStatus from) {
+        return from == null ? EnumSet.allOf(ApplicationStatus.class) : Collections.unmodifiableSet(NEXT.get(from));
+    }
+}
@@ -0,0 +1,153 @@
+package com.prestabanco.services;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.entities.LoanEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+@Service
+public class BatchSimulationService {
+
+    private static final SerializedString LINE_SEPARATOR = new SerializedString("\n");
+    private static final int FLUSH_EVERY = 256;
+
+    private final LoanCalculatorService calculatorService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+
+    @Autowired
+    public BatchSimulationService(LoanCalculatorService calculatorService,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier("simulationExecutor") ExecutorService executor,
+                                  @Value("${prestabanco.simulation.batch.max-in-flight:256}") int maxInFlight) {
+        this.calculatorService = calculatorService;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class SimulationResult {
+        private final int index;
+        private final BigDecimal requestedAmount;
+        private final BigDecimal interestRate;
+        private final Integer term;
+        private final BigDecimal monthlyPayment;
+        private final String error;
+
+        static SimulationResult failed(int index, String error) {
+            return new SimulationResult(index, null, null, null, null, error);
+        }
+    }
+
+    // Lee un arreglo JSON o un stream NDJSON de simulaciones, las calcula en paralelo
+    // y escribe los resultados como NDJSON en el mismo orden de entrada. Como máximo
+    // hay maxInFlight simulaciones pendientes, así la memoria no depende del tamaño del lote.
+    public void simulate(InputStream input, OutputStream output) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(LINE_SEPARATOR);
+
+            Deque<Future<SimulationResult>> pending = new ArrayDeque<>(maxInFlight);
+            int index = 0;
+            int written = 0;
+            String parseError = null;
+
+            try {
+                JsonToken token = parser.nextToken();
+                boolean inArray = token == JsonToken.START_ARRAY;
+                if (inArray) {
+                    token = parser.nextToken();
+                }
+
+                while (token != null && !(inArray && token == JsonToken.END_ARRAY)) {
+                    JsonNode item = parser.readValueAsTree();
+                    int itemIndex = index++;
+
+                    if (pending.size() >= maxInFlight) {
+                        writeResult(generator, pending.poll(), ++written);
+                    }
+                    pending.add(executor.submit(() -> simulateItem(itemIndex, item)));
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                // JSON mal formado: se entregan los resultados ya calculados y se reporta el error
+                parseError = "JSON inválido: " + e.getOriginalMessage();
+            }
+
+            while (!pending.isEmpty()) {
+                writeResult(generator, pending.poll(), ++written);
+            }
+            if (parseError != null) {
+                objectMapper.writeValue(generator, SimulationResult.failed(index, parseError));
+            }
+            generator.flush();
+        }
+    }
+
+    private void writeResult(JsonGenerator generator, Future<SimulationResult> future, int written)
+            throws IOException {
+        try {
+            objectMapper.writeValue(generator, future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Simulación en lote interrumpida");
+        } catch (ExecutionException e) {
+            throw new IOException("Error inesperado en la simulación en lote", e.getCause());
+        }
+        if (written % FLUSH_EVERY == 0) {
+            generator.flush();
+        }
+    }
+
+    private SimulationResult simulateItem(int index, JsonNode item) {
+        try {
+            LoanEntity loan = objectMapper.treeToValue(item, LoanEntity.class);
+            if (loan == null || loan.getRequestedAmount() == null
+                    || loan.getInterestRate() == null || loan.getTerm() == null) {
+                return SimulationResult.failed(index, "Monto, tasa y plazo son obligatorios");
+            }
+            if (loan.getTerm() <= 0 || loan.getInterestRate().signum() <= 0) {
+                return SimulationResult.failed(index, "La tasa y el plazo deben ser mayores a cero");
+            }
+
+            BigDecimal monthlyPayment = calculatorService.calculateMonthlyPayment(
+                    loan.getRequestedAmount(),
+                    loan.getInterestRate(),
+                    loan.getTerm()
+            );
+            return new SimulationResult(index, loan.getRequestedAmount(), loan.getInterestRate(),
+                    loan.getTerm(), monthlyPayment, null);
+        } catch (JsonProcessingException e) {
+            return SimulationResult.failed(index, "Simulación inválida: " + e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            return SimulationResult.failed(index, "Error al simular: " + e.getMessage());
+        }
+    }
+}
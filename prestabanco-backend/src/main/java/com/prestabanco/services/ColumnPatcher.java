@@ -0,0 +1,190 @@
+package com.prestabanco.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Actualizaciones parciales (JSON Merge Patch, RFC 7396) que escriben solo las columnas
+ * presentes en el cuerpo con un UPDATE generado, sin cargar la entidad ni sus asociaciones.
+ * Cada tabla declara qué campos se pueden modificar; el dueño (user_id), el id, el estado de
+ * la solicitud y la contraseña quedan fuera y los maneja cada servicio.
+ *
+ * Como el UPDATE no pasa por Hibernate, para usuarios y cuentas se desaloja del caché de
+ * segundo nivel solo la fila modificada (un UPDATE JPQL vaciaría la región completa).
+ */
+@Service
+public class ColumnPatcher {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private record Column(String name, Class<?> type) {
+    }
+
+    public enum PatchTarget {
+        USERS("users", UserEntity.class, true, false, columns(
+                "rut", "rut", String.class,
+                "firstName", "first_name", String.class,
+                "lastName", "last_name", String.class,
+                "email", "email", String.class,
+                "phoneNumber", "phone_number", String.class,
+                "age", "age", Integer.class,
+                "role", "role", UserEntity.UserRole.class)),
+        // El saldo y los campos derivados los mantiene el libro de movimientos (SavingsLedgerService)
+        SAVINGS("savings", SavingsEntity.class, true, false, columns(
+                "accountNumber", "account_number", String.class,
+                "openingDate", "opening_date", LocalDateTime.class,
+                "meetsSavingsCriteria", "meets_savings_criteria", Boolean.class)),
+        APPLICATIONS("applications", ApplicationEntity.class, false, true, columns(
+                "propertyType", "property_type", ApplicationEntity.PropertyType.class,
+                "requestedAmount", "requested_amount", BigDecimal.class,
+                "term", "term", Integer.class,
+                "interestRate", "interest_rate", BigDecimal.class,
+                "monthlyIncome", "monthly_income", BigDecimal.class,
+                "employmentYears", "employment_years", Integer.class,
+                "currentDebt", "current_debt", BigDecimal.class,
+                "propertyValue", "property_value", BigDecimal.class,
+                "documentationComplete", "documentation_complete", Boolean.class));
+
+        private final String table;
+        private final Class<?> entityClass;
+        private final boolean cached;
+        private final boolean versioned;
+        private final Map<String, Column> fields;
+
+        PatchTarget(String table, Class<?> entityClass, boolean cached, boolean versioned, Map<String, Column> fields) {
+            this.table = table;
+            this.entityClass = entityClass;
+            this.cached = cached;
+            this.versioned = versioned;
+            this.fields = fields;
+        }
+
+        // Tríos campo JSON, columna, tipo
+        private static Map<String, Column> columns(Object... spec) {
+            Map<String, Column> fields = new LinkedHashMap<>();
+            for (int i = 0; i < spec.length; i += 3) {
+                fields.put((String) spec[i], new Column((String) spec[i + 1], (Class<?>) spec[i + 2]));
+            }
+            return Collections.unmodifiableMap(fields);
+        }
+    }
+
+    // Columnas a escribir, en el orden del cuerpo
+    public static class ColumnPatch {
+        private final PatchTarget target;
+        private final Map<String, Object> values = new LinkedHashMap<>();
+
+        private ColumnPatch(PatchTarget target) {
+            this.target = target;
+        }
+
+        // Para columnas que el servicio calcula por su cuenta, como el hash de la contraseña
+        public ColumnPatch set(String column, Object value) {
+            values.put(column, value);
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return values.isEmpty();
+        }
+
+        public Map<String, Object> getValues() {
+            return Collections.unmodifiableMap(values);
+        }
+    }
+
+    @Autowired
+    public ColumnPatcher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                         EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // Copia del cuerpo para que el servicio pueda retirar los campos que maneja aparte
+    public static ObjectNode body(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("El cuerpo debe ser un objeto JSON");
+        }
+        return ((ObjectNode) patch).deepCopy();
+    }
+
+    // Un campo con null deja la columna en NULL; un campo ausente no se toca
+    public ColumnPatch prepare(PatchTarget target, ObjectNode fields) {
+        ColumnPatch patch = new ColumnPatch(target);
+        Iterator<Map.Entry<String, JsonNode>> entries = fields.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            Column column = target.fields.get(entry.getKey());
+            if (column == null) {
+                throw new IllegalArgumentException("Campo no modificable: " + entry.getKey());
+            }
+            patch.set(column.name(), toColumnValue(entry.getKey(), entry.getValue(), column.type()));
+        }
+        return patch;
+    }
+
+    // Filas modificadas: 0 si el id no existe o, para tablas versionadas, si la versión no coincide.
+    // Un patch vacío no escribe nada y solo comprueba esas mismas condiciones.
+    public int execute(ColumnPatch patch, Long id, Long expectedVersion) {
+        PatchTarget target = patch.target;
+        boolean checkVersion = target.versioned && expectedVersion != null;
+        List<Object> args = new ArrayList<>(patch.values.values());
+        args.add(id);
+        if (checkVersion) {
+            args.add(expectedVersion);
+        }
+        String where = " where id = ?" + (checkVersion ? " and version = ?" : "");
+
+        if (patch.isEmpty()) {
+            Integer count = jdbcTemplate.queryForObject(
+                    "select count(*) from " + target.table + where, Integer.class, args.toArray());
+            return count == null ? 0 : count;
+        }
+
+        StringJoiner assignments = new StringJoiner(", ");
+        patch.values.keySet().forEach(column -> assignments.add(column + " = ?"));
+        if (target.versioned) {
+            assignments.add("version = version + 1");
+        }
+        int updated = jdbcTemplate.update("update " + target.table + " set " + assignments + where, args.toArray());
+        if (updated > 0 && target.cached) {
+            entityManagerFactory.getCache().evict(target.entityClass, id);
+        }
+        return updated;
+    }
+
+    // Los enums se guardan por ordinal, igual que en las entidades
+    private Object toColumnValue(String field, JsonNode node, Class<?> type) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        try {
+            Object value = objectMapper.treeToValue(node, type);
+            return value instanceof Enum<?> constant ? constant.ordinal() : value;
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido para " + field + ": " + node);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.prestabanco.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Almacén de archivos en disco direccionado por contenido: cada archivo se guarda una sola vez
+ * en {@code <raíz>/ab/cd/<sha256>}. El contenido se copia en bloques mientras se calcula el hash,
+ * sin cargar el archivo completo en memoria, y solo se publica con un rename atómico cuando
+ * está completo en disco. El contenido que deja de usarse no se borra al momento: lo retira un
+ * barrido posterior, y solo si no se ha vuelto a publicar hace poco.
+ */
+public class ContentAddressedStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path incoming;
+
+    public ContentAddressedStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de documentos " + this.root, e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredContent {
+        private final String hash;
+        private final long size;
+    }
+
+    public StoredContent store(InputStream content) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        out.write(chunk);
+                    }
+                    size += read;
+                }
+                out.force(true);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(hash);
+            Files.createDirectories(target.getParent());
+            // Se publica aunque el contenido ya exista: el barrido puede estar borrando esa copia, y
+            // la fecha de modificación queda como la de la última subida (ver deleteIfPublishedBefore)
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new StoredContent(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path resolve(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Hash de contenido inválido: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    public boolean exists(String hash) {
+        return Files.exists(resolve(hash));
+    }
+
+    // Hashes publicados antes de la fecha dada, candidatos a barrerse si ningún documento los usa
+    public void forEachPublishedBefore(Instant cutoff, Consumer<String> action) throws IOException {
+        try (Stream<Path> files = Files.find(root, 3, (path, attributes) -> attributes.isRegularFile()
+                && !path.startsWith(incoming)
+                && HASH.matcher(path.getFileName().toString()).matches()
+                && attributes.lastModifiedTime().toInstant().isBefore(cutoff))) {
+            files.forEach(path -> action.accept(path.getFileName().toString()));
+        }
+    }
+
+    /**
+     * Borra el contenido si su última publicación es anterior a la fecha dada. El archivo primero
+     * se aparta con un rename atómico y la fecha se revisa sobre lo apartado: si una subida lo
+     * republicó entretanto, se devuelve a su lugar (el contenido es idéntico) en vez de borrarlo.
+     */
+    public boolean deleteIfPublishedBefore(String hash, Instant cutoff) throws IOException {
+        Path target = resolve(hash);
+        Path swept = incoming.resolve("sweep-" + hash + ".tmp");
+        try {
+            Files.move(target, swept, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (Files.getLastModifiedTime(swept).toInstant().isBefore(cutoff)) {
+            Files.delete(swept);
+            return true;
+        }
+        Files.move(swept, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return false;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
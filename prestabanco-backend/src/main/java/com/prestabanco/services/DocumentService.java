@@ -0,0 +1,150 @@
+package com.prestabanco.services;
+
+import com.prestabanco.entities.DocumentEntity;
+import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.DocumentRepository;
+import com.prestabanco.services.ContentAddressedStore.StoredContent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class DocumentService {
+
+    // Hashes consultados por sentencia al barrer
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private ContentAddressedStore documentStore;
+
+    // Tiempo mínimo desde la última publicación de un contenido para poder barrerlo
+    @Value("${prestabanco.documents.sweep-grace:10m}")
+    private Duration sweepGrace;
+
+    // Guarda el documento de un tipo para la solicitud; si ya existía uno de ese tipo, lo reemplaza.
+    // Vacío si la solicitud no existe.
+    public Optional<DocumentEntity> uploadDocument(Long applicationId, String documentType, String fileName,
+                                                   String contentType, InputStream content) throws IOException {
+        if (!applicationRepository.existsById(applicationId)) {
+            return Optional.empty();
+        }
+        DocumentEntity document = documentRepository.findByApplicationIdAndDocumentType(applicationId, documentType)
+                .orElseGet(DocumentEntity::new);
+        document.setApplicationId(applicationId);
+        document.setDocumentType(documentType);
+        return Optional.of(storeContent(document, fileName, contentType, content));
+    }
+
+    public Optional<DocumentEntity> replaceContent(Long id, String fileName, String contentType,
+                                                   InputStream content) throws IOException {
+        Optional<DocumentEntity> document = documentRepository.findById(id);
+        if (document.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(storeContent(document.get(), fileName, contentType, content));
+    }
+
+    private DocumentEntity storeContent(DocumentEntity document, String fileName, String contentType,
+                                        InputStream content) throws IOException {
+        StoredContent stored = documentStore.store(content);
+
+        document.setFileName(fileName);
+        document.setContentType(contentType);
+        document.setFileSize(stored.getSize());
+        document.setContentHash(stored.getHash());
+        document.setUploadedAt(LocalDateTime.now());
+        // El contenido anterior queda sin referencia y lo retira el barrido
+        return documentRepository.save(document);
+    }
+
+    public Optional<DocumentEntity> getDocumentById(Long id) {
+        return documentRepository.findById(id);
+    }
+
+    public List<DocumentEntity> getDocumentsByApplicationId(Long applicationId) {
+        return documentRepository.findByApplicationIdOrderByIdAsc(applicationId);
+    }
+
+    public CursorPage<DocumentEntity> getDocumentsPage(Long cursor, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<DocumentEntity> fetched = documentRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.startAfter(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(fetched, pageSize, DocumentEntity::getId);
+    }
+
+    public Path getContentPath(DocumentEntity document) {
+        return documentStore.resolve(document.getContentHash());
+    }
+
+    public boolean deleteDocument(Long id) {
+        Optional<DocumentEntity> document = documentRepository.findById(id);
+        if (document.isEmpty()) {
+            return false;
+        }
+        documentRepository.delete(document.get());
+        return true;
+    }
+
+    public void deleteByApplicationId(Long applicationId) {
+        List<DocumentEntity> documents = documentRepository.findByApplicationIdOrderByIdAsc(applicationId);
+        documentRepository.deleteAll(documents);
+    }
+
+    @Scheduled(initialDelayString = "${prestabanco.documents.sweep-interval:PT15M}",
+            fixedDelayString = "${prestabanco.documents.sweep-interval:PT15M}")
+    public void sweepUnreferencedContent() {
+        sweepUnreferencedContent(Instant.now().minus(sweepGrace));
+    }
+
+    /**
+     * Borra el contenido publicado antes de la fecha dada al que ya no apunta ningún documento. Los
+     * archivos no se borran al eliminar o reemplazar un documento: una subida del mismo contenido
+     * puede haberlo publicado sin haber confirmado aún su fila. El margen cubre esa ventana.
+     */
+    public int sweepUnreferencedContent(Instant publishedBefore) {
+        List<String> candidates = new ArrayList<>();
+        try {
+            documentStore.forEachPublishedBefore(publishedBefore, candidates::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo recorrer el almacén de documentos", e);
+        }
+        documentRepository.flush();
+        int deleted = 0;
+        for (int from = 0; from < candidates.size(); from += SWEEP_BATCH_SIZE) {
+            List<String> batch = candidates.subList(from, Math.min(from + SWEEP_BATCH_SIZE, candidates.size()));
+            Set<String> referenced = documentRepository.findContentHashesIn(batch);
+            for (String hash : batch) {
+                if (!referenced.contains(hash) && deleteContent(hash, publishedBefore)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private boolean deleteContent(String hash, Instant publishedBefore) {
+        try {
+            return documentStore.deleteIfPublishedBefore(hash, publishedBefore);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo borrar el contenido " + hash, e);
+        }
+    }
+}
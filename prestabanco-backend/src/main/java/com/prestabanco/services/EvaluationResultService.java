@@ -0,0 +1,133 @@
+package com.prestabanco.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.CreditEvaluationEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.repositories.CreditEvaluationRepository;
+import com.prestabanco.services.CreditEvaluationService.CreditEvaluationResult;
+import com.prestabanco.services.CreditEvaluationService.EvaluationMode;
+import com.prestabanco.services.rules.CreditRule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Guarda el resultado de cada evaluación crediticia junto con una huella (SHA-256) de
+ * los datos que usan las reglas. Si la solicitud se vuelve a evaluar sin cambios se
+ * devuelve el resultado almacenado sin ejecutar las reglas ni calcular la cuota.
+ */
+@Service
+public class EvaluationResultService {
+
+    @Autowired
+    private CreditEvaluationRepository evaluationRepository;
+    @Autowired
+    private CreditEvaluationService evaluationService;
+    @Autowired
+    private LoanCalculatorService calculatorService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public CreditEvaluationResult evaluate(ApplicationEntity application, SavingsEntity savings, EvaluationMode mode) {
+        String fingerprint = fingerprint(application, savings, mode);
+        Optional<CreditEvaluationEntity> stored = evaluationRepository.findByApplicationId(application.getId());
+        if (stored.isPresent() && fingerprint.equals(stored.get().getFingerprint())) {
+            CreditEvaluationResult result = toResult(stored.get());
+            if (result != null) {
+                return result;
+            }
+        }
+
+        BigDecimal monthlyPayment = calculatorService.calculateMonthlyPayment(
+                application.getRequestedAmount(),
+                application.getInterestRate(),
+                application.getTerm()
+        );
+        CreditEvaluationResult result = evaluationService.evaluateApplication(
+                application, application.getUser(), savings, monthlyPayment, mode);
+
+        CreditEvaluationEntity entity = stored.orElseGet(CreditEvaluationEntity::new);
+        entity.setApplicationId(application.getId());
+        entity.setFingerprint(fingerprint);
+        entity.setPolicyVersion(evaluationService.getPolicyVersion());
+        entity.setMode(mode.name());
+        entity.setApproved(result.isApproved());
+        entity.setMessage(result.getMessage());
+        entity.setDetails(writeDetails(result));
+        entity.setEvaluatedAt(LocalDateTime.now());
+        try {
+            evaluationRepository.save(entity);
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición guardó la evaluación de la misma solicitud al mismo tiempo; el resultado sigue siendo válido
+        }
+        return result;
+    }
+
+    // Huella de la versión de la política, el modo y los datos que declara leer cada regla del pipeline
+    String fingerprint(ApplicationEntity application, SavingsEntity savings, EvaluationMode mode) {
+        StringBuilder input = new StringBuilder(256);
+        append(input, evaluationService.getPolicyVersion());
+        append(input, mode);
+        for (CreditRule rule : evaluationService.getRules()) {
+            append(input, rule.getCode());
+            rule.appendInputs(application, application.getUser(), savings, value -> append(input, value));
+        }
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(input.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static void append(StringBuilder input, Object value) {
+        if (value == null) {
+            input.append('~');
+        } else if (value instanceof BigDecimal decimal) {
+            // 5.50 y 5.5 son el mismo dato para las reglas
+            input.append(decimal.stripTrailingZeros().toPlainString());
+        } else {
+            input.append(value);
+        }
+        input.append('|');
+    }
+
+    private String writeDetails(CreditEvaluationResult result) {
+        try {
+            return objectMapper.writeValueAsString(result.getEvaluationDetails());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el detalle de la evaluación", e);
+        }
+    }
+
+    // Reconstruye el resultado almacenado; null si el detalle no se puede leer (se vuelve a evaluar)
+    private CreditEvaluationResult toResult(CreditEvaluationEntity entity) {
+        try {
+            List<CreditEvaluationResult.EvaluationDetail> details = new ArrayList<>();
+            for (JsonNode node : objectMapper.readTree(entity.getDetails())) {
+                details.add(new CreditEvaluationResult.EvaluationDetail(
+                        node.path("rule").asText(),
+                        node.path("passed").asBoolean(),
+                        node.path("description").asText()));
+            }
+            return new CreditEvaluationResult(Boolean.TRUE.equals(entity.getApproved()), details, entity.getMessage());
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
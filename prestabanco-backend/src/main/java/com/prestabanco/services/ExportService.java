@@ -0,0 +1,181 @@
+package com.prestabanco.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.LoanRepository;
+import com.prestabanco.repositories.projections.ApplicationExportRow;
+import com.prestabanco.repositories.projections.LoanExportRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportaciones de solicitudes y préstamos para los extractos nocturnos de riesgo y finanzas.
+ * Las filas se leen de un Stream del repositorio (cursor con fetch size, en una transacción de
+ * solo lectura) y se escriben de inmediato en la salida, así la memoria usada no depende de la
+ * cantidad de filas.
+ */
+@Service
+public class ExportService {
+
+    private static final String APPLICATIONS_CSV_HEADER = "id,userId,status,propertyType,requestedAmount,term,"
+            + "interestRate,monthlyIncome,employmentYears,currentDebt,propertyValue,documentationComplete";
+    private static final String LOANS_CSV_HEADER = "id,userId,propertyType,requestedAmount,term,interestRate,"
+            + "monthlyPayment,insuranceCost,administrativeFee,totalCost,simulationDate";
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public enum ExportFormat {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        ExportFormat(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        // Comprimido se entrega como archivo .gz, no como Content-Encoding: el extracto se guarda tal cual
+        public MediaType getMediaType(boolean gzip) {
+            return gzip ? GZIP : mediaType;
+        }
+
+        public String fileName(String baseName, boolean gzip) {
+            return baseName + "." + extension + (gzip ? ".gz" : "");
+        }
+
+        public static ExportFormat from(String value) {
+            try {
+                return ExportFormat.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Formato no soportado: " + value);
+            }
+        }
+    }
+
+    // statuses vacío o nulo exporta todos los estados; devuelve la cantidad de filas escritas
+    @Transactional(readOnly = true)
+    public long exportApplications(Collection<ApplicationEntity.ApplicationStatus> statuses,
+                                   ApplicationEntity.PropertyType propertyType,
+                                   ExportFormat format, boolean gzip, OutputStream output) throws IOException {
+        boolean anyStatus = statuses == null || statuses.isEmpty();
+        try (Stream<ApplicationExportRow> rows = applicationRepository.streamExportRows(
+                anyStatus, anyStatus ? EnumSet.allOf(ApplicationEntity.ApplicationStatus.class) : statuses,
+                propertyType)) {
+            return write(rows, format, gzip, output, APPLICATIONS_CSV_HEADER, ExportService::appendApplication);
+        }
+    }
+
+    // Préstamos simulados en [from, to); los límites nulos no filtran
+    @Transactional(readOnly = true)
+    public long exportLoans(ApplicationEntity.PropertyType propertyType, LocalDateTime from, LocalDateTime to,
+                            ExportFormat format, boolean gzip, OutputStream output) throws IOException {
+        try (Stream<LoanExportRow> rows = loanRepository.streamExportRows(propertyType, from, to)) {
+            return write(rows, format, gzip, output, LOANS_CSV_HEADER, ExportService::appendLoan);
+        }
+    }
+
+    private <T> long write(Stream<T> rows, ExportFormat format, boolean gzip, OutputStream output,
+                           String csvHeader, BiConsumer<StringBuilder, T> csvRow) throws IOException {
+        // El gzip y el writer se cierran con finish/flush: la salida es de la petición y la cierra el contenedor
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, 8192) : null;
+        OutputStream target = compressed != null ? compressed : output;
+        Iterator<T> iterator = rows.iterator();
+        long count = 0;
+
+        if (format == ExportFormat.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+            StringBuilder line = new StringBuilder(160);
+            writer.write(csvHeader);
+            writer.write('\n');
+            while (iterator.hasNext()) {
+                line.setLength(0);
+                csvRow.accept(line, iterator.next());
+                line.append('\n');
+                writer.append(line);
+                count++;
+            }
+            writer.flush();
+        } else {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(target);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (iterator.hasNext()) {
+                objectMapper.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+            generator.flush();
+        }
+        if (compressed != null) {
+            compressed.finish();
+        }
+        output.flush();
+        return count;
+    }
+
+    // Los valores son números, enums y fechas ISO: ninguno necesita comillas
+    private static void appendApplication(StringBuilder line, ApplicationExportRow row) {
+        line.append(row.id()).append(',');
+        appendValue(line, row.userId()).append(',');
+        appendValue(line, row.status()).append(',');
+        appendValue(line, row.propertyType()).append(',');
+        appendValue(line, row.requestedAmount()).append(',');
+        appendValue(line, row.term()).append(',');
+        appendValue(line, row.interestRate()).append(',');
+        appendValue(line, row.monthlyIncome()).append(',');
+        appendValue(line, row.employmentYears()).append(',');
+        appendValue(line, row.currentDebt()).append(',');
+        appendValue(line, row.propertyValue()).append(',');
+        appendValue(line, row.documentationComplete());
+    }
+
+    private static void appendLoan(StringBuilder line, LoanExportRow row) {
+        line.append(row.id()).append(',');
+        appendValue(line, row.userId()).append(',');
+        appendValue(line, row.propertyType()).append(',');
+        appendValue(line, row.requestedAmount()).append(',');
+        appendValue(line, row.term()).append(',');
+        appendValue(line, row.interestRate()).append(',');
+        appendValue(line, row.monthlyPayment()).append(',');
+        appendValue(line, row.insuranceCost()).append(',');
+        appendValue(line, row.administrativeFee()).append(',');
+        appendValue(line, row.totalCost()).append(',');
+        appendValue(line, row.simulationDate());
+    }
+
+    private static StringBuilder appendValue(StringBuilder line, Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return line.append(decimal.toPlainString());
+        }
+        return value == null ? line : line.append(value);
+    }
+}
@@ -0,0 +1,74 @@
+package com.prestabanco.services;
+
+import java.math.BigDecimal;
+
+/**
+ * Camino rápido para la cuota mensual: monto en pesos enteros ({@code long}) y
+ * factor de anualidad en {@code double}, sin crear objetos BigDecimal.
+ *
+ * <p>Cota de error: el producto {@code a * f} se obtiene sin error de redondeo
+ * usando {@link Math#fma} (hi + lo es exactamente el producto de los dos double),
+ * por lo que el único error proviene de representar el factor como double:
+ * {@code |a*f_double - a*f| <= a * ulp(f)}, es decir, una parte en 2^52 de la cuota
+ * (menos de 1e-6 pesos para una cuota de 5.000 millones). Si la parte fraccionaria
+ * queda a esa distancia de 0,5 el redondeo HALF_UP podría diferir del cálculo en
+ * BigDecimal y se devuelve {@link #NOT_APPLICABLE} para que el llamador use el
+ * camino exacto.</p>
+ */
+final class FixedPointPayment {
+
+    static final long NOT_APPLICABLE = Long.MIN_VALUE;
+
+    // Todo entero menor a 2^53 se representa exactamente como double
+    private static final long MAX_EXACT_PESOS = 1L << 53;
+    private static final BigDecimal MAX_EXACT_AMOUNT = BigDecimal.valueOf(MAX_EXACT_PESOS);
+
+    // Margen para los redondeos al calcular la parte fraccionaria (muy por encima de ulp(1))
+    private static final double FRACTION_SLACK = 1e-9;
+
+    private FixedPointPayment() {
+    }
+
+    // Monto en pesos enteros, o NOT_APPLICABLE si tiene decimales, no es positivo o es demasiado grande
+    static long toPesos(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            return NOT_APPLICABLE;
+        }
+        BigDecimal integral = amount.scale() > 0 ? amount.stripTrailingZeros() : amount;
+        if (integral.scale() > 0 || integral.compareTo(MAX_EXACT_AMOUNT) >= 0) {
+            return NOT_APPLICABLE;
+        }
+        return integral.longValue();
+    }
+
+    // round_HALF_UP(pesos * factor), o NOT_APPLICABLE si el resultado podría diferir del exacto
+    static long roundedPayment(long pesos, double factor) {
+        if (pesos <= 0 || pesos >= MAX_EXACT_PESOS || !(factor > 0) || Double.isInfinite(factor)) {
+            return NOT_APPLICABLE;
+        }
+
+        double amount = pesos;
+        double hi = amount * factor;
+        if (!(hi < MAX_EXACT_PESOS)) {
+            return NOT_APPLICABLE;
+        }
+        double lo = Math.fma(amount, factor, -hi);
+
+        double floor = Math.floor(hi);
+        long base = (long) floor;
+        double fraction = (hi - floor) + lo;
+        if (fraction < 0) {
+            fraction += 1;
+            base--;
+        } else if (fraction >= 1) {
+            fraction -= 1;
+            base++;
+        }
+
+        double bound = amount * Math.ulp(factor) + FRACTION_SLACK;
+        if (Math.abs(fraction - 0.5) <= bound) {
+            return NOT_APPLICABLE;
+        }
+        return fraction > 0.5 ? base + 1 : base;
+    }
+}
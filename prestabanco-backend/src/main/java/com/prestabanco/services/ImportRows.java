@@ -0,0 +1,295 @@
+package com.prestabanco.services;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+import com.prestabanco.entities.ApplicationEntity.PropertyType;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Convierte una fila de la importación masiva (campo → texto, venga de NDJSON o de CSV) en su
+ * entidad y valida el formato de cada campo. Las reglas que necesitan la base (RUT o correo ya
+ * registrados, usuario dueño de la cuenta) se revisan por bloque en BulkImportService. También
+ * escribe las filas en el formato CSV de COPY de PostgreSQL.
+ */
+final class ImportRows {
+
+    static final String USER_RUT = "userRut";
+
+    static final List<String> USER_FIELDS = List.of(
+            "rut", "firstName", "lastName", "email", "phoneNumber", "age", "role");
+    static final List<String> SAVINGS_FIELDS = List.of(
+            USER_RUT, "accountNumber", "currentBalance", "openingDate", "lastTransactionDate",
+            "monthlyDepositsCount", "monthlyDepositsAmount", "largestWithdrawalLast6Months",
+            "largestWithdrawalDate", "consecutiveMonthsWithBalance", "significantWithdrawalsCount",
+            "lastSixMonthsAverageBalance", "meetsSavingsCriteria");
+    static final List<String> APPLICATION_FIELDS = List.of(
+            USER_RUT, "propertyType", "requestedAmount", "term", "interestRate", "status",
+            "monthlyIncome", "employmentYears", "currentDebt", "propertyValue", "documentationComplete");
+
+    // Columnas de COPY, en el orden de copyValues
+    static final String USER_COLUMNS = "id, rut, first_name, last_name, email, password, phone_number, age, role";
+    static final String SAVINGS_COLUMNS = "id, user_id, account_number, current_balance, opening_date, "
+            + "last_transaction_date, monthly_deposits_count, monthly_deposits_amount, "
+            + "largest_withdrawal_last6months, largest_withdrawal_date, consecutive_months_with_balance, "
+            + "significant_withdrawals_count, last_six_months_average_balance, meets_savings_criteria";
+    static final String APPLICATION_COLUMNS = "id, user_id, property_type, requested_amount, term, "
+            + "interest_rate, status, monthly_income, employment_years, current_debt, property_value, "
+            + "documentation_complete";
+
+    private static final Pattern RUT = Pattern.compile("\\d{7,8}-[\\dkK]");
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+    private ImportRows() {
+    }
+
+    static UserEntity user(Map<String, String> row) {
+        UserEntity user = new UserEntity();
+        user.setRut(rut(row, "rut"));
+        user.setEmail(required(row, "email"));
+        if (!EMAIL.matcher(user.getEmail()).matches()) {
+            throw new IllegalArgumentException("Correo inválido: " + user.getEmail());
+        }
+        user.setFirstName(text(row, "firstName"));
+        user.setLastName(text(row, "lastName"));
+        user.setPhoneNumber(text(row, "phoneNumber"));
+        user.setAge(integer(row, "age", 18, 120));
+        // Sin contraseña utilizable: no puede iniciar sesión hasta que se le asigne una
+        user.setPassword(UserEntity.DISABLED_PASSWORD);
+        user.setRole(enumValue(row, "role", UserEntity.UserRole.class, UserEntity.UserRole.CLIENT));
+        return user;
+    }
+
+    static SavingsEntity savings(Map<String, String> row) {
+        SavingsEntity savings = new SavingsEntity();
+        savings.setAccountNumber(required(row, "accountNumber"));
+        savings.setCurrentBalance(decimal(row, "currentBalance", true));
+        savings.setOpeningDate(dateTime(row, "openingDate"));
+        savings.setLastTransactionDate(dateTime(row, "lastTransactionDate"));
+        savings.setMonthlyDepositsCount(integer(row, "monthlyDepositsCount", 0, Integer.MAX_VALUE));
+        savings.setMonthlyDepositsAmount(decimal(row, "monthlyDepositsAmount", false));
+        savings.setLargestWithdrawalLast6Months(decimal(row, "largestWithdrawalLast6Months", false));
+        savings.setLargestWithdrawalDate(dateTime(row, "largestWithdrawalDate"));
+        savings.setConsecutiveMonthsWithBalance(integer(row, "consecutiveMonthsWithBalance", 0, Integer.MAX_VALUE));
+        savings.setSignificantWithdrawalsCount(integer(row, "significantWithdrawalsCount", 0, Integer.MAX_VALUE));
+        savings.setLastSixMonthsAverageBalance(decimal(row, "lastSixMonthsAverageBalance", false));
+        savings.setMeetsSavingsCriteria(bool(row, "meetsSavingsCriteria"));
+        return savings;
+    }
+
+    static ApplicationEntity application(Map<String, String> row) {
+        ApplicationEntity application = new ApplicationEntity();
+        application.setPropertyType(enumValue(row, "propertyType", PropertyType.class, null));
+        if (application.getPropertyType() == null) {
+            throw new IllegalArgumentException("Falta el campo propertyType");
+        }
+        application.setRequestedAmount(positive(row, "requestedAmount"));
+        application.setTerm(integer(row, "term", 1, 100));
+        if (application.getTerm() == null) {
+            throw new IllegalArgumentException("Falta el campo term");
+        }
+        application.setInterestRate(positive(row, "interestRate"));
+        application.setStatus(enumValue(row, "status", ApplicationStatus.class, ApplicationStatus.IN_REVIEW));
+        application.setMonthlyIncome(decimal(row, "monthlyIncome", false));
+        application.setEmploymentYears(integer(row, "employmentYears", 0, 100));
+        application.setCurrentDebt(decimal(row, "currentDebt", false));
+        application.setPropertyValue(decimal(row, "propertyValue", false));
+        application.setDocumentationComplete(bool(row, "documentationComplete"));
+        return application;
+    }
+
+    // RUT del usuario dueño de la cuenta o de la solicitud
+    static String userRut(Map<String, String> row) {
+        return rut(row, USER_RUT);
+    }
+
+    static Object[] copyValues(UserEntity user) {
+        return new Object[]{user.getId(), user.getRut(), user.getFirstName(), user.getLastName(),
+                user.getEmail(), user.getPassword(), user.getPhoneNumber(), user.getAge(), ordinal(user.getRole())};
+    }
+
+    static Object[] copyValues(SavingsEntity savings, long userId) {
+        return new Object[]{savings.getId(), userId, savings.getAccountNumber(), savings.getCurrentBalance(),
+                savings.getOpeningDate(), savings.getLastTransactionDate(), savings.getMonthlyDepositsCount(),
+                savings.getMonthlyDepositsAmount(), savings.getLargestWithdrawalLast6Months(),
+                savings.getLargestWithdrawalDate(), savings.getConsecutiveMonthsWithBalance(),
+                savings.getSignificantWithdrawalsCount(), savings.getLastSixMonthsAverageBalance(),
+                savings.getMeetsSavingsCriteria()};
+    }
+
+    static Object[] copyValues(ApplicationEntity application, long userId) {
+        return new Object[]{application.getId(), userId, ordinal(application.getPropertyType()),
+                application.getRequestedAmount(), application.getTerm(), application.getInterestRate(),
+                ordinal(application.getStatus()), application.getMonthlyIncome(), application.getEmploymentYears(),
+                application.getCurrentDebt(), application.getPropertyValue(), application.getDocumentationComplete()};
+    }
+
+    // Una fila de COPY ... WITH (FORMAT csv): null va sin comillas y el texto siempre entre comillas,
+    // así un texto vacío no se confunde con null
+    static void appendCopyRow(StringBuilder out, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Object value = values[i];
+            if (value instanceof String text) {
+                out.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value instanceof BigDecimal decimal) {
+                out.append(decimal.toPlainString());
+            } else if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append('\n');
+    }
+
+    // Separa una línea CSV (RFC 4180 sin saltos de línea dentro de un campo)
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String text(Map<String, String> row, String field) {
+        String value = row.get(field);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String required(Map<String, String> row, String field) {
+        String value = text(row, field);
+        if (value == null) {
+            throw new IllegalArgumentException("Falta el campo " + field);
+        }
+        return value;
+    }
+
+    private static String rut(Map<String, String> row, String field) {
+        String value = required(row, field);
+        if (!RUT.matcher(value).matches()) {
+            throw new IllegalArgumentException("RUT inválido en " + field + ": " + value);
+        }
+        return value;
+    }
+
+    private static Integer integer(Map<String, String> row, String field, int min, int max) {
+        String value = text(row, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < min || parsed > max) {
+                throw new IllegalArgumentException(field + " fuera de rango: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " no es un número entero: " + value);
+        }
+    }
+
+    private static BigDecimal decimal(Map<String, String> row, String field, boolean required) {
+        String value = required ? required(row, field) : text(row, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            BigDecimal parsed = new BigDecimal(value);
+            if (parsed.signum() < 0) {
+                throw new IllegalArgumentException(field + " no puede ser negativo: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " no es un número: " + value);
+        }
+    }
+
+    private static BigDecimal positive(Map<String, String> row, String field) {
+        BigDecimal value = decimal(row, field, true);
+        if (value.signum() == 0) {
+            throw new IllegalArgumentException(field + " debe ser mayor que cero");
+        }
+        return value;
+    }
+
+    // Fecha y hora ISO (2024-03-01T10:15:00) o solo fecha (2024-03-01, a medianoche)
+    private static LocalDateTime dateTime(Map<String, String> row, String field) {
+        String value = text(row, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(field + " no es una fecha ISO: " + value);
+        }
+    }
+
+    private static Boolean bool(Map<String, String> row, String field) {
+        String value = text(row, field);
+        if (value == null) {
+            return null;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(field + " debe ser true o false: " + value);
+    }
+
+    private static <T extends Enum<T>> T enumValue(Map<String, String> row, String field, Class<T> type, T defaultValue) {
+        String value = text(row, field);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(field + " no válido: " + value);
+        }
+    }
+
+    // Los enums se guardan como ordinal
+    private static Integer ordinal(Enum<?> value) {
+        return value == null ? null : value.ordinal();
+    }
+}
@@ -1,17 +1,164 @@
 package com.prestabanco.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 @Service
 public class LoanCalculatorService {
 
+    // Cantidad máxima de pares (tasa, plazo) que se mantienen en memoria
+    private static final int FACTOR_CACHE_MAX_SIZE = 2048;
+
+    // Precisión del factor de anualidad: 40 dígitos significativos dejan el error
+    // muy por debajo de 1e-20 pesos para montos de hasta 1e15, por lo que el
+    // redondeo final a 0 decimales coincide con el cálculo exacto
+    private static final MathContext FACTOR_PRECISION = new MathContext(40, RoundingMode.HALF_EVEN);
+
+    private final Cache<FactorKey, AnnuityFactor> annuityFactorCache = Caffeine.newBuilder()
+            .maximumSize(FACTOR_CACHE_MAX_SIZE)
+            .recordStats()
+            .build();
+
+    // Cuotas que no pudieron resolverse con el camino rápido en punto fijo
+    private final LongAdder fastPathFallbacks = new LongAdder();
+
+    // Llamadas externas por operación; las internas (p. ej. la cuota dentro del costo total) no se cuentan
+    private final LongAdder monthlyPaymentCalls = new LongAdder();
+    private final LongAdder totalCostCalls = new LongAdder();
+    private final LongAdder scheduleCalls = new LongAdder();
+
+    private static final BigDecimal LIFE_INSURANCE_RATE = new BigDecimal("0.0003");
+    private static final BigDecimal ADMIN_FEE_RATE = new BigDecimal("0.01");
+    // Comisión fija que se suma a cada cuota
+    public static final BigDecimal MONTHLY_FEE = new BigDecimal("20000");
+
+    // Clave normalizada para que 5.5 y 5.50 compartan la misma entrada
+    private record FactorKey(BigDecimal annualInterestRate, int years) {
+        static FactorKey of(BigDecimal annualInterestRate, int years) {
+            return new FactorKey(annualInterestRate.stripTrailingZeros(), years);
+        }
+    }
+
+    // Factor exacto (40 dígitos) y su aproximación double para el camino rápido
+    private record AnnuityFactor(BigDecimal exact, double approximate) {
+    }
+
+    // Publica los contadores existentes como métricas de lectura diferida: el camino
+    // de cálculo sigue incrementando solo LongAdders y el registro los lee al exportar
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, annuityFactorCache, "loanCalculator.annuityFactors");
+        registerCallCounter(registry, "monthly_payment", monthlyPaymentCalls);
+        registerCallCounter(registry, "total_cost", totalCostCalls);
+        registerCallCounter(registry, "schedule", scheduleCalls);
+        FunctionCounter.builder("prestabanco.calculator.fast_path.fallbacks", fastPathFallbacks, LongAdder::sum)
+                .description("Cuotas resueltas con BigDecimal por redondeo dudoso en punto fijo")
+                .register(registry);
+    }
+
+    private static void registerCallCounter(MeterRegistry registry, String operation, LongAdder calls) {
+        FunctionCounter.builder("prestabanco.calculator.calls", calls, LongAdder::sum)
+                .description("Llamadas al simulador de créditos por operación")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
     public BigDecimal calculateMonthlyPayment(BigDecimal loanAmount, BigDecimal annualInterestRate, int years) {
+        monthlyPaymentCalls.increment();
+        return monthlyPayment(loanAmount, annualInterestRate, years);
+    }
+
+    private BigDecimal monthlyPayment(BigDecimal loanAmount, BigDecimal annualInterestRate, int years) {
+        // Cuota = P * r(1+r)^n / ((1+r)^n - 1), con el factor memoizado por (tasa, plazo)
+        AnnuityFactor factor = getFactor(annualInterestRate, years);
+        return roundedPayment(loanAmount, FixedPointPayment.toPesos(loanAmount), factor.exact(), factor.approximate());
+    }
+
+    // Camino rápido en pesos enteros; vuelve a BigDecimal si el redondeo es dudoso
+    private BigDecimal roundedPayment(BigDecimal loanAmount, long pesos, BigDecimal exactFactor,
+                                      double approximateFactor) {
+        if (pesos != FixedPointPayment.NOT_APPLICABLE) {
+            long payment = FixedPointPayment.roundedPayment(pesos, approximateFactor);
+            if (payment != FixedPointPayment.NOT_APPLICABLE) {
+                return BigDecimal.valueOf(payment);
+            }
+        }
+        fastPathFallbacks.increment();
+        return loanAmount.multiply(exactFactor).setScale(0, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Cuotas de una misma tasa para plazos crecientes, sin pasar por el caché de factores (una
+     * grilla lo llenaría de pares que no se vuelven a pedir). (1 + r)^n se obtiene del plazo
+     * anterior multiplicando por (1 + r)^(12 * Δaños); el producto es exacto, así que cada cuota
+     * coincide con la de calculateMonthlyPayment.
+     */
+    public BigDecimal[] calculateMonthlyPayments(BigDecimal loanAmount, BigDecimal annualInterestRate, int[] years) {
+        BigDecimal monthlyRate = toMonthlyRate(annualInterestRate);
+        BigDecimal onePlusRate = BigDecimal.ONE.add(monthlyRate);
+        long pesos = FixedPointPayment.toPesos(loanAmount);
+
+        BigDecimal[] payments = new BigDecimal[years.length];
+        BigDecimal compoundFactor = BigDecimal.ONE;
+        BigDecimal stepFactor = null;
+        int previousPayments = 0;
+        int previousStep = 0;
+        for (int j = 0; j < years.length; j++) {
+            int step = years[j] * 12 - previousPayments;
+            if (step <= 0) {
+                throw new IllegalArgumentException("Los plazos deben ser crecientes y mayores a cero");
+            }
+            if (step != previousStep) {
+                stepFactor = onePlusRate.pow(step);
+                previousStep = step;
+            }
+            compoundFactor = compoundFactor.multiply(stepFactor);
+            previousPayments = years[j] * 12;
+
+            BigDecimal factor = monthlyRate.multiply(compoundFactor)
+                    .divide(compoundFactor.subtract(BigDecimal.ONE), FACTOR_PRECISION);
+            payments[j] = roundedPayment(loanAmount, pesos, factor, factor.doubleValue());
+        }
+        return payments;
+    }
+
+    // Camino de referencia, siempre en BigDecimal (usado por las pruebas diferenciales)
+    public BigDecimal calculateMonthlyPaymentExact(BigDecimal loanAmount, BigDecimal annualInterestRate, int years) {
+        return loanAmount
+                .multiply(getAnnuityFactor(annualInterestRate, years))
+                .setScale(0, RoundingMode.HALF_UP);
+    }
+
+    // Factor de anualidad r(1+r)^n / ((1+r)^n - 1) para una tasa anual y un plazo en años
+    public BigDecimal getAnnuityFactor(BigDecimal annualInterestRate, int years) {
+        return getFactor(annualInterestRate, years).exact();
+    }
+
+    private AnnuityFactor getFactor(BigDecimal annualInterestRate, int years) {
+        return annuityFactorCache.get(
+                FactorKey.of(annualInterestRate, years),
+                key -> {
+                    BigDecimal exact = computeAnnuityFactor(key.annualInterestRate(), key.years());
+                    return new AnnuityFactor(exact, exact.doubleValue());
+                });
+    }
+
+    private BigDecimal computeAnnuityFactor(BigDecimal annualInterestRate, int years) {
         // Convertir tasa anual a mensual (r = tasa anual / 12 / 100)
-        BigDecimal monthlyRate = annualInterestRate
-                .divide(BigDecimal.valueOf(12), 6, RoundingMode.HALF_UP)
-                .divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP);
+        BigDecimal monthlyRate = toMonthlyRate(annualInterestRate);
 
         // Calcular número total de pagos (n = años * 12)
         int numberOfPayments = years * 12;
@@ -20,35 +167,38 @@ public class LoanCalculatorService {
         BigDecimal onePlusRate = BigDecimal.ONE.add(monthlyRate);
         BigDecimal compoundFactor = onePlusRate.pow(numberOfPayments);
 
-        // Calcular numerador: P * r * (1 + r)^n
-        BigDecimal numerator = loanAmount
-                .multiply(monthlyRate)
-                .multiply(compoundFactor);
+        // Calcular numerador: r * (1 + r)^n
+        BigDecimal numerator = monthlyRate.multiply(compoundFactor);
 
         // Calcular denominador: (1 + r)^n - 1
         BigDecimal denominator = compoundFactor.subtract(BigDecimal.ONE);
 
-        // Calcular cuota mensual
-        return numerator.divide(denominator, 0, RoundingMode.HALF_UP);
+        return numerator.divide(denominator, FACTOR_PRECISION);
+    }
+
+    // Tasa mensual con la misma escala (6 decimales) usada históricamente por el simulador
+    public BigDecimal toMonthlyRate(BigDecimal annualInterestRate) {
+        return annualInterestRate
+                .divide(BigDecimal.valueOf(12), 6, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP);
     }
 
     // Metodo de ayuda para calcular el costo total
     public BigDecimal calculateTotalCost(BigDecimal loanAmount, BigDecimal annualInterestRate, int years) {
-        // Calcular cuota mensual base
-        BigDecimal monthlyPayment = calculateMonthlyPayment(loanAmount, annualInterestRate, years);
+        totalCostCalls.increment();
+        // Calcular cuota mensual base (reutiliza el factor cacheado)
+        BigDecimal monthlyPayment = monthlyPayment(loanAmount, annualInterestRate, years);
 
         // Calcular seguro de desgravamen mensual
-        BigDecimal monthlyLifeInsurance = loanAmount.multiply(new BigDecimal("0.0003"))
-                .setScale(0, RoundingMode.HALF_UP);
+        BigDecimal monthlyLifeInsurance = calculateMonthlyLifeInsurance(loanAmount);
 
         // Comisión administrativa (cargo único)
-        BigDecimal adminFee = loanAmount.multiply(new BigDecimal("0.01"))
-                .setScale(0, RoundingMode.HALF_UP);
+        BigDecimal adminFee = calculateAdminFee(loanAmount);
 
         // Total mensual (cuota + seguros)
         BigDecimal totalMonthlyPayment = monthlyPayment
                 .add(monthlyLifeInsurance)
-                .add(new BigDecimal("20000"));
+                .add(MONTHLY_FEE);
 
         // Costo total del préstamo
         return totalMonthlyPayment
@@ -57,4 +207,80 @@ public class LoanCalculatorService {
                 .setScale(0, RoundingMode.HALF_UP);
     }
 
+    public BigDecimal calculateMonthlyLifeInsurance(BigDecimal loanAmount) {
+        return loanAmount.multiply(LIFE_INSURANCE_RATE).setScale(0, RoundingMode.HALF_UP);
+    }
+
+    public BigDecimal calculateAdminFee(BigDecimal loanAmount) {
+        return loanAmount.multiply(ADMIN_FEE_RATE).setScale(0, RoundingMode.HALF_UP);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class AmortizationRow {
+        private final int month;
+        private final BigDecimal payment;
+        private final BigDecimal interest;
+        private final BigDecimal principal;
+        private final BigDecimal lifeInsurance;
+        private final BigDecimal fee;
+        private final BigDecimal totalPayment;
+        private final BigDecimal remainingBalance;
+    }
+
+    // Genera la tabla de amortización mes a mes sin materializarla: cada fila se
+    // calcula a partir del saldo anterior y se entrega inmediatamente al consumidor
+    public void forEachScheduleRow(BigDecimal loanAmount, BigDecimal annualInterestRate, int years,
+                                   Consumer<AmortizationRow> consumer) {
+        scheduleCalls.increment();
+        BigDecimal monthlyRate = toMonthlyRate(annualInterestRate);
+        BigDecimal monthlyPayment = monthlyPayment(loanAmount, annualInterestRate, years);
+        BigDecimal lifeInsurance = calculateMonthlyLifeInsurance(loanAmount);
+        int numberOfPayments = years * 12;
+
+        BigDecimal balance = loanAmount.setScale(0, RoundingMode.HALF_UP);
+        for (int month = 1; month <= numberOfPayments; month++) {
+            BigDecimal interest = balance.multiply(monthlyRate).setScale(0, RoundingMode.HALF_UP);
+            BigDecimal principal;
+            BigDecimal payment;
+            if (month == numberOfPayments) {
+                // Última cuota: absorbe las diferencias de redondeo y deja el saldo en cero
+                principal = balance;
+                payment = interest.add(principal);
+            } else {
+                principal = monthlyPayment.subtract(interest).min(balance);
+                payment = interest.add(principal);
+            }
+            balance = balance.subtract(principal);
+
+            consumer.accept(new AmortizationRow(
+                    month,
+                    payment,
+                    interest,
+                    principal,
+                    lifeInsurance,
+                    MONTHLY_FEE,
+                    payment.add(lifeInsurance).add(MONTHLY_FEE),
+                    balance
+            ));
+        }
+    }
+
+    // Estadísticas del caché de factores (aciertos, fallos, desalojos)
+    public CacheStats getFactorCacheStats() {
+        return annuityFactorCache.stats();
+    }
+
+    public long getFastPathFallbackCount() {
+        return fastPathFallbacks.sum();
+    }
+
+    public long getFactorCacheSize() {
+        return annuityFactorCache.estimatedSize();
+    }
+
+    public void clearFactorCache() {
+        annuityFactorCache.invalidateAll();
+    }
+
 }
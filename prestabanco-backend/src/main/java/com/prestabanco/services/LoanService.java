@@ -1,7 +1,9 @@
 package com.prestabanco.services;
 
 import com.prestabanco.entities.LoanEntity;
+import com.prestabanco.repositories.KeysetSpecifications;
 import com.prestabanco.repositories.LoanRepository;
+import com.prestabanco.repositories.projections.LoanSummary;
 import com.prestabanco.entities.ApplicationEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -31,10 +33,23 @@ public class LoanService {
         return loanRepository.findByUserIdAndPropertyType(userId, propertyType);
     }
 
+    // propertyType nulo devuelve los préstamos de todos los tipos
+    public List<LoanSummary> getLoanSummariesByUserId(Long userId, ApplicationEntity.PropertyType propertyType) {
+        return loanRepository.findSummariesByUserId(userId, propertyType);
+    }
+
     public List<LoanEntity> getAllLoans() {
         return loanRepository.findAll();
     }
 
+    public CursorPage<LoanSummary> getLoansPage(Long cursor, Integer limit, ApplicationEntity.PropertyType propertyType) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<LoanSummary> fetched = loanRepository.findSummaries(
+                KeysetSpecifications.loans(CursorPage.startAfter(cursor), propertyType),
+                pageSize + 1);
+        return CursorPage.of(fetched, pageSize, LoanSummary::id);
+    }
+
     public LoanEntity updateLoan(LoanEntity loan) {
         return loanRepository.save(loan);
     }
@@ -0,0 +1,97 @@
+package com.prestabanco.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los intentos de login por correo y por IP con una ventana deslizante en memoria.
+ * Se consulta antes de leer el usuario o ejecutar bcrypt, así un intento rechazado no
+ * cuesta más que una búsqueda en un mapa. Las ventanas sin uso expiran solas y el total
+ * de claves está acotado, de modo que una ráfaga con correos aleatorios no agota la memoria.
+ */
+@Service
+public class LoginRateLimiter {
+
+    private static final long MAX_TRACKED_KEYS = 100_000;
+
+    private final int maxPerEmail;
+    private final int maxPerIp;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, SlidingWindow> emailWindows;
+    private final Cache<String, SlidingWindow> ipWindows;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${prestabanco.login.rate-limit.per-email:5}") int maxPerEmail,
+                            @Value("${prestabanco.login.rate-limit.per-ip:20}") int maxPerIp,
+                            @Value("${prestabanco.login.rate-limit.window:60s}") Duration window) {
+        this(maxPerEmail, maxPerIp, window, System::nanoTime);
+    }
+
+    public LoginRateLimiter(int maxPerEmail, int maxPerIp, Duration window, LongSupplier nanoClock) {
+        this.maxPerEmail = Math.max(1, maxPerEmail);
+        this.maxPerIp = Math.max(1, maxPerIp);
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        this.emailWindows = newWindowCache(window, nanoClock);
+        this.ipWindows = newWindowCache(window, nanoClock);
+    }
+
+    // Registra el intento y devuelve 0 si se permite; si no, los milisegundos hasta que se libera un cupo.
+    // Primero se revisa la IP: un intento rechazado por IP no consume cupo del correo.
+    public long tryAcquire(String email, String clientIp) {
+        long now = nanoClock.getAsLong();
+        long waitNanos = ipWindows.get(clientIp == null ? "" : clientIp, key -> new SlidingWindow(maxPerIp))
+                .tryAcquire(now, windowNanos);
+        if (waitNanos == 0) {
+            waitNanos = emailWindows.get(normalize(email), key -> new SlidingWindow(maxPerEmail))
+                    .tryAcquire(now, windowNanos);
+        }
+        return waitNanos == 0 ? 0 : Math.max(1, waitNanos / 1_000_000);
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Cache<String, SlidingWindow> newWindowCache(Duration window, LongSupplier nanoClock) {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterAccess(window)
+                .ticker(nanoClock::getAsLong)
+                .build();
+    }
+
+    // Instantes de los últimos intentos permitidos en un arreglo circular: cuando está lleno,
+    // la posición siguiente guarda el más antiguo y basta compararlo con el inicio de la ventana
+    private static final class SlidingWindow {
+        private final long[] attempts;
+        private int next;
+        private int size;
+
+        SlidingWindow(int limit) {
+            this.attempts = new long[limit];
+        }
+
+        synchronized long tryAcquire(long now, long windowNanos) {
+            if (size == attempts.length) {
+                long elapsed = now - attempts[next];
+                if (elapsed < windowNanos) {
+                    return windowNanos - elapsed;
+                }
+            } else {
+                size++;
+            }
+            attempts[next] = now;
+            next = (next + 1) % attempts.length;
+            return 0;
+        }
+    }
+}
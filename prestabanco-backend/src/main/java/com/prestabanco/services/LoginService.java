@@ -0,0 +1,57 @@
+package com.prestabanco.services;
+
+import com.prestabanco.entities.UserEntity;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+@Service
+public class LoginService {
+
+    private final UserService userService;
+    private final LoginRateLimiter rateLimiter;
+    private final ExecutorService executor;
+
+    @Autowired
+    public LoginService(UserService userService,
+                        LoginRateLimiter rateLimiter,
+                        @Qualifier("loginExecutor") ExecutorService executor) {
+        this.userService = userService;
+        this.rateLimiter = rateLimiter;
+        this.executor = executor;
+    }
+
+    @Getter
+    public static class TooManyAttemptsException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final long retryAfterSeconds;
+
+        public TooManyAttemptsException(long retryAfterMillis) {
+            super("Demasiados intentos de inicio de sesión");
+            this.retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+        }
+    }
+
+    // Revisa el límite de intentos y verifica la contraseña en el pool de login, no en el hilo
+    // de la petición. Lanza TooManyAttemptsException si el correo o la IP superan el límite y
+    // RejectedExecutionException si la cola del pool está llena; en ambos casos sin ejecutar bcrypt.
+    public CompletableFuture<UserEntity> login(String email, String password, String clientIp) {
+        long retryAfterMillis = rateLimiter.tryAcquire(email, clientIp);
+        if (retryAfterMillis > 0) {
+            throw new TooManyAttemptsException(retryAfterMillis);
+        }
+        return CompletableFuture.supplyAsync(() -> userService.validateLogin(email, password), executor);
+    }
+
+    // Registro y cambio de contraseña también calculan bcrypt: se ejecutan en el mismo pool acotado.
+    // Lanza RejectedExecutionException si la cola del pool está llena.
+    public <T> CompletableFuture<T> withPasswordHashing(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(operation, executor);
+    }
+}
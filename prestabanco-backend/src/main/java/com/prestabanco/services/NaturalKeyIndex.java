@@ -0,0 +1,65 @@
+package com.prestabanco.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Índice en memoria de una clave natural (correo, RUT, número de cuenta...) al id de la
+ * entidad. Solo guarda ids: el estado de la entidad se lee con findById, que lo resuelve
+ * desde el caché de segundo nivel de Hibernate. Cada acierto se valida contra la entidad
+ * cargada, así una clave que cambió por otro camino se descarta en la siguiente lectura
+ * en lugar de devolver otra fila.
+ */
+public final class NaturalKeyIndex<K, E> {
+
+    private final Cache<K, Long> ids;
+    private final Function<E, K> keyOf;
+    private final Function<E, Long> idOf;
+
+    public NaturalKeyIndex(long maxSize, Duration expireAfterAccess, Function<E, K> keyOf, Function<E, Long> idOf) {
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        this.keyOf = keyOf;
+        this.idOf = idOf;
+    }
+
+    public Optional<E> find(K key, Function<K, Optional<E>> query, Function<Long, Optional<E>> loadById) {
+        if (key == null) {
+            return query.apply(null);
+        }
+        Long id = ids.getIfPresent(key);
+        if (id != null) {
+            Optional<E> cached = loadById.apply(id);
+            if (cached.isPresent() && key.equals(keyOf.apply(cached.get()))) {
+                return cached;
+            }
+            ids.asMap().remove(key, id);
+        }
+        // Las claves inexistentes no se recuerdan: el registro las consulta justo antes de crearlas
+        Optional<E> found = query.apply(key);
+        found.ifPresent(entity -> ids.put(key, idOf.apply(entity)));
+        return found;
+    }
+
+    // Olvida la clave que la entidad tenía al leerse (antes de modificarla o eliminarla)
+    public void evict(E entity) {
+        K key = keyOf.apply(entity);
+        Long id = idOf.apply(entity);
+        if (key != null && id != null) {
+            ids.asMap().remove(key, id);
+        }
+    }
+
+    public void bindTo(MeterRegistry registry, String name) {
+        CaffeineCacheMetrics.monitor(registry, ids, name);
+    }
+}
@@ -0,0 +1,61 @@
+package com.prestabanco.services;
+
+import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.LoanRepository;
+import com.prestabanco.repositories.projections.PortfolioTotals;
+import com.prestabanco.repositories.projections.PropertyTypeTotals;
+import com.prestabanco.repositories.projections.StatusTotals;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Indicadores del panel de cartera. Los totales completos se calculan en la base con GROUP BY;
+ * la cantidad de solicitudes por estado, que el panel consulta a cada rato, sale de
+ * {@link ApplicationStatusCounters} sin tocar la base.
+ */
+@Service
+public class PortfolioStatsService {
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private ApplicationStatusCounters statusCounters;
+
+    @Getter
+    @AllArgsConstructor
+    public static class PortfolioStats {
+        private final PortfolioTotals applications;
+        private final List<StatusTotals> applicationsByStatus;
+        private final List<PropertyTypeTotals> applicationsByPropertyType;
+        private final PortfolioTotals loans;
+        private final List<PropertyTypeTotals> loansByPropertyType;
+    }
+
+    // Cinco consultas agregadas en una transacción de solo lectura, sin cargar entidades
+    @Transactional(readOnly = true)
+    public PortfolioStats getPortfolioStats() {
+        return new PortfolioStats(
+                applicationRepository.sumAll(),
+                applicationRepository.sumByStatus(),
+                applicationRepository.sumByPropertyType(),
+                loanRepository.sumAll(),
+                loanRepository.sumByPropertyType());
+    }
+
+    public ApplicationStatusCounters.StatusCounts getStatusCounts() {
+        return statusCounters.snapshot();
+    }
+
+    public ApplicationStatusCounters.StatusCounts reconcileStatusCounts() {
+        return statusCounters.reconcile();
+    }
+}
@@ -0,0 +1,346 @@
+package com.prestabanco.services;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.SavingsRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reevalúa en segundo plano todas las solicitudes en IN_EVALUATION o PRE_APPROVED,
+ * por ejemplo después de un cambio de política. Recorre las solicitudes por keyset
+ * sobre el id, carga usuarios y ahorros en bloque por página, evalúa en paralelo y
+ * escribe los cambios de estado con un UPDATE JDBC en batch.
+ */
+@Service
+public class ReevaluationJobService {
+
+    static final Set<ApplicationStatus> TARGET_STATUSES =
+            EnumSet.of(ApplicationStatus.IN_EVALUATION, ApplicationStatus.PRE_APPROVED);
+
+    // El estado se persiste como ordinal; la condición sobre el estado anterior evita
+    // pisar un cambio hecho por un ejecutivo mientras el trabajo estaba en curso, y subir
+    // la versión hace fallar un cambio de un ejecutivo que leyó la solicitud antes que el trabajo
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE applications SET status = ?, version = version + 1 WHERE id = ? AND status = ?";
+
+    public enum JobStatus {
+        IDLE,
+        RUNNING,
+        PAUSED,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class JobProgress {
+        private final JobStatus status;
+        private final long total;
+        private final long processed;
+        private final long changed;
+        private final long failed;
+        private final long lastProcessedId;
+        private final Instant startedAt;
+        private final Instant finishedAt;
+        private final long elapsedMillis;
+        private final double throughputPerSecond;
+        private final String error;
+    }
+
+    private final ApplicationRepository applicationRepository;
+    private final SavingsRepository savingsRepository;
+    private final LoanCalculatorService calculatorService;
+    private final CreditEvaluationService evaluationService;
+    private final ApplicationStatusCounters statusCounters;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService executor;
+    private final int pageSize;
+
+    // ReentrantLock en lugar de synchronized: start() consulta la base con el candado tomado y,
+    // con peticiones en hilos virtuales, un monitor retendría el hilo portador durante el JDBC
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition resumed = lock.newCondition();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile JobStatus status = JobStatus.IDLE;
+    private volatile boolean pauseRequested;
+    private volatile boolean cancelRequested;
+    private volatile long total;
+    private volatile long lastProcessedId;
+    private volatile long pausedMillis;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private Thread worker;
+
+    @Autowired
+    public ReevaluationJobService(ApplicationRepository applicationRepository,
+                                  SavingsRepository savingsRepository,
+                                  LoanCalculatorService calculatorService,
+                                  CreditEvaluationService evaluationService,
+                                  ApplicationStatusCounters statusCounters,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Qualifier("reevaluationExecutor") ExecutorService executor,
+                                  @Value("${prestabanco.reevaluation.page-size:500}") int pageSize) {
+        this.applicationRepository = applicationRepository;
+        this.savingsRepository = savingsRepository;
+        this.calculatorService = calculatorService;
+        this.evaluationService = evaluationService;
+        this.statusCounters = statusCounters;
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    // Inicia el trabajo desde el id indicado (0 para recorrer todas las solicitudes)
+    public JobProgress start(long fromId) {
+        lock.lock();
+        try {
+            if (status == JobStatus.RUNNING || status == JobStatus.PAUSED) {
+                throw new IllegalStateException("Ya hay una reevaluación en curso");
+            }
+            processed.set(0);
+            changed.set(0);
+            failed.set(0);
+            pauseRequested = false;
+            cancelRequested = false;
+            lastProcessedId = Math.max(0, fromId);
+            pausedMillis = 0;
+            error = null;
+            finishedAt = null;
+            startedAt = Instant.now();
+            total = applicationRepository.countByStatusInAndIdGreaterThan(TARGET_STATUSES, lastProcessedId);
+            status = JobStatus.RUNNING;
+
+            worker = new Thread(this::run, "reevaluation-job");
+            worker.setDaemon(true);
+            worker.start();
+            return getProgress();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public JobProgress pause() {
+        lock.lock();
+        try {
+            if (status != JobStatus.RUNNING) {
+                throw new IllegalStateException("No hay una reevaluación en ejecución");
+            }
+            pauseRequested = true;
+            return getProgress();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public JobProgress resume() {
+        lock.lock();
+        try {
+            if (status != JobStatus.PAUSED && !pauseRequested) {
+                throw new IllegalStateException("La reevaluación no está pausada");
+            }
+            pauseRequested = false;
+            resumed.signalAll();
+            return getProgress();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public JobProgress cancel() {
+        lock.lock();
+        try {
+            if (status != JobStatus.RUNNING && status != JobStatus.PAUSED) {
+                throw new IllegalStateException("No hay una reevaluación en curso");
+            }
+            cancelRequested = true;
+            resumed.signalAll();
+            return getProgress();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public JobProgress getProgress() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsed = start == null ? 0 : Duration.between(start, end).toMillis();
+        long activeMillis = Math.max(1, elapsed - pausedMillis);
+        long done = processed.get();
+        double throughput = start == null ? 0 : done * 1000.0 / activeMillis;
+
+        return new JobProgress(status, total, done, changed.get(), failed.get(), lastProcessedId,
+                start, finishedAt, elapsed, throughput, error);
+    }
+
+    // Espera a que el trabajo termine; devuelve false si se agotó el tiempo
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        Thread current;
+        lock.lock();
+        try {
+            current = worker;
+        } finally {
+            lock.unlock();
+        }
+        if (current == null) {
+            return true;
+        }
+        current.join(timeout.toMillis());
+        return !current.isAlive();
+    }
+
+    private void run() {
+        try {
+            long cursor = lastProcessedId;
+            while (awaitIfPaused()) {
+                List<ApplicationEntity> page = applicationRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(
+                        TARGET_STATUSES, cursor, Limit.of(pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                processPage(page);
+                cursor = page.get(page.size() - 1).getId();
+                lastProcessedId = cursor;
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+            finish(cancelRequested ? JobStatus.CANCELLED : JobStatus.COMPLETED, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(JobStatus.CANCELLED, "Reevaluación interrumpida");
+        } catch (RuntimeException e) {
+            finish(JobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    // Bloquea mientras el trabajo esté pausado; devuelve false si se canceló
+    private boolean awaitIfPaused() throws InterruptedException {
+        lock.lock();
+        try {
+            if (pauseRequested && !cancelRequested) {
+                status = JobStatus.PAUSED;
+                long pausedAt = System.currentTimeMillis();
+                while (pauseRequested && !cancelRequested) {
+                    resumed.await();
+                }
+                pausedMillis += System.currentTimeMillis() - pausedAt;
+                status = JobStatus.RUNNING;
+            }
+            return !cancelRequested;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish(JobStatus finalStatus, String message) {
+        lock.lock();
+        try {
+            error = message;
+            finishedAt = Instant.now();
+            status = finalStatus;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void processPage(List<ApplicationEntity> page) throws InterruptedException {
+        // Un solo SELECT para los ahorros de todos los usuarios de la página
+        Set<Long> userIds = new HashSet<>();
+        for (ApplicationEntity application : page) {
+            if (application.getUser() != null) {
+                userIds.add(application.getUser().getId());
+            }
+        }
+        Map<Long, SavingsEntity> savingsByUser = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (SavingsEntity savings : savingsRepository.findByUserIdIn(userIds)) {
+                if (savings.getUser() != null) {
+                    savingsByUser.putIfAbsent(savings.getUser().getId(), savings);
+                }
+            }
+        }
+
+        List<Callable<ApplicationStatus>> tasks = new ArrayList<>(page.size());
+        for (ApplicationEntity application : page) {
+            SavingsEntity savings = application.getUser() == null ? null
+                    : savingsByUser.get(application.getUser().getId());
+            tasks.add(() -> reevaluate(application, savings));
+        }
+
+        List<Future<ApplicationStatus>> outcomes = executor.invokeAll(tasks);
+        List<Object[]> updates = new ArrayList<>();
+        List<ApplicationStatus[]> transitions = new ArrayList<>();
+        for (int i = 0; i < page.size(); i++) {
+            ApplicationEntity application = page.get(i);
+            try {
+                ApplicationStatus newStatus = outcomes.get(i).get();
+                if (newStatus != application.getStatus()) {
+                    updates.add(new Object[]{newStatus.ordinal(), application.getId(), application.getStatus().ordinal()});
+                    transitions.add(new ApplicationStatus[]{application.getStatus(), newStatus});
+                }
+            } catch (ExecutionException e) {
+                failed.incrementAndGet();
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, updates);
+            for (int i = 0; i < counts.length; i++) {
+                // SUCCESS_NO_INFO (-2) indica que el driver no informó filas, se cuenta como aplicado
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                    changed.incrementAndGet();
+                    statusCounters.changed(transitions.get(i)[0], transitions.get(i)[1]);
+                }
+            }
+        }
+        processed.addAndGet(page.size());
+    }
+
+    private ApplicationStatus reevaluate(ApplicationEntity application, SavingsEntity savings) {
+        BigDecimal monthlyPayment = calculatorService.calculateMonthlyPayment(
+                application.getRequestedAmount(),
+                application.getInterestRate(),
+                application.getTerm()
+        );
+        // Solo interesa el resultado final, por lo que basta con el modo fail-fast
+        boolean approved = evaluationService.evaluateApplication(
+                application, application.getUser(), savings, monthlyPayment,
+                CreditEvaluationService.EvaluationMode.FAIL_FAST).isApproved();
+        return approved ? ApplicationStatus.PRE_APPROVED : ApplicationStatus.IN_EVALUATION;
+    }
+}
@@ -0,0 +1,269 @@
+package com.prestabanco.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Agregados de una cuenta de ahorro calculados movimiento a movimiento. El estado es el saldo,
+ * el mes desde el que el saldo se mantiene positivo y un resumen por mes de los últimos seis
+ * meses (depósitos, mayor retiro, retiros significativos, saldo al cierre); lo que sale de la
+ * ventana solo deja el saldo al cierre del último mes anterior a ella. Así cada movimiento
+ * cuesta lo mismo sin importar cuánta historia tenga la cuenta.
+ *
+ * Los meses sin movimientos no tienen resumen: su saldo es el del último cierre anterior. La
+ * ventana termina en el mes del último movimiento, y los meses anteriores al primer movimiento
+ * de la cuenta no cuentan para los promedios.
+ */
+public final class SavingsLedger {
+
+    // Se guarda por ordinal, igual que los enums de las entidades
+    public enum TransactionType {
+        DEPOSIT,
+        WITHDRAWAL,
+        // Saldo que la cuenta ya tenía al registrar su primer movimiento; no cuenta como depósito
+        OPENING_BALANCE
+    }
+
+    static final int WINDOW_MONTHS = 6;
+
+    // Un retiro es significativo si supera la mitad del saldo que había antes de hacerlo
+    static final BigDecimal SIGNIFICANT_WITHDRAWAL_SHARE = new BigDecimal("0.50");
+
+    public static final class MonthSummary {
+        private final YearMonth month;
+        private int depositsCount;
+        private BigDecimal depositsAmount = BigDecimal.ZERO;
+        private BigDecimal largestWithdrawal = BigDecimal.ZERO;
+        private LocalDateTime largestWithdrawalDate;
+        private int significantWithdrawals;
+        private BigDecimal closingBalance;
+
+        public MonthSummary(YearMonth month, BigDecimal closingBalance) {
+            this.month = month;
+            this.closingBalance = closingBalance;
+        }
+
+        public MonthSummary(YearMonth month, int depositsCount, BigDecimal depositsAmount,
+                            BigDecimal largestWithdrawal, LocalDateTime largestWithdrawalDate,
+                            int significantWithdrawals, BigDecimal closingBalance) {
+            this.month = month;
+            this.depositsCount = depositsCount;
+            this.depositsAmount = depositsAmount;
+            this.largestWithdrawal = largestWithdrawal;
+            this.largestWithdrawalDate = largestWithdrawalDate;
+            this.significantWithdrawals = significantWithdrawals;
+            this.closingBalance = closingBalance;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public int getDepositsCount() {
+            return depositsCount;
+        }
+
+        public BigDecimal getDepositsAmount() {
+            return depositsAmount;
+        }
+
+        public BigDecimal getLargestWithdrawal() {
+            return largestWithdrawal;
+        }
+
+        public LocalDateTime getLargestWithdrawalDate() {
+            return largestWithdrawalDate;
+        }
+
+        public int getSignificantWithdrawals() {
+            return significantWithdrawals;
+        }
+
+        public BigDecimal getClosingBalance() {
+            return closingBalance;
+        }
+    }
+
+    // Los mismos campos que SavingsEntity mantiene para la regla de capacidad de ahorro
+    public record Aggregates(
+            BigDecimal currentBalance,
+            LocalDateTime lastTransactionDate,
+            Integer monthlyDepositsCount,
+            BigDecimal monthlyDepositsAmount,
+            BigDecimal largestWithdrawalLast6Months,
+            LocalDateTime largestWithdrawalDate,
+            Integer consecutiveMonthsWithBalance,
+            Integer significantWithdrawalsCount,
+            BigDecimal lastSixMonthsAverageBalance) {
+    }
+
+    private BigDecimal balance;
+    private LocalDateTime lastTransactionDate;
+    private YearMonth positiveBalanceSince;
+    // Saldo al cierre del último mes anterior a la ventana; null si la cuenta no tiene historia antes
+    private BigDecimal carriedBalance;
+    private final Deque<MonthSummary> months = new ArrayDeque<>();
+
+    private SavingsLedger(BigDecimal balance, LocalDateTime lastTransactionDate, YearMonth positiveBalanceSince,
+                          BigDecimal carriedBalance, Collection<MonthSummary> months) {
+        this.balance = balance;
+        this.lastTransactionDate = lastTransactionDate;
+        this.positiveBalanceSince = positiveBalanceSince;
+        this.carriedBalance = carriedBalance;
+        this.months.addAll(months);
+    }
+
+    public static SavingsLedger empty() {
+        return new SavingsLedger(BigDecimal.ZERO, null, null, null, List.of());
+    }
+
+    // Retoma una cuenta con historia: los resúmenes deben venir en orden y desde el inicio de la ventana
+    public static SavingsLedger resume(BigDecimal balance, LocalDateTime lastTransactionDate,
+                                       YearMonth positiveBalanceSince, BigDecimal carriedBalance,
+                                       List<MonthSummary> months) {
+        return new SavingsLedger(balance == null ? BigDecimal.ZERO : balance, lastTransactionDate,
+                positiveBalanceSince, carriedBalance, months);
+    }
+
+    public static YearMonth windowStart(YearMonth month) {
+        return month.minusMonths(WINDOW_MONTHS - 1);
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public YearMonth getPositiveBalanceSince() {
+        return positiveBalanceSince;
+    }
+
+    /**
+     * Aplica un movimiento y devuelve el resumen del mes que modificó. Los resúmenes que salen de
+     * la ventana se entregan a {@code closed} (la reconstrucción los escribe; el registro en línea
+     * ya los tiene guardados). Los movimientos deben llegar en orden de fecha.
+     */
+    public MonthSummary apply(TransactionType type, BigDecimal amount, LocalDateTime occurredAt,
+                              Consumer<MonthSummary> closed) {
+        if (type == null) {
+            throw new IllegalArgumentException("El tipo de movimiento es obligatorio");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("El monto debe ser mayor que cero");
+        }
+        if (occurredAt == null) {
+            throw new IllegalArgumentException("La fecha del movimiento es obligatoria");
+        }
+        if (lastTransactionDate != null && occurredAt.isBefore(lastTransactionDate)) {
+            throw new IllegalArgumentException("El movimiento es anterior al último registrado (" + lastTransactionDate + ")");
+        }
+        if (type == TransactionType.WITHDRAWAL && amount.compareTo(balance) > 0) {
+            throw new IllegalStateException("Saldo insuficiente para el retiro");
+        }
+
+        YearMonth month = YearMonth.from(occurredAt);
+        YearMonth start = windowStart(month);
+        while (!months.isEmpty() && months.peekFirst().month.isBefore(start)) {
+            MonthSummary dropped = months.removeFirst();
+            carriedBalance = dropped.closingBalance;
+            closed.accept(dropped);
+        }
+        MonthSummary current = months.peekLast();
+        if (current == null || !current.month.equals(month)) {
+            current = new MonthSummary(month, balance);
+            months.addLast(current);
+        }
+
+        switch (type) {
+            case DEPOSIT -> {
+                current.depositsCount++;
+                current.depositsAmount = current.depositsAmount.add(amount);
+                balance = balance.add(amount);
+            }
+            case WITHDRAWAL -> {
+                if (amount.compareTo(balance.multiply(SIGNIFICANT_WITHDRAWAL_SHARE)) > 0) {
+                    current.significantWithdrawals++;
+                }
+                if (amount.compareTo(current.largestWithdrawal) > 0) {
+                    current.largestWithdrawal = amount;
+                    current.largestWithdrawalDate = occurredAt;
+                }
+                balance = balance.subtract(amount);
+            }
+            case OPENING_BALANCE -> balance = balance.add(amount);
+        }
+        current.closingBalance = balance;
+
+        // Un mes que terminó en cero deja de contar; la racha vuelve a empezar el mes siguiente
+        if (balance.signum() <= 0) {
+            positiveBalanceSince = month.plusMonths(1);
+        } else if (positiveBalanceSince == null) {
+            positiveBalanceSince = month;
+        }
+        lastTransactionDate = occurredAt;
+        return current;
+    }
+
+    // Resúmenes que siguen en la ventana, del más antiguo al más reciente
+    public List<MonthSummary> openMonths() {
+        return List.copyOf(months);
+    }
+
+    // Agregados al mes del último movimiento; null si la cuenta no tiene movimientos
+    public Aggregates aggregates() {
+        if (lastTransactionDate == null) {
+            return null;
+        }
+        YearMonth asOf = YearMonth.from(lastTransactionDate);
+        BigDecimal closing = carriedBalance;
+        BigDecimal balanceSum = BigDecimal.ZERO;
+        BigDecimal depositsAmount = BigDecimal.ZERO;
+        BigDecimal largestWithdrawal = BigDecimal.ZERO;
+        LocalDateTime largestWithdrawalDate = null;
+        int depositsCount = 0;
+        int significantWithdrawals = 0;
+        int countedMonths = 0;
+
+        Iterator<MonthSummary> summaries = months.iterator();
+        MonthSummary next = summaries.hasNext() ? summaries.next() : null;
+        for (YearMonth month = windowStart(asOf); !month.isAfter(asOf); month = month.plusMonths(1)) {
+            if (next != null && next.month.equals(month)) {
+                closing = next.closingBalance;
+                depositsCount += next.depositsCount;
+                depositsAmount = depositsAmount.add(next.depositsAmount);
+                significantWithdrawals += next.significantWithdrawals;
+                if (next.largestWithdrawal.compareTo(largestWithdrawal) > 0) {
+                    largestWithdrawal = next.largestWithdrawal;
+                    largestWithdrawalDate = next.largestWithdrawalDate;
+                }
+                next = summaries.hasNext() ? summaries.next() : null;
+            }
+            if (closing != null) {
+                balanceSum = balanceSum.add(closing);
+                countedMonths++;
+            }
+        }
+
+        BigDecimal divisor = BigDecimal.valueOf(countedMonths);
+        int consecutiveMonths = positiveBalanceSince == null || positiveBalanceSince.isAfter(asOf)
+                ? 0 : (int) ChronoUnit.MONTHS.between(positiveBalanceSince, asOf) + 1;
+        return new Aggregates(
+                balance,
+                lastTransactionDate,
+                depositsCount / countedMonths,
+                depositsAmount.divide(divisor, 2, RoundingMode.HALF_UP),
+                largestWithdrawal,
+                largestWithdrawalDate,
+                consecutiveMonths,
+                significantWithdrawals,
+                balanceSum.divide(divisor, 2, RoundingMode.HALF_UP));
+    }
+}
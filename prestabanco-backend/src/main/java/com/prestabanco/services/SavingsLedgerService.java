@@ -0,0 +1,348 @@
+package com.prestabanco.services;
+
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.repositories.CreditEvaluationRepository;
+import com.prestabanco.services.SavingsLedger.Aggregates;
+import com.prestabanco.services.SavingsLedger.MonthSummary;
+import com.prestabanco.services.SavingsLedger.TransactionType;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Libro de movimientos de las cuentas de ahorro. Cada depósito o retiro se agrega al libro y
+ * actualiza en la misma transacción los campos derivados de la cuenta (saldo, racha de meses con
+ * saldo, retiros y promedios de los últimos seis meses) leyendo solo los resúmenes mensuales de
+ * la ventana; {@link SavingsLedger} hace las cuentas. La fila de la cuenta se bloquea mientras
+ * tanto, así dos movimientos de la misma cuenta se aplican uno detrás del otro.
+ *
+ * La reconstrucción vuelve a calcular los resúmenes y los campos desde el libro en una sola
+ * pasada, leyendo los movimientos con un cursor en orden de cuenta y fecha. Las cuentas sin
+ * movimientos conservan los valores que ya tenían.
+ */
+@Service
+public class SavingsLedgerService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_TRANSACTION = "insert into savings_transactions "
+            + "(savings_id, transaction_type, amount, balance_after, occurred_at) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_MONTH = "insert into savings_ledger_months (deposits_count, deposits_amount, "
+            + "largest_withdrawal, largest_withdrawal_date, significant_withdrawals, closing_balance, savings_id, "
+            + "month_start) values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_MONTH = "update savings_ledger_months set deposits_count = ?, "
+            + "deposits_amount = ?, largest_withdrawal = ?, largest_withdrawal_date = ?, significant_withdrawals = ?, "
+            + "closing_balance = ? where savings_id = ? and month_start = ?";
+    private static final String UPDATE_SAVINGS = "update savings set current_balance = ?, last_transaction_date = ?, "
+            + "monthly_deposits_count = ?, monthly_deposits_amount = ?, largest_withdrawal_last6months = ?, "
+            + "largest_withdrawal_date = ?, consecutive_months_with_balance = ?, significant_withdrawals_count = ?, "
+            + "last_six_months_average_balance = ?, balance_positive_since = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CreditEvaluationRepository evaluationRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public record TransactionRequest(String type, BigDecimal amount, LocalDateTime occurredAt) {
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RebuildResult {
+        private final long accounts;
+        private final long transactions;
+        private final long elapsedMillis;
+    }
+
+    @Autowired
+    public SavingsLedgerService(JdbcTemplate jdbcTemplate, CreditEvaluationRepository evaluationRepository,
+                                EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.evaluationRepository = evaluationRepository;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // Solo depósitos y retiros; el saldo de apertura lo agrega el libro en el primer movimiento.
+    // Sin fecha, el movimiento queda con la hora actual.
+    @Transactional
+    public Aggregates record(Long savingsId, TransactionRequest request) {
+        TransactionType type = parseType(request.type());
+        LocalDateTime occurredAt = request.occurredAt() == null ? LocalDateTime.now() : request.occurredAt();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("select current_balance, opening_date, "
+                + "last_transaction_date, balance_positive_since from savings where id = ? for update", savingsId);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Cuenta de ahorro no encontrada");
+        }
+        Map<String, Object> account = rows.get(0);
+        BigDecimal currentBalance = (BigDecimal) account.get("current_balance");
+        LocalDateTime lastTransactionDate = toLocalDateTime(account.get("last_transaction_date"));
+        boolean hasHistory = !jdbcTemplate.queryForList(
+                "select 1 from savings_transactions where savings_id = ? fetch first 1 rows only",
+                Integer.class, savingsId).isEmpty();
+
+        List<MonthSummary> touched = new ArrayList<>(2);
+        SavingsLedger ledger;
+        if (hasHistory) {
+            if (lastTransactionDate != null && occurredAt.isBefore(lastTransactionDate)) {
+                throw new IllegalArgumentException("El movimiento es anterior al último registrado (" + lastTransactionDate + ")");
+            }
+            YearMonth windowStart = SavingsLedger.windowStart(YearMonth.from(occurredAt));
+            ledger = SavingsLedger.resume(currentBalance, lastTransactionDate,
+                    toYearMonth(account.get("balance_positive_since")),
+                    carriedBalance(savingsId, windowStart), windowMonths(savingsId, windowStart));
+        } else {
+            // Primer movimiento: el saldo que la cuenta ya tenía entra al libro como saldo de apertura
+            ledger = SavingsLedger.empty();
+            if (currentBalance != null && currentBalance.signum() > 0) {
+                LocalDateTime openingDate = toLocalDateTime(account.get("opening_date"));
+                LocalDateTime openedAt = openingDate != null && !openingDate.isAfter(occurredAt) ? openingDate : occurredAt;
+                touched.add(ledger.apply(TransactionType.OPENING_BALANCE, currentBalance, openedAt, month -> { }));
+                insertTransaction(savingsId, TransactionType.OPENING_BALANCE, currentBalance, ledger.getBalance(), openedAt);
+            }
+        }
+
+        MonthSummary month = ledger.apply(type, request.amount(), occurredAt, closed -> { });
+        if (!touched.contains(month)) {
+            touched.add(month);
+        }
+        insertTransaction(savingsId, type, request.amount(), ledger.getBalance(), occurredAt);
+        for (MonthSummary summary : touched) {
+            Object[] args = monthArgs(savingsId, summary);
+            if (jdbcTemplate.update(UPDATE_MONTH, args) == 0) {
+                jdbcTemplate.update(INSERT_MONTH, args);
+            }
+        }
+
+        Aggregates aggregates = ledger.aggregates();
+        jdbcTemplate.update(UPDATE_SAVINGS, savingsArgs(savingsId, ledger, aggregates));
+        evaluationRepository.deleteBySavingsId(savingsId);
+        evictOnCommit(() -> entityManagerFactory.getCache().evict(SavingsEntity.class, savingsId));
+        return aggregates;
+    }
+
+    // Con savingsId solo esa cuenta; sin él todas, con la tabla de cuentas bloqueada para escritura
+    // (las lecturas siguen) para que ningún movimiento se cuele a mitad de la pasada
+    @Transactional
+    public RebuildResult rebuild(Long savingsId) {
+        long startedAt = System.nanoTime();
+        if (savingsId != null) {
+            if (jdbcTemplate.queryForList("select id from savings where id = ? for update", Long.class, savingsId).isEmpty()) {
+                throw new EntityNotFoundException("Cuenta de ahorro no encontrada");
+            }
+            jdbcTemplate.update("delete from savings_ledger_months where savings_id = ?", savingsId);
+        } else {
+            if (isPostgres()) {
+                jdbcTemplate.execute("lock table savings in exclusive mode");
+            }
+            jdbcTemplate.update("delete from savings_ledger_months");
+        }
+
+        RebuildPass pass = new RebuildPass();
+        String where = savingsId == null ? "" : " where savings_id = ?";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("select savings_id, transaction_type, amount, "
+                    + "occurred_at from savings_transactions" + where + " order by savings_id, occurred_at, id");
+            statement.setFetchSize(FETCH_SIZE);
+            if (savingsId != null) {
+                statement.setLong(1, savingsId);
+            }
+            return statement;
+        }, pass);
+        pass.finish();
+
+        if (savingsId != null) {
+            evaluationRepository.deleteBySavingsId(savingsId);
+            evictOnCommit(() -> entityManagerFactory.getCache().evict(SavingsEntity.class, savingsId));
+        } else {
+            // Las evaluaciones guardadas incluyen los campos de la cuenta en su huella: no se reutilizan
+            evictOnCommit(() -> entityManagerFactory.getCache().evict(SavingsEntity.class));
+        }
+        return new RebuildResult(pass.accounts, pass.transactions, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    // Recorre los movimientos de una cuenta tras otra; los resúmenes y cuentas terminadas se escriben en lotes
+    private final class RebuildPass implements RowCallbackHandler {
+        private final List<Object[]> months = new ArrayList<>(BATCH_SIZE);
+        private final List<Object[]> accountsToUpdate = new ArrayList<>(BATCH_SIZE);
+        private Long currentId;
+        private SavingsLedger ledger;
+        private long accounts;
+        private long transactions;
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            long savingsId = resultSet.getLong("savings_id");
+            if (currentId == null || currentId != savingsId) {
+                closeAccount();
+                currentId = savingsId;
+                ledger = SavingsLedger.empty();
+                accounts++;
+            }
+            TransactionType type = TransactionType.values()[resultSet.getInt("transaction_type")];
+            ledger.apply(type, resultSet.getBigDecimal("amount"),
+                    resultSet.getTimestamp("occurred_at").toLocalDateTime(),
+                    closed -> addMonth(currentId, closed));
+            transactions++;
+        }
+
+        void finish() {
+            closeAccount();
+            flushMonths();
+            flushAccounts();
+        }
+
+        private void closeAccount() {
+            if (currentId == null) {
+                return;
+            }
+            for (MonthSummary open : ledger.openMonths()) {
+                addMonth(currentId, open);
+            }
+            accountsToUpdate.add(savingsArgs(currentId, ledger, ledger.aggregates()));
+            if (accountsToUpdate.size() >= BATCH_SIZE) {
+                flushAccounts();
+            }
+        }
+
+        private void addMonth(Long savingsId, MonthSummary summary) {
+            months.add(monthArgs(savingsId, summary));
+            if (months.size() >= BATCH_SIZE) {
+                flushMonths();
+            }
+        }
+
+        private void flushMonths() {
+            if (!months.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_MONTH, months);
+                months.clear();
+            }
+        }
+
+        private void flushAccounts() {
+            if (!accountsToUpdate.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SAVINGS, accountsToUpdate);
+                accountsToUpdate.clear();
+            }
+        }
+    }
+
+    // La cuenta se escribe con JDBC, fuera de lo que Hibernate sabe invalidar. Se saca del caché al
+    // escribir y otra vez al confirmar: una lectura concurrente entre medio carga la fila confirmada
+    // anterior y la vuelve a dejar en el caché de segundo nivel
+    private static void evictOnCommit(Runnable eviction) {
+        eviction.run();
+        AfterCommit.run(eviction);
+    }
+
+    private static TransactionType parseType(String value) {
+        try {
+            TransactionType type = TransactionType.valueOf(value.trim().toUpperCase());
+            if (type != TransactionType.OPENING_BALANCE) {
+                return type;
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            // mismo mensaje que un tipo reservado
+        }
+        throw new IllegalArgumentException("Tipo de movimiento no soportado: " + value);
+    }
+
+    private void insertTransaction(Long savingsId, TransactionType type, BigDecimal amount, BigDecimal balanceAfter,
+                                   LocalDateTime occurredAt) {
+        jdbcTemplate.update(INSERT_TRANSACTION, savingsId, type.ordinal(), amount, balanceAfter, Timestamp.valueOf(occurredAt));
+    }
+
+    private BigDecimal carriedBalance(Long savingsId, YearMonth windowStart) {
+        List<BigDecimal> closing = jdbcTemplate.queryForList("select closing_balance from savings_ledger_months "
+                        + "where savings_id = ? and month_start < ? order by month_start desc fetch first 1 rows only",
+                BigDecimal.class, savingsId, Date.valueOf(windowStart.atDay(1)));
+        return closing.isEmpty() ? null : closing.get(0);
+    }
+
+    private List<MonthSummary> windowMonths(Long savingsId, YearMonth windowStart) {
+        return jdbcTemplate.query("select month_start, deposits_count, deposits_amount, largest_withdrawal, "
+                        + "largest_withdrawal_date, significant_withdrawals, closing_balance from savings_ledger_months "
+                        + "where savings_id = ? and month_start >= ? order by month_start",
+                (resultSet, rowNum) -> new MonthSummary(
+                        YearMonth.from(resultSet.getDate("month_start").toLocalDate()),
+                        resultSet.getInt("deposits_count"),
+                        resultSet.getBigDecimal("deposits_amount"),
+                        resultSet.getBigDecimal("largest_withdrawal"),
+                        toLocalDateTime(resultSet.getTimestamp("largest_withdrawal_date")),
+                        resultSet.getInt("significant_withdrawals"),
+                        resultSet.getBigDecimal("closing_balance")),
+                savingsId, Date.valueOf(windowStart.atDay(1)));
+    }
+
+    private static Object[] monthArgs(Long savingsId, MonthSummary summary) {
+        return new Object[]{
+                summary.getDepositsCount(),
+                summary.getDepositsAmount(),
+                summary.getLargestWithdrawal(),
+                toTimestamp(summary.getLargestWithdrawalDate()),
+                summary.getSignificantWithdrawals(),
+                summary.getClosingBalance(),
+                savingsId,
+                Date.valueOf(summary.getMonth().atDay(1))};
+    }
+
+    private static Object[] savingsArgs(Long savingsId, SavingsLedger ledger, Aggregates aggregates) {
+        YearMonth positiveSince = ledger.getPositiveBalanceSince();
+        return new Object[]{
+                aggregates.currentBalance(),
+                toTimestamp(aggregates.lastTransactionDate()),
+                aggregates.monthlyDepositsCount(),
+                aggregates.monthlyDepositsAmount(),
+                aggregates.largestWithdrawalLast6Months(),
+                toTimestamp(aggregates.largestWithdrawalDate()),
+                aggregates.consecutiveMonthsWithBalance(),
+                aggregates.significantWithdrawalsCount(),
+                aggregates.lastSixMonthsAverageBalance(),
+                positiveSince == null ? null : Date.valueOf(positiveSince.atDay(1)),
+                savingsId};
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return value instanceof LocalDateTime dateTime ? dateTime : null;
+    }
+
+    private static YearMonth toYearMonth(Object value) {
+        if (value instanceof Date date) {
+            return YearMonth.from(date.toLocalDate());
+        }
+        return value instanceof LocalDate localDate ? YearMonth.from(localDate) : null;
+    }
+
+    private boolean isPostgres() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+    }
+}
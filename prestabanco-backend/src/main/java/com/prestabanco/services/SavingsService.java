@@ -1,9 +1,15 @@
 package com.prestabanco.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.repositories.CreditEvaluationRepository;
 import com.prestabanco.repositories.SavingsRepository;
+import com.prestabanco.repositories.projections.SavingsView;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.util.Optional;
 
 @Service
@@ -11,9 +17,34 @@ public class SavingsService {
 
     @Autowired
     private SavingsRepository savingsRepository;
+    @Autowired
+    private CreditEvaluationRepository evaluationRepository;
+    @Autowired
+    private ColumnPatcher columnPatcher;
+
+    private static final long NATURAL_KEY_INDEX_MAX_SIZE = 100_000;
+    private static final Duration NATURAL_KEY_INDEX_EXPIRY = Duration.ofMinutes(30);
+
+    // Número de cuenta y id del dueño -> id de la cuenta; la cuenta se lee desde el caché de segundo nivel
+    private final NaturalKeyIndex<String, SavingsEntity> accountNumberIndex = new NaturalKeyIndex<>(
+            NATURAL_KEY_INDEX_MAX_SIZE, NATURAL_KEY_INDEX_EXPIRY,
+            SavingsEntity::getAccountNumber, SavingsEntity::getId);
+    private final NaturalKeyIndex<Long, SavingsEntity> userIdIndex = new NaturalKeyIndex<>(
+            NATURAL_KEY_INDEX_MAX_SIZE, NATURAL_KEY_INDEX_EXPIRY,
+            savings -> savings.getUser() == null ? null : savings.getUser().getId(), SavingsEntity::getId);
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry registry) {
+        accountNumberIndex.bindTo(registry, "savings.byAccountNumber");
+        userIdIndex.bindTo(registry, "savings.byUserId");
+    }
 
     public SavingsEntity createSavings(SavingsEntity savings) {
-        return savingsRepository.save(savings);
+        SavingsEntity saved = savingsRepository.save(savings);
+        if (saved != null && saved.getUser() != null) {
+            evaluationRepository.deleteByUserId(saved.getUser().getId());
+        }
+        return saved;
     }
 
     public Optional<SavingsEntity> getSavingsById(Long id) {
@@ -21,19 +52,74 @@ public class SavingsService {
     }
 
     public Optional<SavingsEntity> getSavingsByUserId(Long userId) {
-        return savingsRepository.findByUserId(userId);
+        return userIdIndex.find(userId, savingsRepository::findByUserId, savingsRepository::findById);
     }
 
     public Optional<SavingsEntity> getSavingsByAccountNumber(String accountNumber) {
-        return savingsRepository.findByAccountNumber(accountNumber);
+        return accountNumberIndex.find(accountNumber, savingsRepository::findByAccountNumber, savingsRepository::findById);
     }
 
+    // Vistas de solo lectura: mismas columnas de la cuenta, con el usuario reducido a su id
+    public Optional<SavingsView> getSavingsViewById(Long id) {
+        return savingsRepository.findViewById(id);
+    }
+
+    public Optional<SavingsView> getSavingsViewByUserId(Long userId) {
+        return savingsRepository.findViewByUserId(userId);
+    }
+
+    public Optional<SavingsView> getSavingsViewByAccountNumber(String accountNumber) {
+        return savingsRepository.findViewByAccountNumber(accountNumber);
+    }
+
+    // Las evaluaciones del dueño de la cuenta se invalidan antes de escribir. El saldo y los campos
+    // derivados de una cuenta existente se conservan: solo los cambia el libro de movimientos
     public SavingsEntity updateSavings(SavingsEntity savings) {
+        if (savings.getId() != null) {
+            evaluationRepository.deleteBySavingsId(savings.getId());
+            savingsRepository.findById(savings.getId()).ifPresent(stored -> {
+                // El número de cuenta o el dueño pueden cambiar: se olvidan los que tenía
+                evictNaturalKeys(stored);
+                keepLedgerFields(savings, stored);
+            });
+        }
         return savingsRepository.save(savings);
     }
 
+    // Merge patch: solo las columnas presentes en el cuerpo; el dueño de la cuenta no se carga ni se reescribe.
+    // Si cambia el número de cuenta, el índice lo nota al comparar con la cuenta recargada.
+    public void patchSavings(Long id, JsonNode body) {
+        ColumnPatcher.ColumnPatch patch = columnPatcher.prepare(ColumnPatcher.PatchTarget.SAVINGS,
+                ColumnPatcher.body(body));
+        if (!patch.isEmpty()) {
+            evaluationRepository.deleteBySavingsId(id);
+        }
+        if (columnPatcher.execute(patch, id, null) == 0) {
+            throw new EntityNotFoundException("Cuenta de ahorro no encontrada");
+        }
+    }
+
     public void deleteSavings(Long id) {
+        evaluationRepository.deleteBySavingsId(id);
+        savingsRepository.findById(id).ifPresent(this::evictNaturalKeys);
         savingsRepository.deleteById(id);
     }
 
+    private static void keepLedgerFields(SavingsEntity savings, SavingsEntity stored) {
+        savings.setCurrentBalance(stored.getCurrentBalance());
+        savings.setLastTransactionDate(stored.getLastTransactionDate());
+        savings.setMonthlyDepositsCount(stored.getMonthlyDepositsCount());
+        savings.setMonthlyDepositsAmount(stored.getMonthlyDepositsAmount());
+        savings.setLargestWithdrawalLast6Months(stored.getLargestWithdrawalLast6Months());
+        savings.setLargestWithdrawalDate(stored.getLargestWithdrawalDate());
+        savings.setConsecutiveMonthsWithBalance(stored.getConsecutiveMonthsWithBalance());
+        savings.setSignificantWithdrawalsCount(stored.getSignificantWithdrawalsCount());
+        savings.setLastSixMonthsAverageBalance(stored.getLastSixMonthsAverageBalance());
+    }
+
+    private void evictNaturalKeys(SavingsEntity savings) {
+        accountNumberIndex.evict(savings);
+        userIdIndex.evict(savings);
+    }
+
 }
@@ -0,0 +1,85 @@
+package com.prestabanco.services;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class SimulationGridService {
+
+    private static final int MAX_CELLS = 20_000;
+
+    @Autowired
+    private LoanCalculatorService calculatorService;
+
+    // Matriz en formato columnar: las celdas se recorren por fila (tasa) y luego por columna (plazo),
+    // es decir, la celda (i, j) está en la posición i * terms.length + j
+    @Getter
+    @AllArgsConstructor
+    public static class SimulationGrid {
+        private final BigDecimal requestedAmount;
+        private final List<BigDecimal> rates;
+        private final int[] terms;
+        private final long[] monthlyPayments;
+        private final long[] totalCosts;
+    }
+
+    public SimulationGrid simulateGrid(BigDecimal loanAmount,
+                                       BigDecimal rateFrom, BigDecimal rateTo, BigDecimal rateStep,
+                                       int yearsFrom, int yearsTo, int yearsStep) {
+        if (loanAmount == null || loanAmount.signum() <= 0) {
+            throw new IllegalArgumentException("El monto debe ser mayor a cero");
+        }
+        if (rateFrom.signum() <= 0 || rateStep.signum() <= 0 || rateTo.compareTo(rateFrom) < 0) {
+            throw new IllegalArgumentException("Rango de tasas inválido");
+        }
+        if (yearsFrom <= 0 || yearsStep <= 0 || yearsTo < yearsFrom) {
+            throw new IllegalArgumentException("Rango de plazos inválido");
+        }
+
+        int rateCount = rateTo.subtract(rateFrom).divide(rateStep, 0, RoundingMode.FLOOR).intValueExact() + 1;
+        int termCount = (yearsTo - yearsFrom) / yearsStep + 1;
+        if ((long) rateCount * termCount > MAX_CELLS) {
+            throw new IllegalArgumentException("La grilla no puede superar " + MAX_CELLS + " celdas");
+        }
+
+        List<BigDecimal> rates = new ArrayList<>(rateCount);
+        for (int i = 0; i < rateCount; i++) {
+            rates.add(rateFrom.add(rateStep.multiply(BigDecimal.valueOf(i))));
+        }
+        int[] terms = new int[termCount];
+        for (int j = 0; j < termCount; j++) {
+            terms[j] = yearsFrom + j * yearsStep;
+        }
+
+        // Seguro y comisiones dependen solo del monto: se calculan una vez para toda la grilla
+        long monthlyCharges = Math.addExact(
+                calculatorService.calculateMonthlyLifeInsurance(loanAmount).longValueExact(),
+                LoanCalculatorService.MONTHLY_FEE.longValueExact());
+        long adminFee = calculatorService.calculateAdminFee(loanAmount).longValueExact();
+
+        long[] monthlyPayments = new long[rateCount * termCount];
+        long[] totalCosts = new long[rateCount * termCount];
+        int cell = 0;
+        for (BigDecimal rate : rates) {
+            // Una fila por tasa: los plazos crecientes reutilizan la potencia del anterior
+            BigDecimal[] payments = calculatorService.calculateMonthlyPayments(loanAmount, rate, terms);
+            for (int j = 0; j < termCount; j++) {
+                long payment = payments[j].longValueExact();
+                monthlyPayments[cell] = payment;
+                totalCosts[cell] = Math.addExact(
+                        Math.multiplyExact(payment + monthlyCharges, terms[j] * 12L),
+                        adminFee);
+                cell++;
+            }
+        }
+
+        return new SimulationGrid(loanAmount, rates, terms, monthlyPayments, totalCosts);
+    }
+}
@@ -1,16 +1,18 @@
 package com.prestabanco.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.prestabanco.entities.UserEntity;
 import com.prestabanco.repositories.UserRepository;
-import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -18,36 +20,31 @@ public class UserService {
 
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ColumnPatcher columnPatcher;
     private final PasswordEncoder passwordEncoder;
 
+    private static final long NATURAL_KEY_INDEX_MAX_SIZE = 100_000;
+    private static final Duration NATURAL_KEY_INDEX_EXPIRY = Duration.ofMinutes(30);
+
+    // Correo y RUT -> id; el usuario se lee por id desde el caché de segundo nivel
+    private final NaturalKeyIndex<String, UserEntity> emailIndex = new NaturalKeyIndex<>(
+            NATURAL_KEY_INDEX_MAX_SIZE, NATURAL_KEY_INDEX_EXPIRY, UserEntity::getEmail, UserEntity::getId);
+    private final NaturalKeyIndex<String, UserEntity> rutIndex = new NaturalKeyIndex<>(
+            NATURAL_KEY_INDEX_MAX_SIZE, NATURAL_KEY_INDEX_EXPIRY, UserEntity::getRut, UserEntity::getId);
+
     @Autowired
     public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
     }
 
-    @PostConstruct
-    public void updatePasswordHashes() {
-        // Mapa de usuarios conocidos y sus contraseñas
-        Map<String, String> knownUsers = Map.of(
-                "carlos.rodriguez@prestabanco.com", "admin123",
-                "juan.perez@email.com", "password123",
-                "maria.gonzalez@email.com", "password456",
-                "ana.silva@email.com", "password789",
-                "pedro.martinez@prestabanco.com", "exec123"
-        );
-
-        // Actualizar cada contraseña en la base de datos
-        knownUsers.forEach((email, password) -> {
-            userRepository.findByEmail(email).ifPresent(user -> {
-                user.setPassword(passwordEncoder.encode(password));
-                userRepository.save(user);
-                System.out.println("Contraseña actualizada para: " + email);
-            });
-        });
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry registry) {
+        emailIndex.bindTo(registry, "users.byEmail");
+        rutIndex.bindTo(registry, "users.byRut");
     }
 
-
     public UserEntity createUser(UserEntity user) {
         // Cifrar la contraseña antes de guardarla
         user.setPassword(passwordEncoder.encode(user.getPassword()));
@@ -59,22 +56,31 @@ public class UserService {
     }
 
     public Optional<UserEntity> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return emailIndex.find(email, userRepository::findByEmail, userRepository::findById);
     }
 
     public Optional<UserEntity> getUserByRut(String rut) {
-        return userRepository.findByRut(rut);
+        return rutIndex.find(rut, userRepository::findByRut, userRepository::findById);
     }
 
     public List<UserEntity> getAllUsers() {
         return userRepository.findAll();
     }
 
+    public CursorPage<UserEntity> getUsersPage(Long cursor, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<UserEntity> fetched = userRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.startAfter(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(fetched, pageSize, UserEntity::getId);
+    }
+
     public UserEntity updateUser(UserEntity user) {
         Optional<UserEntity> existingUserOpt = userRepository.findById(user.getId());
 
         if (existingUserOpt.isPresent()) {
             UserEntity existingUser = existingUserOpt.get();
+            // El correo o el RUT pueden cambiar: se olvidan los que tenía
+            evictNaturalKeys(existingUser);
 
             // Si el campo password contiene un valor (no es null ni vacío)
             if (user.getPassword() != null && !user.getPassword().isEmpty()) {
@@ -94,10 +100,33 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    // Merge patch: solo las columnas presentes en el cuerpo, sin leer antes el usuario. La contraseña
+    // solo se escribe si viene en el cuerpo, cifrada; no puede quedar vacía.
+    public void patchUser(Long id, JsonNode body) {
+        ObjectNode fields = ColumnPatcher.body(body);
+        JsonNode password = fields.remove("password");
+        ColumnPatcher.ColumnPatch patch = columnPatcher.prepare(ColumnPatcher.PatchTarget.USERS, fields);
+        if (password != null) {
+            if (!password.isTextual() || password.asText().isEmpty()) {
+                throw new IllegalArgumentException("La contraseña no puede quedar vacía");
+            }
+            patch.set("password", passwordEncoder.encode(password.asText()));
+        }
+        if (columnPatcher.execute(patch, id, null) == 0) {
+            throw new EntityNotFoundException("Usuario no encontrado");
+        }
+    }
+
     public void deleteUser(Long id) {
+        userRepository.findById(id).ifPresent(this::evictNaturalKeys);
         userRepository.deleteById(id);
     }
 
+    private void evictNaturalKeys(UserEntity user) {
+        emailIndex.evict(user);
+        rutIndex.evict(user);
+    }
+
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
@@ -107,13 +136,35 @@ public class UserService {
     }
 
     public UserEntity validateLogin(String email, String password) {
-        UserEntity user = userRepository.findByEmail(email)
+        UserEntity user = getUserByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
+        // matches(null, null) es verdadero en DelegatingPasswordEncoder: sin contraseña no se compara
+        if (password == null || password.isBlank() || !hasUsablePassword(user)) {
+            throw new RuntimeException("Contraseña incorrecta");
+        }
         if (passwordEncoder.matches(password, user.getPassword())) {
+            upgradePasswordHash(user, password);
             return user;
         }
 
         throw new RuntimeException("Contraseña incorrecta");
     }
-}
\ No newline at end of file
+
+    private static boolean hasUsablePassword(UserEntity user) {
+        String hash = user.getPassword();
+        return hash != null && !hash.isBlank() && !hash.startsWith(UserEntity.DISABLED_PASSWORD);
+    }
+
+    // Con la contraseña en claro ya verificada, rehace el hash si su algoritmo o costo quedaron atrás
+    private void upgradePasswordHash(UserEntity user, String password) {
+        String currentHash = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(currentHash)) {
+            return;
+        }
+        String newHash = passwordEncoder.encode(password);
+        if (userRepository.updatePasswordHash(user.getId(), currentHash, newHash) == 1) {
+            user.setPassword(newHash);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.prestabanco.services.rules;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.services.CreditEvaluationService.EvaluationMode;
+
+import java.math.BigDecimal;
+
+// Datos de entrada de una evaluación, compartidos por todas las reglas del pipeline
+public record CreditEvaluationContext(
+        ApplicationEntity application,
+        UserEntity user,
+        SavingsEntity savings,
+        BigDecimal monthlyPayment,
+        EvaluationMode mode,
+        CreditRuleMetrics metrics) {
+
+    public CreditEvaluationContext(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                   BigDecimal monthlyPayment, EvaluationMode mode) {
+        this(application, user, savings, monthlyPayment, mode, CreditRuleMetrics.DISABLED);
+    }
+
+    public boolean failFast() {
+        return mode == EvaluationMode.FAIL_FAST;
+    }
+}
@@ -0,0 +1,33 @@
+package com.prestabanco.services.rules;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.services.CreditEvaluationService.CreditEvaluationResult.EvaluationDetail;
+
+import java.util.function.Consumer;
+
+/**
+ * Regla del pipeline de evaluación crediticia. Las reglas se ejecutan en el orden
+ * en que se registran en {@link com.prestabanco.services.CreditEvaluationService};
+ * el detalle de aprobación/rechazo es inmutable y se comparte entre evaluaciones.
+ */
+public interface CreditRule {
+
+    String getCode();
+
+    EvaluationDetail getPassedDetail();
+
+    EvaluationDetail getFailedDetail();
+
+    boolean test(CreditEvaluationContext context);
+
+    // Entrega a input cada dato que lee test (la cuota se representa por monto, tasa y plazo).
+    // Con ellos se arma la huella de los resultados guardados: un dato que falte aquí deja
+    // pasar un resultado obsoleto cuando solo cambia ese dato.
+    void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings, Consumer<Object> input);
+
+    default EvaluationDetail detailFor(boolean passed) {
+        return passed ? getPassedDetail() : getFailedDetail();
+    }
+}
@@ -0,0 +1,120 @@
+package com.prestabanco.services.rules;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contadores de aprobación/rechazo por regla (R1–R7) y por criterio de ahorro (R71–R75),
+ * y tiempos por regla. Cada regla o criterio ejecutado incrementa su contador de aprobadas o
+ * rechazadas; los que no se ejecutan por el corte fail-fast no suman. El tiempo se mide en una
+ * de cada {@value #TIMING_SAMPLE_RATE} evaluaciones para no pagar dos lecturas del reloj por
+ * regla en cada llamada.
+ */
+public final class CreditRuleMetrics {
+
+    public static final CreditRuleMetrics DISABLED = new CreditRuleMetrics();
+
+    static final int TIMING_SAMPLE_RATE = 64;
+
+    private final boolean enabled;
+    private final OutcomeCounters rules;
+    private final OutcomeCounters criteria;
+    private final Timer[] ruleTimers;
+
+    private CreditRuleMetrics() {
+        this.enabled = false;
+        this.rules = null;
+        this.criteria = null;
+        this.ruleTimers = new Timer[0];
+    }
+
+    private CreditRuleMetrics(MeterRegistry registry, List<CreditRule> pipeline) {
+        SavingsCriterion[] savingsCriteria = SavingsCriterion.ordered();
+        this.enabled = true;
+        this.rules = new OutcomeCounters(pipeline.size());
+        this.criteria = new OutcomeCounters(savingsCriteria.length);
+        this.ruleTimers = new Timer[pipeline.size()];
+
+        for (int i = 0; i < pipeline.size(); i++) {
+            String code = pipeline.get(i).getCode();
+            rules.register(registry, "prestabanco.credit.rule.evaluations",
+                    "Evaluaciones de cada regla crediticia por resultado", "rule", code, i);
+            ruleTimers[i] = Timer.builder("prestabanco.credit.rule.duration")
+                    .description("Tiempo de evaluación de cada regla (muestreado)")
+                    .tag("rule", code)
+                    .register(registry);
+        }
+        for (int i = 0; i < savingsCriteria.length; i++) {
+            criteria.register(registry, "prestabanco.credit.savings.criterion.evaluations",
+                    "Evaluaciones de cada criterio de capacidad de ahorro por resultado",
+                    "criterion", savingsCriteria[i].getCode(), i);
+        }
+    }
+
+    // Registra los medidores para las reglas del pipeline, en el mismo orden
+    public static CreditRuleMetrics register(MeterRegistry registry, List<CreditRule> rules) {
+        return registry == null ? DISABLED : new CreditRuleMetrics(registry, rules);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Decide por evaluación si se miden los tiempos de sus reglas
+    public boolean sampleTiming() {
+        return enabled && ThreadLocalRandom.current().nextInt(TIMING_SAMPLE_RATE) == 0;
+    }
+
+    // ruleIndex es la posición de la regla en el pipeline
+    public void recordRuleTime(int ruleIndex, long elapsedNanos) {
+        ruleTimers[ruleIndex].record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRule(int ruleIndex, boolean passed) {
+        if (enabled) {
+            rules.increment(ruleIndex, passed);
+        }
+    }
+
+    // criterionIndex es la posición del criterio en SavingsCriterion.ordered()
+    public void recordCriterion(int criterionIndex, boolean passed) {
+        if (enabled) {
+            criteria.increment(criterionIndex, passed);
+        }
+    }
+
+    // Un contador de aprobadas y uno de rechazadas por posición
+    private static final class OutcomeCounters {
+        private final Counter[] passed;
+        private final Counter[] failed;
+
+        OutcomeCounters(int size) {
+            passed = new Counter[size];
+            failed = new Counter[size];
+        }
+
+        void increment(int position, boolean outcome) {
+            (outcome ? passed : failed)[position].increment();
+        }
+
+        void register(MeterRegistry registry, String name, String description,
+                      String tagKey, String code, int position) {
+            passed[position] = counter(registry, name, description, tagKey, code, "passed");
+            failed[position] = counter(registry, name, description, tagKey, code, "failed");
+        }
+
+        private static Counter counter(MeterRegistry registry, String name, String description,
+                                       String tagKey, String code, String outcome) {
+            return Counter.builder(name)
+                    .description(description)
+                    .tag(tagKey, code)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
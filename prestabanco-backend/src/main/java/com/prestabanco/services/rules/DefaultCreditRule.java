@@ -0,0 +1,227 @@
+package com.prestabanco.services.rules;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.services.CreditEvaluationService.CreditEvaluationResult.EvaluationDetail;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Reglas R1–R7 de la política de crédito, en el orden en que se evalúan
+public enum DefaultCreditRule implements CreditRule {
+
+    // R1: Relación cuota/ingreso
+    INCOME_RATIO("R1", "Relación Cuota/Ingreso",
+            "La cuota no debe superar el 35% del ingreso mensual") {
+        @Override
+        public boolean test(CreditEvaluationContext context) {
+            BigDecimal incomeRatio = context.monthlyPayment()
+                    .divide(context.application().getMonthlyIncome(), 4, RoundingMode.HALF_UP);
+            return incomeRatio.compareTo(MAX_INCOME_RATIO) <= 0;
+        }
+
+        @Override
+        public void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                 Consumer<Object> input) {
+            appendPaymentInputs(application, input);
+            input.accept(application.getMonthlyIncome());
+        }
+    },
+
+    // R2: Historial Crediticio
+    CREDIT_HISTORY("R2", "Historial Crediticio",
+            "No debe tener deudas impagas o morosidades graves") {
+        @Override
+        public boolean test(CreditEvaluationContext context) {
+            // Simulación de consulta a DICOM
+            return true;
+        }
+
+        @Override
+        public void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                 Consumer<Object> input) {
+            // No lee datos de la solicitud
+        }
+    },
+
+    // R3: Antigüedad Laboral
+    EMPLOYMENT_YEARS("R3", "Antigüedad Laboral",
+            "Debe tener al menos 1 año de antigüedad laboral") {
+        @Override
+        public boolean test(CreditEvaluationContext context) {
+            return context.application().getEmploymentYears() >= MIN_EMPLOYMENT_YEARS;
+        }
+
+        @Override
+        public void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                 Consumer<Object> input) {
+            input.accept(application.getEmploymentYears());
+        }
+    },
+
+    // R4: Relación Deuda/Ingreso
+    DEBT_RATIO("R4", "Relación Deuda/Ingreso",
+            "El total de deudas no debe superar el 50% del ingreso") {
+        @Override
+        public boolean test(CreditEvaluationContext context) {
+            ApplicationEntity application = context.application();
+            BigDecimal totalMonthlyDebt = application.getCurrentDebt().add(context.monthlyPayment());
+            BigDecimal debtRatio = totalMonthlyDebt.divide(application.getMonthlyIncome(), 4, RoundingMode.HALF_UP);
+            return debtRatio.compareTo(MAX_DEBT_RATIO) <= 0;
+        }
+
+        @Override
+        public void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                 Consumer<Object> input) {
+            appendPaymentInputs(application, input);
+            input.accept(application.getCurrentDebt());
+            input.accept(application.getMonthlyIncome());
+        }
+    },
+
+    // R5: Monto Máximo de Financiamiento
+    MAX_FINANCING("R5", "Monto Máximo Financiamiento",
+            "El monto solicitado debe estar dentro del máximo permitido según tipo de propiedad") {
+        @Override
+        public boolean test(CreditEvaluationContext context) {
+            ApplicationEntity application = context.application();
+            BigDecimal maxAmount = application.getPropertyValue()
+                    .multiply(MAX_FINANCING_PERCENTAGE.get(application.getPropertyType()));
+            return application.getRequestedAmount().compareTo(maxAmount) <= 0;
+        }
+
+        @Override
+        public void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                 Consumer<Object> input) {
+            input.accept(application.getPropertyValue());
+            input.accept(application.getPropertyType());
+            input.accept(application.getRequestedAmount());
+        }
+    },
+
+    // R6: Edad del Solicitante (versión modificada para trabajar con edad directa)
+    AGE("R6", "Edad",
+            "La edad al terminar el crédito no debe superar los 70 años") {
+        @Override
+        public boolean test(CreditEvaluationContext context) {
+            int ageAtEnd = context.user().getAge() + context.application().getTerm();
+            return ageAtEnd <= (MAX_AGE_AT_END - AGE_MARGIN);
+        }
+
+        @Override
+        public void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                 Consumer<Object> input) {
+            input.accept(user == null ? null : user.getAge());
+            input.accept(application.getTerm());
+        }
+    },
+
+    // R7: Capacidad de Ahorro (al menos 3 de los subcriterios R71–R75)
+    SAVINGS_CAPACITY("R7", "Capacidad de Ahorro",
+            "Debe cumplir con al menos 3 de los 5 criterios de ahorro") {
+        @Override
+        public boolean test(CreditEvaluationContext context) {
+            SavingsEntity savings = context.savings();
+            ApplicationEntity application = context.application();
+
+            // Validación inicial
+            if (savings == null || application == null ||
+                    savings.getCurrentBalance() == null ||
+                    savings.getMonthlyDepositsAmount() == null ||
+                    savings.getLargestWithdrawalLast6Months() == null) {
+                return false;
+            }
+
+            try {
+                int criteriasMet = 0;
+                SavingsCriterion[] criteria = SavingsCriterion.ordered();
+                for (int i = 0; i < criteria.length; i++) {
+                    boolean met = criteria[i].test(savings, application);
+                    context.metrics().recordCriterion(i, met);
+                    if (met) {
+                        criteriasMet++;
+                    }
+                    // En modo fail-fast se corta apenas el resultado queda decidido
+                    if (context.failFast() && (criteriasMet >= SavingsCriterion.REQUIRED_CRITERIA
+                            || criteriasMet + (criteria.length - i - 1) < SavingsCriterion.REQUIRED_CRITERIA)) {
+                        break;
+                    }
+                }
+
+                // Actualizar el criterio de ahorro
+                boolean meetsCriteria = criteriasMet >= SavingsCriterion.REQUIRED_CRITERIA;
+                savings.setMeetsSavingsCriteria(meetsCriteria);
+                return meetsCriteria;
+
+            } catch (Exception e) {
+                System.err.println("Error al evaluar capacidad de ahorro: " + e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                 Consumer<Object> input) {
+            if (savings == null) {
+                input.accept("sin-ahorro");
+                return;
+            }
+            input.accept(savings.getCurrentBalance());
+            input.accept(savings.getMonthlyDepositsAmount());
+            input.accept(savings.getLargestWithdrawalLast6Months());
+            for (SavingsCriterion criterion : SavingsCriterion.ordered()) {
+                criterion.appendInputs(savings, application, input);
+            }
+        }
+    };
+
+    private static final BigDecimal MAX_INCOME_RATIO = new BigDecimal("0.35"); // 35%
+    private static final BigDecimal MAX_DEBT_RATIO = new BigDecimal("0.50");   // 50%
+    private static final int MIN_EMPLOYMENT_YEARS = 1;
+    private static final int MAX_AGE_AT_END = 75;
+    private static final int AGE_MARGIN = 5;
+
+    private static final Map<ApplicationEntity.PropertyType, BigDecimal> MAX_FINANCING_PERCENTAGE =
+            new EnumMap<>(Map.of(
+                    ApplicationEntity.PropertyType.FIRST_HOME, new BigDecimal("0.80"),   // 80%
+                    ApplicationEntity.PropertyType.SECOND_HOME, new BigDecimal("0.70"),  // 70%
+                    ApplicationEntity.PropertyType.COMMERCIAL, new BigDecimal("0.60"),   // 60%
+                    ApplicationEntity.PropertyType.REMODELING, new BigDecimal("0.50")    // 50%
+            ));
+
+    // La cuota que reciben las reglas se calcula con estos tres datos
+    private static void appendPaymentInputs(ApplicationEntity application, Consumer<Object> input) {
+        input.accept(application.getRequestedAmount());
+        input.accept(application.getInterestRate());
+        input.accept(application.getTerm());
+    }
+
+    private final String code;
+    private final EvaluationDetail passedDetail;
+    private final EvaluationDetail failedDetail;
+
+    DefaultCreditRule(String code, String name, String description) {
+        this.code = code;
+        this.passedDetail = new EvaluationDetail(name, true, description);
+        this.failedDetail = new EvaluationDetail(name, false, description);
+    }
+
+    @Override
+    public String getCode() {
+        return code;
+    }
+
+    @Override
+    public EvaluationDetail getPassedDetail() {
+        return passedDetail;
+    }
+
+    @Override
+    public EvaluationDetail getFailedDetail() {
+        return failedDetail;
+    }
+}
@@ -0,0 +1,123 @@
+package com.prestabanco.services.rules;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.SavingsEntity;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+// Subcriterios R71–R75 de la regla de capacidad de ahorro, en orden de evaluación
+public enum SavingsCriterion {
+
+    // R71: Saldo Mínimo (10% del monto solicitado)
+    MINIMUM_BALANCE("R71") {
+        @Override
+        public boolean test(SavingsEntity savings, ApplicationEntity application) {
+            BigDecimal minBalance = application.getRequestedAmount().multiply(TEN_PERCENT);
+            return savings.getCurrentBalance().compareTo(minBalance) >= 0;
+        }
+
+        @Override
+        public void appendInputs(SavingsEntity savings, ApplicationEntity application, Consumer<Object> input) {
+            input.accept(savings.getCurrentBalance());
+            input.accept(application.getRequestedAmount());
+        }
+    },
+
+    // R72: Historial de Ahorro Consistente
+    CONSISTENT_HISTORY("R72") {
+        @Override
+        public boolean test(SavingsEntity savings, ApplicationEntity application) {
+            return savings.getConsecutiveMonthsWithBalance() != null &&
+                    savings.getSignificantWithdrawalsCount() != null &&
+                    savings.getConsecutiveMonthsWithBalance() >= 12 &&
+                    savings.getSignificantWithdrawalsCount() == 0;
+        }
+
+        @Override
+        public void appendInputs(SavingsEntity savings, ApplicationEntity application, Consumer<Object> input) {
+            input.accept(savings.getConsecutiveMonthsWithBalance());
+            input.accept(savings.getSignificantWithdrawalsCount());
+        }
+    },
+
+    // R73: Depósitos Periódicos (5% del ingreso mensual)
+    PERIODIC_DEPOSITS("R73") {
+        @Override
+        public boolean test(SavingsEntity savings, ApplicationEntity application) {
+            BigDecimal minMonthlyDeposit = application.getMonthlyIncome().multiply(FIVE_PERCENT);
+            return savings.getMonthlyDepositsAmount().compareTo(minMonthlyDeposit) >= 0;
+        }
+
+        @Override
+        public void appendInputs(SavingsEntity savings, ApplicationEntity application, Consumer<Object> input) {
+            input.accept(savings.getMonthlyDepositsAmount());
+            input.accept(application.getMonthlyIncome());
+        }
+    },
+
+    // R74: Relación Saldo/Años
+    BALANCE_SENIORITY("R74") {
+        @Override
+        public boolean test(SavingsEntity savings, ApplicationEntity application) {
+            if (savings.getConsecutiveMonthsWithBalance() == null) {
+                return false;
+            }
+            BigDecimal requiredPercentage = savings.getConsecutiveMonthsWithBalance() < 24 ?
+                    TWENTY_PERCENT : TEN_PERCENT;
+            BigDecimal requiredBalance = application.getRequestedAmount().multiply(requiredPercentage);
+            return savings.getCurrentBalance().compareTo(requiredBalance) >= 0;
+        }
+
+        @Override
+        public void appendInputs(SavingsEntity savings, ApplicationEntity application, Consumer<Object> input) {
+            input.accept(savings.getConsecutiveMonthsWithBalance());
+            input.accept(savings.getCurrentBalance());
+            input.accept(application.getRequestedAmount());
+        }
+    },
+
+    // R75: Retiros Recientes (no más del 30% del saldo)
+    RECENT_WITHDRAWALS("R75") {
+        @Override
+        public boolean test(SavingsEntity savings, ApplicationEntity application) {
+            BigDecimal maxWithdrawal = savings.getCurrentBalance().multiply(THIRTY_PERCENT);
+            return savings.getLargestWithdrawalLast6Months().compareTo(maxWithdrawal) <= 0;
+        }
+
+        @Override
+        public void appendInputs(SavingsEntity savings, ApplicationEntity application, Consumer<Object> input) {
+            input.accept(savings.getCurrentBalance());
+            input.accept(savings.getLargestWithdrawalLast6Months());
+        }
+    };
+
+    // Cantidad mínima de subcriterios que deben cumplirse
+    public static final int REQUIRED_CRITERIA = 3;
+
+    private static final BigDecimal FIVE_PERCENT = new BigDecimal("0.05");
+    private static final BigDecimal TEN_PERCENT = new BigDecimal("0.10");
+    private static final BigDecimal TWENTY_PERCENT = new BigDecimal("0.20");
+    private static final BigDecimal THIRTY_PERCENT = new BigDecimal("0.30");
+
+    private static final SavingsCriterion[] VALUES = values();
+
+    private final String code;
+
+    SavingsCriterion(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public abstract boolean test(SavingsEntity savings, ApplicationEntity application);
+
+    // Datos que lee test, para la huella de los resultados guardados (ver CreditRule.appendInputs)
+    public abstract void appendInputs(SavingsEntity savings, ApplicationEntity application, Consumer<Object> input);
+
+    static SavingsCriterion[] ordered() {
+        return VALUES;
+    }
+}
@@ -0,0 +1,100 @@
+package db.migration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.services.ContentAddressedStore;
+import com.prestabanco.services.ContentAddressedStore.StoredContent;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Mueve los documentos guardados en applications.documents (JSON con el contenido en base64)
+ * al almacén en disco, crea sus filas en documents y elimina la columna. Si algún JSON no se
+ * puede leer la migración falla sin borrar nada, para corregir el dato y volver a ejecutarla.
+ */
+public class V4__move_documents_out_of_row extends BaseJavaMigration {
+
+    // Definido en spring.flyway.placeholders.documents-dir (mismo directorio que usa la aplicación)
+    static final String DOCUMENTS_DIR_PLACEHOLDER = "documents-dir";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        ObjectMapper objectMapper = new ObjectMapper();
+        ContentAddressedStore store = null;
+        Timestamp migratedAt = Timestamp.valueOf(LocalDateTime.now());
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, documents FROM applications WHERE documents IS NOT NULL ORDER BY id");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO documents (application_id, document_type, file_name, content_type, "
+                             + "file_size, content_hash, uploaded_at) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            // Las filas pueden ser grandes: se leen de a pocas
+            select.setFetchSize(16);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    long applicationId = rows.getLong(1);
+                    JsonNode documents = objectMapper.readTree(rows.getString(2));
+                    Iterator<Map.Entry<String, JsonNode>> fields = documents.fields();
+                    while (fields.hasNext()) {
+                        Map.Entry<String, JsonNode> field = fields.next();
+                        String content = field.getValue().path("content").asText("");
+                        if (content.isEmpty()) {
+                            continue;
+                        }
+                        if (store == null) {
+                            store = new ContentAddressedStore(Path.of(documentsDir(context)));
+                        }
+
+                        StoredContent stored;
+                        try (InputStream decoded = decode(content)) {
+                            stored = store.store(decoded);
+                        }
+                        insert.setLong(1, applicationId);
+                        insert.setString(2, field.getKey());
+                        insert.setString(3, textOrNull(field.getValue().path("name")));
+                        insert.setString(4, textOrNull(field.getValue().path("type")));
+                        insert.setLong(5, stored.getSize());
+                        insert.setString(6, stored.getHash());
+                        insert.setTimestamp(7, migratedAt);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE applications DROP COLUMN documents");
+        }
+    }
+
+    // El frontend guardaba data URLs (data:application/pdf;base64,....)
+    private static InputStream decode(String content) {
+        String base64 = content.startsWith("data:") ? content.substring(content.indexOf(',') + 1) : content;
+        return Base64.getMimeDecoder().wrap(new ByteArrayInputStream(base64.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node.isMissingNode() || node.isNull() ? null : node.asText();
+    }
+
+    private static String documentsDir(Context context) {
+        String dir = context.getConfiguration().getPlaceholders().get(DOCUMENTS_DIR_PLACEHOLDER);
+        return dir == null || dir.isBlank() ? "data/documents" : dir;
+    }
+}
@@ -0,0 +1,51 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Cambia los ids de users, savings y applications de IDENTITY a secuencias que avanzan de a
+ * 50, para que Hibernate reserve un bloque de ids por llamada (pooled-lo) y pueda agrupar los
+ * INSERT en batch. Cada secuencia parte después del mayor id existente y pasa a ser el valor
+ * por defecto de la columna, así un INSERT sin id (SQL a mano, COPY) tampoco choca con los
+ * bloques ya entregados: consume un bloque completo.
+ */
+public class V5__sequence_ids extends BaseJavaMigration {
+
+    // Debe coincidir con allocationSize de las entidades
+    static final int INCREMENT = 50;
+
+    private static final List<String> TABLES = List.of("users", "savings", "applications");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                String sequence = table + "_seq";
+                long start;
+                try (ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    max.next();
+                    start = max.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE " + sequence + " START WITH " + start + " INCREMENT BY " + INCREMENT);
+                if (postgres) {
+                    // Las bases creadas por ddl-auto con Hibernate 5 usaban bigserial y no tienen identidad
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+                    statement.execute("ALTER SEQUENCE " + sequence + " OWNED BY " + table + ".id");
+                } else {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT NEXT VALUE FOR " + sequence);
+                }
+            }
+        }
+    }
+}
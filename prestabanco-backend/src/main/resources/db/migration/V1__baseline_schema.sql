@@ -0,0 +1,62 @@
+-- Esquema existente al pasar a migraciones versionadas (antes lo generaba Hibernate con ddl-auto=update).
+-- En bases ya creadas esta versión no se ejecuta: Flyway la marca como línea base (baseline-on-migrate).
+-- Los enums se guardan como ordinal.
+
+CREATE TABLE users (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rut          VARCHAR(255),
+    first_name   VARCHAR(255),
+    last_name    VARCHAR(255),
+    email        VARCHAR(255),
+    password     VARCHAR(255),
+    phone_number VARCHAR(255),
+    age          INTEGER,
+    role         SMALLINT
+);
+
+CREATE TABLE applications (
+    id                     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id                BIGINT REFERENCES users (id),
+    property_type          SMALLINT,
+    requested_amount       NUMERIC(38, 2),
+    term                   INTEGER,
+    interest_rate          NUMERIC(38, 2),
+    status                 SMALLINT,
+    monthly_income         NUMERIC(38, 2),
+    employment_years       INTEGER,
+    current_debt           NUMERIC(38, 2),
+    property_value         NUMERIC(38, 2),
+    documentation_complete BOOLEAN,
+    documents              TEXT
+);
+
+CREATE TABLE loans (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id            BIGINT REFERENCES users (id),
+    property_type      SMALLINT,
+    requested_amount   NUMERIC(38, 2),
+    term               INTEGER,
+    interest_rate      NUMERIC(38, 2),
+    monthly_payment    NUMERIC(38, 2),
+    insurance_cost     NUMERIC(38, 2),
+    administrative_fee NUMERIC(38, 2),
+    total_cost         NUMERIC(38, 2),
+    simulation_date    TIMESTAMP(6)
+);
+
+CREATE TABLE savings (
+    id                              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id                         BIGINT REFERENCES users (id),
+    account_number                  VARCHAR(255),
+    current_balance                 NUMERIC(38, 2),
+    opening_date                    TIMESTAMP(6),
+    last_transaction_date           TIMESTAMP(6),
+    monthly_deposits_count          INTEGER,
+    monthly_deposits_amount         NUMERIC(38, 2),
+    largest_withdrawal_last6months  NUMERIC(38, 2),
+    largest_withdrawal_date         TIMESTAMP(6),
+    consecutive_months_with_balance INTEGER,
+    significant_withdrawals_count   INTEGER,
+    last_six_months_average_balance NUMERIC(38, 2),
+    meets_savings_criteria          BOOLEAN
+);
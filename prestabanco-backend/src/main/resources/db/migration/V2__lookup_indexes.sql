@@ -0,0 +1,16 @@
+-- Índices para las búsquedas de los repositorios, que hasta ahora recorrían la tabla completa.
+
+-- ApplicationRepository.findByUserId / findSummariesByUserId
+CREATE INDEX idx_applications_user_id ON applications (user_id);
+
+-- LoanRepository.findByUserId y findByUserIdAndPropertyType: el prefijo user_id sirve a ambas
+CREATE INDEX idx_loans_user_id_property_type ON loans (user_id, property_type);
+
+-- SavingsRepository.findByUserId / findByUserIdIn
+CREATE INDEX idx_savings_user_id ON savings (user_id);
+
+-- Búsquedas por número de cuenta, correo y RUT; la restricción única crea su propio índice.
+-- Falla si ya existen duplicados: deben corregirse antes de aplicar esta versión.
+ALTER TABLE savings ADD CONSTRAINT uk_savings_account_number UNIQUE (account_number);
+ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
+ALTER TABLE users ADD CONSTRAINT uk_users_rut UNIQUE (rut);
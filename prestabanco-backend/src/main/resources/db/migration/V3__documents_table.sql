@@ -0,0 +1,17 @@
+-- Metadatos de los documentos adjuntos. El contenido se guarda en disco, direccionado por su SHA-256.
+
+CREATE TABLE documents (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    application_id BIGINT       NOT NULL REFERENCES applications (id),
+    document_type  VARCHAR(255) NOT NULL,
+    file_name      VARCHAR(255),
+    content_type   VARCHAR(255),
+    file_size      BIGINT,
+    content_hash   VARCHAR(64)  NOT NULL,
+    uploaded_at    TIMESTAMP(6),
+    -- Un documento por tipo y solicitud; su índice también sirve a las búsquedas por application_id
+    CONSTRAINT uk_documents_application_type UNIQUE (application_id, document_type)
+);
+
+-- Antes de borrar un archivo se verifica que ningún otro documento tenga el mismo contenido
+CREATE INDEX idx_documents_content_hash ON documents (content_hash);
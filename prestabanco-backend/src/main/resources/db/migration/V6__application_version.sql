@@ -0,0 +1,4 @@
+-- Versión para el bloqueo optimista de las solicitudes: cada cambio de estado o edición la incrementa
+-- y un UPDATE con una versión anterior no modifica ninguna fila.
+
+ALTER TABLE applications ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
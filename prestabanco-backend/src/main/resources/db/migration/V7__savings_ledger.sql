@@ -0,0 +1,31 @@
+-- Libro de movimientos de las cuentas de ahorro. Los movimientos solo se agregan; los campos
+-- derivados de savings se actualizan con cada uno a partir de un resumen por mes, sin volver a
+-- leer la historia. Los tipos se guardan como ordinal (0 depósito, 1 retiro, 2 saldo de apertura).
+
+CREATE TABLE savings_transactions (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    savings_id       BIGINT         NOT NULL REFERENCES savings (id) ON DELETE CASCADE,
+    transaction_type SMALLINT       NOT NULL,
+    amount           NUMERIC(38, 2) NOT NULL,
+    balance_after    NUMERIC(38, 2) NOT NULL,
+    occurred_at      TIMESTAMP(6)   NOT NULL
+);
+
+-- La reconstrucción recorre el libro en este orden
+CREATE INDEX idx_savings_transactions_savings_id_occurred_at ON savings_transactions (savings_id, occurred_at, id);
+
+-- Un resumen por cuenta y mes con movimientos; month_start es el primer día del mes
+CREATE TABLE savings_ledger_months (
+    savings_id              BIGINT         NOT NULL REFERENCES savings (id) ON DELETE CASCADE,
+    month_start             DATE           NOT NULL,
+    deposits_count          INTEGER        NOT NULL,
+    deposits_amount         NUMERIC(38, 2) NOT NULL,
+    largest_withdrawal      NUMERIC(38, 2) NOT NULL,
+    largest_withdrawal_date TIMESTAMP(6),
+    significant_withdrawals INTEGER        NOT NULL,
+    closing_balance         NUMERIC(38, 2) NOT NULL,
+    PRIMARY KEY (savings_id, month_start)
+);
+
+-- Primer mes de la racha de saldo positivo; solo lo usa el libro, la entidad no lo mapea
+ALTER TABLE savings ADD COLUMN balance_positive_since DATE;
@@ -0,0 +1,14 @@
+-- Resultados de evaluación crediticia guardados por huella de los datos de entrada. La tabla no
+-- existía en el esquema de línea base, así que las bases marcadas como V1 la reciben aquí.
+
+CREATE TABLE credit_evaluations (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    application_id BIGINT      NOT NULL UNIQUE,
+    fingerprint    VARCHAR(64) NOT NULL,
+    policy_version VARCHAR(255),
+    mode           VARCHAR(255),
+    approved       BOOLEAN,
+    message        VARCHAR(255),
+    details        TEXT,
+    evaluated_at   TIMESTAMP(6)
+);
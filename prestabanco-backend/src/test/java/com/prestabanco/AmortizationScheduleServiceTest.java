@@ -0,0 +1,115 @@
+package com.prestabanco;
+
+import com.prestabanco.services.AmortizationScheduleService;
+import com.prestabanco.services.AmortizationScheduleService.ScheduleFormat;
+import com.prestabanco.services.LoanCalculatorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class AmortizationScheduleServiceTest {
+
+    @Spy
+    private LoanCalculatorService calculatorService = new LoanCalculatorService();
+
+    @InjectMocks
+    private AmortizationScheduleService scheduleService;
+
+    @Test
+    void forEachScheduleRow_ShouldAmortizeFullPrincipal() {
+        BigDecimal loanAmount = new BigDecimal("50000000");
+        AtomicReference<BigDecimal> totalPrincipal = new AtomicReference<>(BigDecimal.ZERO);
+        AtomicReference<BigDecimal> lastBalance = new AtomicReference<>();
+        AtomicInteger rows = new AtomicInteger();
+
+        calculatorService.forEachScheduleRow(loanAmount, new BigDecimal("5.5"), 30, row -> {
+            rows.incrementAndGet();
+            totalPrincipal.set(totalPrincipal.get().add(row.getPrincipal()));
+            lastBalance.set(row.getRemainingBalance());
+            assertEquals(new BigDecimal("20000"), row.getFee());
+            assertEquals(row.getPayment(), row.getInterest().add(row.getPrincipal()));
+        });
+
+        assertEquals(360, rows.get());
+        assertEquals(0, loanAmount.compareTo(totalPrincipal.get()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(lastBalance.get()));
+    }
+
+    @Test
+    void forEachScheduleRow_FirstRowShouldUseMonthlyPayment() {
+        BigDecimal loanAmount = new BigDecimal("30000000");
+        BigDecimal rate = new BigDecimal("6.0");
+        BigDecimal expectedPayment = calculatorService.calculateMonthlyPayment(loanAmount, rate, 15);
+        AtomicReference<LoanCalculatorService.AmortizationRow> first = new AtomicReference<>();
+
+        calculatorService.forEachScheduleRow(loanAmount, rate, 15, row -> {
+            if (row.getMonth() == 1) {
+                first.set(row);
+            }
+        });
+
+        assertEquals(expectedPayment, first.get().getPayment());
+        assertEquals(new BigDecimal("150000"), first.get().getInterest());
+        assertEquals(new BigDecimal("9000"), first.get().getLifeInsurance());
+    }
+
+    @Test
+    void writeSchedule_AsCsv_ShouldWriteHeaderAndOneLinePerMonth() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        scheduleService.writeSchedule(new BigDecimal("10000000"), new BigDecimal("7.0"), 5,
+                ScheduleFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(61, lines.length);
+        assertTrue(lines[0].startsWith("month,payment,interest"));
+        assertTrue(lines[1].startsWith("1,"));
+        assertTrue(lines[60].endsWith(",0"));
+    }
+
+    @Test
+    void writeSchedule_AsNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        scheduleService.writeSchedule(new BigDecimal("10000000"), new BigDecimal("7.0"), 5,
+                ScheduleFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(60, lines.length);
+        assertTrue(lines[0].startsWith("{\"month\":1,"));
+        assertTrue(lines[59].endsWith("\"remainingBalance\":0}"));
+    }
+
+    @Test
+    void writeSchedule_WithOutOfRangeValues_ShouldThrowBeforeWriting() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.writeSchedule(
+                new BigDecimal("10000000"), new BigDecimal("7.0"), 0, ScheduleFormat.CSV, output));
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.writeSchedule(
+                new BigDecimal("10000000"), BigDecimal.ZERO, 5, ScheduleFormat.CSV, output));
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.writeSchedule(
+                new BigDecimal("10000000"), new BigDecimal("7.0"), AmortizationScheduleService.MAX_YEARS + 1,
+                ScheduleFormat.CSV, output));
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.writeSchedule(
+                new BigDecimal("-1"), new BigDecimal("7.0"), 5, ScheduleFormat.CSV, output));
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void scheduleFormat_WithUnknownValue_ShouldThrowException() {
+        assertEquals(ScheduleFormat.CSV, ScheduleFormat.from("csv"));
+        assertThrows(IllegalArgumentException.class, () -> ScheduleFormat.from("xml"));
+    }
+}
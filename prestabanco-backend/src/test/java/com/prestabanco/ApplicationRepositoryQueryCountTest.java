@@ -0,0 +1,120 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.services.ApplicationService;
+import com.prestabanco.services.ApplicationStatusCounters;
+import com.prestabanco.services.ColumnPatcher;
+import com.prestabanco.services.DocumentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Cuenta las sentencias SQL emitidas para que /evaluate no vuelva a hacer N consultas
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ApplicationService.class, ApplicationStatusCounters.class, ColumnPatcher.class})
+class ApplicationRepositoryQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    // ApplicationService lo usa solo al borrar solicitudes
+    @MockBean
+    private DocumentService documentService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private ApplicationEntity persistApplication(boolean withSavings) {
+        UserEntity user = new UserEntity();
+        user.setRut("12345678-9");
+        user.setEmail("juan.perez@email.com");
+        user.setAge(35);
+        user.setRole(UserEntity.UserRole.CLIENT);
+        entityManager.persist(user);
+
+        if (withSavings) {
+            SavingsEntity savings = new SavingsEntity();
+            savings.setUser(user);
+            savings.setAccountNumber("1234567890");
+            savings.setCurrentBalance(new BigDecimal("30000"));
+            entityManager.persist(savings);
+        }
+
+        ApplicationEntity application = new ApplicationEntity();
+        application.setUser(user);
+        application.setRequestedAmount(new BigDecimal("100000000"));
+        application.setInterestRate(new BigDecimal("4.5"));
+        application.setTerm(20);
+        application.setStatus(ApplicationEntity.ApplicationStatus.IN_EVALUATION);
+        entityManager.persist(application);
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        return application;
+    }
+
+    @Test
+    void getEvaluationData_ShouldLoadApplicationUserAndSavingsInOneStatement() {
+        ApplicationEntity persisted = persistApplication(true);
+
+        Optional<ApplicationService.EvaluationData> data = applicationService.getEvaluationData(persisted.getId());
+
+        assertTrue(data.isPresent());
+        assertEquals("12345678-9", data.get().getApplication().getUser().getRut());
+        assertNotNull(data.get().getSavings());
+        assertEquals("1234567890", data.get().getSavings().getAccountNumber());
+        assertSame(data.get().getApplication().getUser(), data.get().getSavings().getUser());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getEvaluationData_WithoutSavings_ShouldStillUseOneStatement() {
+        ApplicationEntity persisted = persistApplication(false);
+
+        Optional<ApplicationService.EvaluationData> data = applicationService.getEvaluationData(persisted.getId());
+
+        assertTrue(data.isPresent());
+        assertNotNull(data.get().getApplication().getUser());
+        assertNull(data.get().getSavings());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getEvaluationData_WhenNotFound_ShouldReturnEmpty() {
+        persistApplication(false);
+
+        assertTrue(applicationService.getEvaluationData(-1L).isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
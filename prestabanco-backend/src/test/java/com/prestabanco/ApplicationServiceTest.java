@@ -3,13 +3,22 @@ package com.prestabanco;
 import com.prestabanco.entities.ApplicationEntity;
 import com.prestabanco.entities.UserEntity;
 import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.CreditEvaluationRepository;
+import com.prestabanco.repositories.projections.StatusVersion;
 import com.prestabanco.services.ApplicationService;
+import com.prestabanco.services.ApplicationStatusCounters;
+import com.prestabanco.services.ApplicationStatusTransitions;
+import com.prestabanco.services.DocumentService;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -26,6 +35,15 @@ public class ApplicationServiceTest {
     @Mock
     private ApplicationRepository applicationRepository;
 
+    @Mock
+    private CreditEvaluationRepository evaluationRepository;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private ApplicationStatusCounters statusCounters;
+
     @InjectMocks
     private ApplicationService applicationService;
 
@@ -68,6 +86,7 @@ public class ApplicationServiceTest {
         assertEquals(0, testApplication.getRequestedAmount().compareTo(result.getRequestedAmount()));
         assertEquals(testApplication.getTerm(), result.getTerm());
         verify(applicationRepository).save(testApplication);
+        verify(statusCounters).created(ApplicationEntity.ApplicationStatus.IN_REVIEW);
     }
 
     @Test
@@ -97,12 +116,18 @@ public class ApplicationServiceTest {
         assertEquals(testApplication.getUser().getId(), result.get(0).getUser().getId());
     }
 
+    private void stubCurrent(ApplicationEntity.ApplicationStatus status, long version) {
+        when(applicationRepository.findStatusAndVersionById(1L))
+                .thenReturn(Optional.of(new StatusVersion(status, version)));
+    }
+
     @Test
     void updateApplication_ShouldUpdateAllFields() {
         // Modificar algunos campos para la actualización
         testApplication.setRequestedAmount(new BigDecimal("300000.00"));
         testApplication.setTerm(360); // 30 años
         testApplication.setDocumentationComplete(true);
+        stubCurrent(ApplicationEntity.ApplicationStatus.IN_REVIEW, 4L);
 
         when(applicationRepository.save(any(ApplicationEntity.class)))
                 .thenReturn(testApplication);
@@ -113,67 +138,161 @@ public class ApplicationServiceTest {
         assertEquals(0, new BigDecimal("300000.00").compareTo(result.getRequestedAmount()));
         assertEquals(360, result.getTerm());
         assertTrue(result.getDocumentationComplete());
+        // Sin versión en el cuerpo se guarda con la actual
+        assertEquals(4L, result.getVersion());
         verify(applicationRepository).save(testApplication);
+        verify(evaluationRepository).deleteByApplicationId(1L);
     }
 
     @Test
-    void updateStatus_WhenApplicationExists_ShouldUpdateStatus() {
-        String newStatus = "PRE_APPROVED";
-        ApplicationEntity updatedApplication = new ApplicationEntity();
-        updatedApplication.setId(1L);
-        updatedApplication.setStatus(ApplicationEntity.ApplicationStatus.PRE_APPROVED);
+    void updateApplication_WhenStatusChanges_ShouldMoveStatusCounter() {
+        stubCurrent(ApplicationEntity.ApplicationStatus.PENDING_DOCUMENTS, 0L);
+        when(applicationRepository.save(testApplication)).thenReturn(testApplication);
 
-        when(applicationRepository.findById(1L))
-                .thenReturn(Optional.of(testApplication));
-        when(applicationRepository.save(any(ApplicationEntity.class)))
-                .thenReturn(updatedApplication);
+        applicationService.updateApplication(testApplication);
 
-        ApplicationEntity result = applicationService.updateStatus(1L, newStatus);
+        verify(statusCounters).changed(ApplicationEntity.ApplicationStatus.PENDING_DOCUMENTS,
+                ApplicationEntity.ApplicationStatus.IN_REVIEW);
+    }
 
-        assertNotNull(result);
-        assertEquals(ApplicationEntity.ApplicationStatus.PRE_APPROVED, result.getStatus());
-        verify(applicationRepository).save(any(ApplicationEntity.class));
+    @Test
+    void updateApplication_WithForbiddenStatusChange_ShouldNotSave() {
+        stubCurrent(ApplicationEntity.ApplicationStatus.REJECTED, 2L);
+
+        assertThrows(IllegalStateException.class, () -> applicationService.updateApplication(testApplication));
+        verify(applicationRepository, never()).save(any());
     }
 
     @Test
-    void updateStatus_WithAllPossibleStatuses() {
-        for (ApplicationEntity.ApplicationStatus status : ApplicationEntity.ApplicationStatus.values()) {
-            when(applicationRepository.findById(1L))
-                    .thenReturn(Optional.of(testApplication));
-            when(applicationRepository.save(any(ApplicationEntity.class)))
-                    .thenReturn(testApplication);
+    void updateApplication_WhenNotFound_ShouldThrowException() {
+        assertThrows(EntityNotFoundException.class, () -> applicationService.updateApplication(testApplication));
+        verify(applicationRepository, never()).save(any());
+    }
+
+    @Test
+    void updateStatus_WhenApplicationExists_ShouldRunOneConditionalUpdate() {
+        stubCurrent(ApplicationEntity.ApplicationStatus.IN_REVIEW, 3L);
+        when(applicationRepository.updateStatusIfUnchanged(1L, ApplicationEntity.ApplicationStatus.IN_REVIEW,
+                ApplicationEntity.ApplicationStatus.IN_EVALUATION, 3L)).thenReturn(1);
+
+        ApplicationService.StatusChange result = applicationService.updateStatus(1L, "IN_EVALUATION");
+
+        assertEquals(ApplicationEntity.ApplicationStatus.IN_REVIEW, result.getPreviousStatus());
+        assertEquals(ApplicationEntity.ApplicationStatus.IN_EVALUATION, result.getStatus());
+        assertEquals(4L, result.getVersion());
+        verify(applicationRepository, never()).findById(any());
+        verify(applicationRepository, never()).save(any());
+        verify(evaluationRepository).deleteByApplicationId(1L);
+        verify(statusCounters).changed(ApplicationEntity.ApplicationStatus.IN_REVIEW,
+                ApplicationEntity.ApplicationStatus.IN_EVALUATION);
+    }
+
+    @Test
+    void updateStatus_WithExpectedStatusAndVersion_ShouldNotReadFirst() {
+        when(applicationRepository.updateStatusIfUnchanged(1L, ApplicationEntity.ApplicationStatus.FINAL_APPROVAL,
+                ApplicationEntity.ApplicationStatus.APPROVED, 7L)).thenReturn(1);
 
-            ApplicationEntity result = applicationService.updateStatus(1L, status.name());
+        ApplicationService.StatusChange result = applicationService.updateStatus(1L, "APPROVED", "FINAL_APPROVAL", 7L);
 
-            assertNotNull(result);
-            verify(applicationRepository, atLeastOnce()).save(any(ApplicationEntity.class));
+        assertEquals(8L, result.getVersion());
+        verify(applicationRepository, never()).findStatusAndVersionById(any());
+    }
+
+    @Test
+    void updateStatus_WhenUpdateMatchesNoRow_ShouldReportConcurrentChange() {
+        when(applicationRepository.updateStatusIfUnchanged(1L, ApplicationEntity.ApplicationStatus.FINAL_APPROVAL,
+                ApplicationEntity.ApplicationStatus.APPROVED, 7L)).thenReturn(0);
+        stubCurrent(ApplicationEntity.ApplicationStatus.REJECTED, 8L);
+
+        OptimisticLockingFailureException e = assertThrows(OptimisticLockingFailureException.class,
+                () -> applicationService.updateStatus(1L, "APPROVED", "FINAL_APPROVAL", 7L));
+
+        assertTrue(e.getMessage().contains("REJECTED (versión 8)"), e.getMessage());
+        verify(evaluationRepository, never()).deleteByApplicationId(any());
+        verifyNoInteractions(statusCounters);
+    }
+
+    @Test
+    void updateStatus_WithStaleVersion_ShouldFailBeforeUpdating() {
+        stubCurrent(ApplicationEntity.ApplicationStatus.IN_EVALUATION, 5L);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> applicationService.updateStatus(1L, "PRE_APPROVED", null, 4L));
+        verify(applicationRepository, never()).updateStatusIfUnchanged(any(), any(), any(), any());
+    }
+
+    @Test
+    void updateStatus_ShouldFollowTransitionTable() {
+        for (ApplicationEntity.ApplicationStatus from : ApplicationEntity.ApplicationStatus.values()) {
+            for (ApplicationEntity.ApplicationStatus to : ApplicationEntity.ApplicationStatus.values()) {
+                if (from == to) {
+                    assertEquals(0L, applicationService.updateStatus(1L, to.name(), from.name(), 0L).getVersion());
+                } else if (ApplicationStatusTransitions.isAllowed(from, to)) {
+                    when(applicationRepository.updateStatusIfUnchanged(1L, from, to, 0L)).thenReturn(1);
+                    assertEquals(to, applicationService.updateStatus(1L, to.name(), from.name(), 0L).getStatus());
+                } else {
+                    assertThrows(IllegalStateException.class,
+                            () -> applicationService.updateStatus(1L, to.name(), from.name(), 0L));
+                }
+            }
         }
+        // Los estados finales no tienen salida
+        assertFalse(ApplicationStatusTransitions.isAllowed(ApplicationEntity.ApplicationStatus.REJECTED,
+                ApplicationEntity.ApplicationStatus.IN_REVIEW));
+        assertTrue(ApplicationStatusTransitions.isAllowed(ApplicationEntity.ApplicationStatus.PRE_APPROVED,
+                ApplicationEntity.ApplicationStatus.IN_EVALUATION));
     }
 
     @Test
     void updateStatus_WhenApplicationNotFound_ShouldThrowException() {
-        when(applicationRepository.findById(999L))
+        when(applicationRepository.findStatusAndVersionById(999L))
                 .thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class, () ->
+        assertThrows(EntityNotFoundException.class, () ->
                 applicationService.updateStatus(999L, "APPROVED")
         );
     }
 
     @Test
     void updateStatus_WithInvalidStatus_ShouldThrowException() {
-        when(applicationRepository.findById(1L))
-                .thenReturn(Optional.of(testApplication));
-
-        assertThrows(RuntimeException.class, () ->
+        assertThrows(IllegalArgumentException.class, () ->
                 applicationService.updateStatus(1L, "INVALID_STATUS")
         );
+        verifyNoInteractions(applicationRepository);
     }
 
     @Test
     void deleteApplication_ShouldCallRepository() {
         applicationService.deleteApplication(1L);
         verify(applicationRepository).deleteById(1L);
+        verify(evaluationRepository).deleteByApplicationId(1L);
+        verify(documentService).deleteByApplicationId(1L);
+        verify(statusCounters, never()).deleted(any());
+    }
+
+    @Test
+    void deleteApplication_WhenExists_ShouldDecrementStatusCounter() {
+        stubCurrent(ApplicationEntity.ApplicationStatus.APPROVED, 1L);
+
+        applicationService.deleteApplication(1L);
+
+        verify(applicationRepository).deleteById(1L);
+        verify(statusCounters).deleted(ApplicationEntity.ApplicationStatus.APPROVED);
+    }
+
+    @Test
+    void deleteApplication_InTransaction_ShouldDecrementStatusCounterOnlyAfterCommit() {
+        stubCurrent(ApplicationEntity.ApplicationStatus.APPROVED, 1L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            applicationService.deleteApplication(1L);
+            verify(statusCounters, never()).deleted(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(statusCounters).deleted(ApplicationEntity.ApplicationStatus.APPROVED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -206,6 +325,7 @@ public class ApplicationServiceTest {
     @Test
     void updateApplication_WithNegativeValues_ShouldSaveSuccessfully() {
         testApplication.setRequestedAmount(new BigDecimal("-1000.00")); // Valor negativo para probar
+        stubCurrent(ApplicationEntity.ApplicationStatus.IN_REVIEW, 0L);
         when(applicationRepository.save(any(ApplicationEntity.class)))
                 .thenReturn(testApplication);
 
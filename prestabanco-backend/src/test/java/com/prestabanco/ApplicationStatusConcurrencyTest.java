@@ -0,0 +1,171 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.projections.StatusVersion;
+import com.prestabanco.services.ApplicationService;
+import com.prestabanco.services.ApplicationStatusCounters;
+import com.prestabanco.services.ColumnPatcher;
+import com.prestabanco.services.DocumentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Muchos hilos cambian el estado de la misma solicitud a la vez; cada cambio corre en su propia transacción
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ApplicationService.class, ApplicationStatusCounters.class, ColumnPatcher.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ApplicationStatusConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private ApplicationStatusCounters statusCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ApplicationService lo usa solo al borrar solicitudes
+    @MockBean
+    private DocumentService documentService;
+
+    private ExecutorService executor;
+    private long applicationId;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        jdbcTemplate.update("insert into users (rut, email) values ('12345678-9', 'juan.perez@email.com')");
+        long userId = jdbcTemplate.queryForObject("select id from users", Long.class);
+        jdbcTemplate.update("insert into applications (user_id, status, property_type, requested_amount, term, "
+                + "interest_rate) values (?, ?, 0, 100000000, 20, 4.5)", userId, ApplicationStatus.IN_REVIEW.ordinal());
+        applicationId = jdbcTemplate.queryForObject("select id from applications", Long.class);
+        statusCounters.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        jdbcTemplate.update("delete from applications");
+        jdbcTemplate.update("delete from users");
+    }
+
+    // Todas las tareas esperan la misma señal para chocar en la base al mismo tiempo
+    private <T> List<T> race(List<Callable<T>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    @Test
+    void updateStatus_WhenManyExecutivesRaceFromTheSameVersion_ShouldApplyExactlyOne() throws Exception {
+        ApplicationStatus[] targets = {ApplicationStatus.PENDING_DOCUMENTS, ApplicationStatus.IN_EVALUATION,
+                ApplicationStatus.REJECTED, ApplicationStatus.CANCELLED};
+        List<Callable<ApplicationStatus>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            ApplicationStatus target = targets[i % targets.length];
+            tasks.add(() -> {
+                try {
+                    return applicationService.updateStatus(applicationId, target.name(), "IN_REVIEW", 0L).getStatus();
+                } catch (OptimisticLockingFailureException e) {
+                    return null;
+                }
+            });
+        }
+
+        List<ApplicationStatus> applied = race(tasks).stream().filter(status -> status != null).toList();
+
+        assertEquals(1, applied.size(), "cambios aplicados: " + applied);
+        StatusVersion stored = applicationRepository.findStatusAndVersionById(applicationId).orElseThrow();
+        assertEquals(applied.get(0), stored.status());
+        assertEquals(1L, stored.version());
+        assertEquals(0, statusCounters.get(ApplicationStatus.IN_REVIEW));
+        assertEquals(1, statusCounters.get(applied.get(0)));
+    }
+
+    @Test
+    void updateStatus_WhenThreadsToggleConcurrently_ShouldNotLoseAnyUpdate() throws Exception {
+        jdbcTemplate.update("update applications set status = ?", ApplicationStatus.IN_EVALUATION.ordinal());
+        statusCounters.reconcile();
+        int attempts = 25;
+        AtomicInteger conflicts = new AtomicInteger();
+        ConcurrentHashMap<Long, Boolean> appliedVersions = new ConcurrentHashMap<>();
+
+        // Cada hilo lee el estado, decide el siguiente y lo pide condicionado a lo que leyó
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> {
+                int applied = 0;
+                for (int attempt = 0; attempt < attempts; attempt++) {
+                    StatusVersion seen = applicationRepository.findStatusAndVersionById(applicationId).orElseThrow();
+                    ApplicationStatus next = seen.status() == ApplicationStatus.IN_EVALUATION
+                            ? ApplicationStatus.PRE_APPROVED : ApplicationStatus.IN_EVALUATION;
+                    try {
+                        long version = applicationService.updateStatus(applicationId, next.name(),
+                                seen.status().name(), seen.version()).getVersion();
+                        assertNull(appliedVersions.put(version, true), "versión repetida: " + version);
+                        applied++;
+                    } catch (OptimisticLockingFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return applied;
+            });
+        }
+
+        int applied = race(tasks).stream().mapToInt(Integer::intValue).sum();
+
+        assertTrue(applied > 0);
+        assertEquals(THREADS * attempts, applied + conflicts.get());
+        // Cada cambio aplicado subió la versión exactamente una vez y el estado alterna con cada uno
+        StatusVersion stored = applicationRepository.findStatusAndVersionById(applicationId).orElseThrow();
+        assertEquals(applied, stored.version());
+        assertEquals(applied % 2 == 0 ? ApplicationStatus.IN_EVALUATION : ApplicationStatus.PRE_APPROVED,
+                stored.status());
+        assertEquals(stored.status() == ApplicationStatus.IN_EVALUATION ? 1 : 0,
+                statusCounters.get(ApplicationStatus.IN_EVALUATION));
+        assertEquals(stored.status() == ApplicationStatus.PRE_APPROVED ? 1 : 0,
+                statusCounters.get(ApplicationStatus.PRE_APPROVED));
+    }
+}
@@ -0,0 +1,111 @@
+package com.prestabanco;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.services.BatchSimulationService;
+import com.prestabanco.services.LoanCalculatorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSimulationServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoanCalculatorService calculatorService = new LoanCalculatorService();
+    private ExecutorService executor;
+    private BatchSimulationService batchSimulationService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        // Ventana pequeña para forzar el drenaje ordenado durante la lectura
+        batchSimulationService = new BatchSimulationService(calculatorService, objectMapper, executor, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private List<JsonNode> run(String input) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        batchSimulationService.simulate(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                results.add(objectMapper.readTree(line));
+            }
+        }
+        return results;
+    }
+
+    @Test
+    void simulate_WithJsonArray_ShouldReturnResultsInOrder() throws Exception {
+        StringBuilder input = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) {
+                input.append(',');
+            }
+            input.append("{\"requestedAmount\":").append(1000000 * (i + 1))
+                    .append(",\"interestRate\":5.5,\"term\":20}");
+        }
+        input.append(']');
+
+        List<JsonNode> results = run(input.toString());
+
+        assertEquals(20, results.size());
+        for (int i = 0; i < 20; i++) {
+            JsonNode result = results.get(i);
+            assertEquals(i, result.get("index").asInt());
+            BigDecimal expected = calculatorService.calculateMonthlyPayment(
+                    BigDecimal.valueOf(1000000L * (i + 1)), new BigDecimal("5.5"), 20);
+            assertEquals(0, expected.compareTo(result.get("monthlyPayment").decimalValue()));
+            assertNull(result.get("error"));
+        }
+    }
+
+    @Test
+    void simulate_WithNdjsonAndInvalidItems_ShouldReportErrorsPerItem() throws Exception {
+        String input = """
+                {"requestedAmount":10000000,"interestRate":6.0,"term":15}
+                {"requestedAmount":10000000,"term":15}
+                {"requestedAmount":"abc","interestRate":6.0,"term":15}
+                {"requestedAmount":10000000,"interestRate":0,"term":15}
+                {"requestedAmount":20000000,"interestRate":6.0,"term":15}
+                """;
+
+        List<JsonNode> results = run(input);
+
+        assertEquals(5, results.size());
+        assertNotNull(results.get(0).get("monthlyPayment"));
+        assertNotNull(results.get(1).get("error"));
+        assertNotNull(results.get(2).get("error"));
+        assertNotNull(results.get(3).get("error"));
+        assertNotNull(results.get(4).get("monthlyPayment"));
+        assertEquals(4, results.get(4).get("index").asInt());
+    }
+
+    @Test
+    void simulate_WithMalformedJson_ShouldKeepCompletedResults() throws Exception {
+        String input = "[{\"requestedAmount\":10000000,\"interestRate\":6.0,\"term\":15},{\"requestedAmount\":";
+
+        List<JsonNode> results = run(input);
+
+        assertEquals(2, results.size());
+        assertNotNull(results.get(0).get("monthlyPayment"));
+        assertTrue(results.get(1).get("error").asText().startsWith("JSON inválido"));
+    }
+}
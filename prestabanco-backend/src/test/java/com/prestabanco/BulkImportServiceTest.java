@@ -0,0 +1,215 @@
+package com.prestabanco;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.services.ApplicationStatusCounters;
+import com.prestabanco.services.BulkImportService;
+import com.prestabanco.services.BulkImportService.ImportFormat;
+import com.prestabanco.services.BulkImportService.ImportMode;
+import com.prestabanco.services.BulkImportService.ImportProgress;
+import com.prestabanco.services.BulkImportService.ImportStatus;
+import com.prestabanco.services.BulkImportService.ImportTarget;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// La importación corre en su propio hilo y con sus propias transacciones: la prueba no abre una
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "prestabanco.import.chunk-size=50"
+})
+@Import({BulkImportService.class, ApplicationStatusCounters.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationStatusCounters statusCounters;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        jdbcTemplate.update("insert into users (rut, email, role) values ('11111111-1', 'existente@email.com', 0)");
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from applications");
+        jdbcTemplate.update("delete from savings");
+        jdbcTemplate.update("delete from users");
+    }
+
+    private ImportProgress importAndWait(ImportTarget target, ImportFormat format, String content) throws Exception {
+        ImportProgress started = importService.start(target, format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(ImportStatus.RUNNING, started.getStatus());
+        assertTrue(importService.awaitTermination(Duration.ofSeconds(30)));
+        return importService.getProgress();
+    }
+
+    // El reporte sigue el orden de procesamiento (los rechazos contra la base salen al cerrar cada bloque)
+    private List<JsonNode> rejections() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        importService.writeRejections(output);
+        List<JsonNode> rejections = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                rejections.add(objectMapper.readTree(line));
+            }
+        }
+        rejections.sort(Comparator.comparingLong(rejection -> rejection.get("line").asLong()));
+        return rejections;
+    }
+
+    private static String userLine(int i) {
+        return String.format("{\"rut\":\"%08d-%d\",\"email\":\"cliente%d@banco.cl\",\"firstName\":\"Cliente\","
+                + "\"age\":30}%n", 20000000 + i, i % 10, i);
+    }
+
+    @Test
+    void importUsers_Ndjson_ShouldInsertValidLinesInBatchesAndReportRejectedOnes() throws Exception {
+        StringBuilder file = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            file.append(userLine(i));
+        }
+        file.append("{\"rut\":\"12345678-9\",\"email\":\"sin-arroba\"}\n");                 // línea 121
+        file.append("{\"rut\":\"12345678-9\",\"email\":\"ok@banco.cl\"\n");                 // línea 122
+        file.append(userLine(5));                                                           // línea 123
+        file.append("{\"rut\":\"11111111-1\",\"email\":\"nuevo@banco.cl\"}\n");             // línea 124
+        file.append("{\"rut\":\"22222222-2\",\"email\":\"x@banco.cl\",\"password\":\"1\"}\n"); // línea 125
+
+        ImportProgress progress = importAndWait(ImportTarget.USERS, ImportFormat.NDJSON, file.toString());
+
+        assertEquals(ImportStatus.COMPLETED, progress.getStatus());
+        assertEquals(ImportMode.BATCH, progress.getMode());
+        assertEquals(125, progress.getLines());
+        assertEquals(120, progress.getImported());
+        assertEquals(5, progress.getRejected());
+        assertEquals(121, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+        // Los importados quedan sin contraseña utilizable
+        assertEquals(120, jdbcTemplate.queryForObject("select count(*) from users where password = ?",
+                Integer.class, UserEntity.DISABLED_PASSWORD));
+
+        List<JsonNode> rejections = rejections();
+        assertEquals(List.of(121L, 122L, 123L, 124L, 125L), rejections.stream().map(r -> r.get("line").asLong()).toList());
+        assertTrue(rejections.get(0).get("error").asText().startsWith("Correo inválido"));
+        assertTrue(rejections.get(1).get("error").asText().startsWith("JSON inválido"));
+        assertEquals("RUT repetido en el archivo (línea 6)", rejections.get(2).get("error").asText());
+        assertEquals("RUT ya registrado: 11111111-1", rejections.get(3).get("error").asText());
+        assertEquals("Campo desconocido: password", rejections.get(4).get("error").asText());
+
+        // Con ids de secuencia los 120 INSERT van en batch: unas pocas sentencias en lugar de una por fila
+        assertTrue(statistics.getPrepareStatementCount() < 20, "sentencias: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void importSavings_Csv_ShouldLinkUsersByRutAndRejectUnknownOnes() throws Exception {
+        String file = "userRut,accountNumber,currentBalance,openingDate,meetsSavingsCriteria\n"
+                + "11111111-1,\"000123\",1500000.50,2020-03-01,true\n"
+                + "99999999-9,000124,10,2021-01-01T09:30:00,false\n"
+                + "11111111-1,000123,20,,\n"
+                + "11111111-1,000125,-5,,\n"
+                + "11111111-1,000126\n";
+
+        ImportProgress progress = importAndWait(ImportTarget.SAVINGS, ImportFormat.CSV, file);
+
+        assertEquals(ImportStatus.COMPLETED, progress.getStatus());
+        assertEquals(1, progress.getImported());
+        assertEquals(4, progress.getRejected());
+        Map<String, Object> savings = jdbcTemplate.queryForMap(
+                "select s.account_number, s.current_balance, s.meets_savings_criteria, u.rut "
+                        + "from savings s join users u on u.id = s.user_id");
+        assertEquals("000123", savings.get("ACCOUNT_NUMBER"));
+        assertEquals(0, new BigDecimal("1500000.50").compareTo((BigDecimal) savings.get("CURRENT_BALANCE")));
+        assertEquals(true, savings.get("MEETS_SAVINGS_CRITERIA"));
+        assertEquals("11111111-1", savings.get("RUT"));
+
+        List<String> errors = rejections().stream().map(r -> r.get("error").asText()).toList();
+        assertEquals(List.of(
+                "No existe un usuario con RUT 99999999-9",
+                "Número de cuenta repetido en el archivo (línea 2)",
+                "currentBalance no puede ser negativo: -5",
+                "Se esperaban 5 columnas y hay 2"), errors);
+    }
+
+    @Test
+    void importApplications_WhenChunkFailsOnInsert_ShouldRetryRowByRow() throws Exception {
+        String longName = "x".repeat(300);
+        String file = "{\"userRut\":\"11111111-1\",\"propertyType\":\"FIRST_HOME\",\"requestedAmount\":100000000,"
+                + "\"term\":20,\"interestRate\":4.5}\n"
+                + "{\"userRut\":\"11111111-1\",\"propertyType\":\"first_home\",\"requestedAmount\":100000000,"
+                + "\"term\":20,\"interestRate\":4.5,\"status\":\"" + longName + "\"}\n";
+
+        long inReview = statusCounters.get(ApplicationStatus.IN_REVIEW);
+        ImportProgress progress = importAndWait(ImportTarget.APPLICATIONS, ImportFormat.NDJSON, file);
+        assertEquals(1, progress.getImported());
+        // Sin estado en el archivo la solicitud entra como IN_REVIEW y se suma a su contador
+        assertEquals(inReview + 1, statusCounters.get(ApplicationStatus.IN_REVIEW));
+        assertEquals("status no válido: " + longName, rejections().get(0).get("error").asText());
+
+        // Un RUT de 300 caracteres no pasa el formato; un nombre largo solo falla al insertar
+        String users = "{\"rut\":\"33333333-3\",\"email\":\"a@banco.cl\"}\n"
+                + "{\"rut\":\"44444444-4\",\"email\":\"b@banco.cl\",\"lastName\":\"" + longName + "\"}\n"
+                + "{\"rut\":\"55555555-5\",\"email\":\"c@banco.cl\"}\n";
+        progress = importAndWait(ImportTarget.USERS, ImportFormat.NDJSON, users);
+
+        assertEquals(ImportStatus.COMPLETED, progress.getStatus());
+        assertEquals(2, progress.getImported());
+        assertEquals(1, progress.getRejected());
+        assertEquals(2L, rejections().get(0).get("line").asLong());
+        assertEquals(List.of("11111111-1", "33333333-3", "55555555-5"),
+                jdbcTemplate.queryForList("select rut from users order by rut", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from applications", Integer.class));
+    }
+
+    @Test
+    void importCsv_WithUnknownHeaderColumn_ShouldFail() throws Exception {
+        ImportProgress progress = importAndWait(ImportTarget.USERS, ImportFormat.CSV,
+                "rut,email,clave\n12345678-9,a@banco.cl,1234\n");
+
+        assertEquals(ImportStatus.FAILED, progress.getStatus());
+        assertEquals("Columna desconocida en el encabezado: clave", progress.getError());
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+    }
+}
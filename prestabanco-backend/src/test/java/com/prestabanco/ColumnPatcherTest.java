@@ -0,0 +1,120 @@
+package com.prestabanco;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.services.ColumnPatcher;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnPatcherTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private ColumnPatcher columnPatcher;
+
+    @BeforeEach
+    void setUp() {
+        columnPatcher = new ColumnPatcher(jdbcTemplate, objectMapper, entityManagerFactory);
+    }
+
+    private ObjectNode json(String body) throws Exception {
+        return (ObjectNode) objectMapper.readTree(body);
+    }
+
+    @Test
+    void execute_ShouldWriteOnlyTheColumnsInTheBody() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
+        ColumnPatcher.ColumnPatch patch = columnPatcher.prepare(ColumnPatcher.PatchTarget.SAVINGS,
+                json("{\"accountNumber\": \"000456\", \"meetsSavingsCriteria\": null}"));
+        int updated = columnPatcher.execute(patch, 7L, null);
+
+        assertEquals(1, updated);
+        verify(jdbcTemplate).update(
+                eq("update savings set account_number = ?, meets_savings_criteria = ? where id = ?"),
+                eq("000456"), isNull(), eq(7L));
+        verify(cache).evict(SavingsEntity.class, 7L);
+    }
+
+    @Test
+    void execute_OnVersionedTable_ShouldConditionOnVersionAndBumpIt() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+
+        ColumnPatcher.ColumnPatch patch = columnPatcher.prepare(ColumnPatcher.PatchTarget.APPLICATIONS,
+                json("{\"term\": 240, \"propertyType\": \"SECOND_HOME\"}"));
+        int updated = columnPatcher.execute(patch, 3L, 5L);
+
+        assertEquals(0, updated);
+        // Los enums van por ordinal, como en la entidad
+        verify(jdbcTemplate).update(
+                eq("update applications set term = ?, property_type = ?, version = version + 1 where id = ? and version = ?"),
+                eq(240), eq(1), eq(3L), eq(5L));
+        verifyNoInteractions(entityManagerFactory);
+    }
+
+    @Test
+    void execute_WithEmptyPatch_ShouldOnlyCheckTheRowExists() throws Exception {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(0);
+
+        ColumnPatcher.ColumnPatch patch = columnPatcher.prepare(ColumnPatcher.PatchTarget.USERS, json("{}"));
+
+        assertTrue(patch.isEmpty());
+        assertEquals(0, columnPatcher.execute(patch, 9L, null));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void prepare_WithFieldOutsideTheTable_ShouldThrowException() throws Exception {
+        ObjectNode body = json("{\"user\": {\"id\": 2}}");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> columnPatcher.prepare(ColumnPatcher.PatchTarget.SAVINGS, body));
+        assertEquals("Campo no modificable: user", e.getMessage());
+    }
+
+    @Test
+    void prepare_WithLedgerField_ShouldThrowException() throws Exception {
+        ObjectNode body = json("{\"currentBalance\": 1500000}");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> columnPatcher.prepare(ColumnPatcher.PatchTarget.SAVINGS, body));
+        assertEquals("Campo no modificable: currentBalance", e.getMessage());
+    }
+
+    @Test
+    void prepare_WithValueOfWrongType_ShouldThrowException() throws Exception {
+        ObjectNode body = json("{\"age\": \"treinta\"}");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> columnPatcher.prepare(ColumnPatcher.PatchTarget.USERS, body));
+    }
+
+    @Test
+    void body_WhenNotAnObject_ShouldThrowException() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> ColumnPatcher.body(objectMapper.readTree("[1, 2]")));
+    }
+}
@@ -4,6 +4,10 @@ import com.prestabanco.entities.ApplicationEntity;
 import com.prestabanco.entities.UserEntity;
 import com.prestabanco.entities.SavingsEntity;
 import com.prestabanco.services.CreditEvaluationService;
+import com.prestabanco.services.rules.CreditEvaluationContext;
+import com.prestabanco.services.rules.CreditRule;
+import com.prestabanco.services.rules.DefaultCreditRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,9 +16,11 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -180,4 +186,166 @@ class CreditEvaluationServiceTest {
         assertNotNull(result.getMessage());
         assertFalse(result.getEvaluationDetails().isEmpty());
     }
+
+    @Test
+    void whenAllRulesPass_shouldReturnDetailForEveryRule() {
+        application.setTerm(20); // R6 suma el plazo a la edad del solicitante
+
+        CreditEvaluationService.CreditEvaluationResult result =
+                creditEvaluationService.evaluateApplication(application, user, savings, monthlyPayment);
+
+        assertTrue(result.isApproved());
+        assertEquals(7, result.getEvaluationDetails().size());
+        assertEquals("Relación Cuota/Ingreso", result.getEvaluationDetails().get(0).getRule());
+        assertEquals("Capacidad de Ahorro", result.getEvaluationDetails().get(6).getRule());
+    }
+
+    @Test
+    void whenFailFastMode_shouldStopAtFirstRejectedRule() {
+        application.setEmploymentYears(0); // R3 rechazada
+        user.setAge(60);                   // R6 también rechazada
+
+        CreditEvaluationService.CreditEvaluationResult result = creditEvaluationService.evaluateApplication(
+                application, user, savings, monthlyPayment, CreditEvaluationService.EvaluationMode.FAIL_FAST);
+
+        assertFalse(result.isApproved());
+        assertEquals(3, result.getEvaluationDetails().size());
+        assertEquals("Antigüedad Laboral", result.getEvaluationDetails().get(2).getRule());
+        assertFalse(result.getEvaluationDetails().get(2).isPassed());
+    }
+
+    @Test
+    void whenSameOutcome_shouldShareRuleDetails() {
+        CreditEvaluationService.CreditEvaluationResult first =
+                creditEvaluationService.evaluateApplication(application, user, savings, monthlyPayment);
+        CreditEvaluationService.CreditEvaluationResult second =
+                creditEvaluationService.evaluateApplication(application, user, savings, monthlyPayment);
+
+        for (int i = 0; i < first.getEvaluationDetails().size(); i++) {
+            assertSame(first.getEvaluationDetails().get(i), second.getEvaluationDetails().get(i));
+        }
+    }
+
+    @Test
+    void whenCustomRuleRegistered_shouldRunItAfterDefaultRules() {
+        CreditEvaluationService.CreditEvaluationResult.EvaluationDetail blocked =
+                new CreditEvaluationService.CreditEvaluationResult.EvaluationDetail("Lista Restrictiva", false, "RUT bloqueado");
+        CreditRule blacklist = new CreditRule() {
+            @Override
+            public String getCode() {
+                return "R8";
+            }
+
+            @Override
+            public CreditEvaluationService.CreditEvaluationResult.EvaluationDetail getPassedDetail() {
+                return null;
+            }
+
+            @Override
+            public CreditEvaluationService.CreditEvaluationResult.EvaluationDetail getFailedDetail() {
+                return blocked;
+            }
+
+            @Override
+            public boolean test(CreditEvaluationContext context) {
+                return false;
+            }
+
+            @Override
+            public void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                     Consumer<Object> input) {
+            }
+        };
+        List<CreditRule> rules = new ArrayList<>(List.of(DefaultCreditRule.values()));
+        rules.add(blacklist);
+
+        CreditEvaluationService.CreditEvaluationResult result = CreditEvaluationService.withRules(rules)
+                .evaluateApplication(application, user, savings, monthlyPayment);
+
+        assertFalse(result.isApproved());
+        assertEquals(8, result.getEvaluationDetails().size());
+        assertSame(blocked, result.getEvaluationDetails().get(7));
+    }
+
+    @Test
+    void evaluateApplication_WithMeterRegistry_ShouldCountRulesAndSavingsCriteria() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CreditEvaluationService service = new CreditEvaluationService();
+        service.setMeterRegistry(registry);
+        application.setMonthlyIncome(new BigDecimal("100.00"));
+
+        for (int i = 0; i < 3; i++) {
+            service.evaluateApplication(application, user, savings, monthlyPayment);
+        }
+
+        assertEquals(3, ruleCount(registry, "R1", "failed"));
+        assertEquals(0, ruleCount(registry, "R1", "passed"));
+        assertEquals(3, ruleCount(registry, "R7", "passed"));
+        assertEquals(3, registry.get("prestabanco.credit.savings.criterion.evaluations")
+                .tag("criterion", "R73").tag("outcome", "passed").counter().count());
+        assertEquals(3, registry.get("prestabanco.credit.savings.criterion.evaluations")
+                .tag("criterion", "R71").tag("outcome", "passed").counter().count());
+        assertEquals(7, registry.get("prestabanco.credit.rule.duration").timers().size());
+
+        // En fail-fast las reglas que no se ejecutan no suman ni aprobaciones ni rechazos
+        service.evaluateApplication(application, user, savings, monthlyPayment,
+                CreditEvaluationService.EvaluationMode.FAIL_FAST);
+        assertEquals(4, ruleCount(registry, "R1", "failed"));
+        assertEquals(3, ruleCount(registry, "R2", "passed") + ruleCount(registry, "R2", "failed"));
+    }
+
+    @Test
+    void setMeterRegistry_WithMoreThanTenRules_ShouldCountEachRule() {
+        List<CreditRule> rules = new ArrayList<>(List.of(DefaultCreditRule.values()));
+        for (int i = 8; i <= 12; i++) {
+            rules.add(passingRule("R" + i));
+        }
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CreditEvaluationService service = CreditEvaluationService.withRules(rules);
+        service.setMeterRegistry(registry);
+
+        CreditEvaluationService.CreditEvaluationResult result =
+                service.evaluateApplication(application, user, savings, monthlyPayment);
+
+        assertEquals(12, result.getEvaluationDetails().size());
+        assertEquals(1, ruleCount(registry, "R12", "passed"));
+        assertEquals(0, ruleCount(registry, "R12", "failed"));
+        assertEquals(1, ruleCount(registry, "R7", "passed"));
+    }
+
+    private static CreditRule passingRule(String code) {
+        CreditEvaluationService.CreditEvaluationResult.EvaluationDetail passed =
+                new CreditEvaluationService.CreditEvaluationResult.EvaluationDetail(code, true, "Aprobada");
+        return new CreditRule() {
+            @Override
+            public String getCode() {
+                return code;
+            }
+
+            @Override
+            public CreditEvaluationService.CreditEvaluationResult.EvaluationDetail getPassedDetail() {
+                return passed;
+            }
+
+            @Override
+            public CreditEvaluationService.CreditEvaluationResult.EvaluationDetail getFailedDetail() {
+                return null;
+            }
+
+            @Override
+            public boolean test(CreditEvaluationContext context) {
+                return true;
+            }
+
+            @Override
+            public void appendInputs(ApplicationEntity application, UserEntity user, SavingsEntity savings,
+                                     Consumer<Object> input) {
+            }
+        };
+    }
+
+    private static double ruleCount(SimpleMeterRegistry registry, String rule, String outcome) {
+        return registry.get("prestabanco.credit.rule.evaluations")
+                .tag("rule", rule).tag("outcome", outcome).counter().count();
+    }
 }
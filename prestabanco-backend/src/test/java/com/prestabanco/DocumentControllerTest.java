@@ -0,0 +1,140 @@
+package com.prestabanco;
+
+import com.prestabanco.controllers.DocumentController;
+import com.prestabanco.entities.DocumentEntity;
+import com.prestabanco.services.DocumentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentControllerTest {
+
+    private static final String CONTENT = "0123456789abcdef";
+    private static final String HASH = "a".repeat(64);
+
+    @Mock
+    private DocumentService documentService;
+
+    @InjectMocks
+    private DocumentController documentController;
+
+    @TempDir
+    Path tempDir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(documentController).build();
+
+        DocumentEntity document = new DocumentEntity();
+        document.setId(7L);
+        document.setApplicationId(1L);
+        document.setDocumentType("incomeProof");
+        document.setFileName("liquidación.pdf");
+        document.setContentType("application/pdf");
+        document.setFileSize((long) CONTENT.length());
+        document.setContentHash(HASH);
+        Path file = Files.writeString(tempDir.resolve(HASH), CONTENT);
+
+        lenient().when(documentService.getDocumentById(7L)).thenReturn(Optional.of(document));
+        lenient().when(documentService.getContentPath(document)).thenReturn(file);
+    }
+
+    @Test
+    void downloadContent_WithoutRange_ShouldReturnWholeFile() throws Exception {
+        mockMvc.perform(get("/api/documents/7/content"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(content().contentType("application/pdf"))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void downloadContent_WithRange_ShouldReturnPartialContent() throws Exception {
+        mockMvc.perform(get("/api/documents/7/content").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/16"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/api/documents/7/content").header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 13-15/16"))
+                .andExpect(content().string("def"));
+    }
+
+    @Test
+    void downloadContent_WithRangeBeyondEnd_ShouldReturn416() throws Exception {
+        mockMvc.perform(get("/api/documents/7/content").header(HttpHeaders.RANGE, "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */16"));
+    }
+
+    @Test
+    void downloadContent_WithStaleIfRange_ShouldReturnWholeFile() throws Exception {
+        mockMvc.perform(get("/api/documents/7/content")
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"otro\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void downloadContent_WhenDocumentDoesNotExist_ShouldReturn404() throws Exception {
+        when(documentService.getDocumentById(8L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/documents/8/content"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void uploadDocument_ShouldStreamFileToService() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "avaluo.pdf", "application/pdf",
+                "%PDF-1.4".getBytes(StandardCharsets.UTF_8));
+        DocumentEntity saved = new DocumentEntity();
+        saved.setId(9L);
+        when(documentService.uploadDocument(eq(1L), eq("propertyAppraisal"), eq("avaluo.pdf"),
+                eq("application/pdf"), any())).thenReturn(Optional.of(saved));
+
+        mockMvc.perform(multipart("/api/documents").file(file)
+                        .param("applicationId", "1")
+                        .param("documentType", "propertyAppraisal"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(9));
+    }
+
+    @Test
+    void uploadDocument_WithUnsupportedType_ShouldReturn415() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "pagina.html", "text/html",
+                "<script></script>".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/documents").file(file)
+                        .param("applicationId", "1")
+                        .param("documentType", "incomeProof"))
+                .andExpect(status().isUnsupportedMediaType());
+        verifyNoInteractions(documentService);
+    }
+}
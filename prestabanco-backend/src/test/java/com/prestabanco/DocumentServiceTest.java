@@ -0,0 +1,149 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.DocumentEntity;
+import com.prestabanco.repositories.DocumentRepository;
+import com.prestabanco.services.ContentAddressedStore;
+import com.prestabanco.services.DocumentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({DocumentService.class, DocumentServiceTest.StoreConfig.class})
+class DocumentServiceTest {
+
+    @TestConfiguration
+    static class StoreConfig {
+        @Bean
+        ContentAddressedStore documentStore() throws IOException {
+            return new ContentAddressedStore(Files.createTempDirectory("documentos-"));
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    private Long firstApplicationId;
+    private Long secondApplicationId;
+
+    @BeforeEach
+    void setUp() {
+        firstApplicationId = entityManager.persistAndGetId(new ApplicationEntity(), Long.class);
+        secondApplicationId = entityManager.persistAndGetId(new ApplicationEntity(), Long.class);
+        entityManager.flush();
+    }
+
+    // Corte posterior a las subidas de la prueba, sin el margen de producción. El almacén es
+    // compartido entre pruebas, así que se revisan los archivos y no cuántos se barrieron
+    private static Instant afterUploads() {
+        return Instant.now().plusSeconds(1);
+    }
+
+    private DocumentEntity upload(Long applicationId, String documentType, String content) throws IOException {
+        return documentService.uploadDocument(applicationId, documentType, documentType + ".pdf", "application/pdf",
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))).orElseThrow();
+    }
+
+    @Test
+    void uploadDocument_ShouldStoreContentUnderItsHash() throws Exception {
+        DocumentEntity document = upload(firstApplicationId, "incomeProof", "%PDF-1.4 liquidación de sueldo");
+
+        String expectedHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest("%PDF-1.4 liquidación de sueldo".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(expectedHash, document.getContentHash());
+        assertEquals(31L, document.getFileSize());
+
+        Path path = documentService.getContentPath(document);
+        assertTrue(path.endsWith(Path.of(expectedHash.substring(0, 2), expectedHash.substring(2, 4), expectedHash)));
+        assertEquals("%PDF-1.4 liquidación de sueldo", Files.readString(path));
+    }
+
+    @Test
+    void uploadDocument_WhenApplicationDoesNotExist_ShouldReturnEmpty() throws Exception {
+        Optional<DocumentEntity> document = documentService.uploadDocument(999L, "incomeProof", "a.pdf",
+                "application/pdf", new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        assertTrue(document.isEmpty());
+        assertEquals(0, documentRepository.count());
+    }
+
+    @Test
+    void uploadDocument_SameTypeTwice_ShouldReplaceRowAndReleasePreviousContent() throws Exception {
+        DocumentEntity first = upload(firstApplicationId, "incomeProof", "versión 1");
+        Path previous = documentService.getContentPath(first);
+
+        DocumentEntity second = upload(firstApplicationId, "incomeProof", "versión 2");
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(1, documentService.getDocumentsByApplicationId(firstApplicationId).size());
+        assertTrue(Files.exists(previous));
+
+        documentService.sweepUnreferencedContent(afterUploads());
+        assertFalse(Files.exists(previous));
+        assertTrue(Files.exists(documentService.getContentPath(second)));
+    }
+
+    @Test
+    void uploadDocument_WithContentAlreadyStored_ShouldPublishItAgain() throws Exception {
+        DocumentEntity first = upload(firstApplicationId, "propertyAppraisal", "mismo avalúo");
+        Path path = documentService.getContentPath(first);
+        // Un barrido concurrente alcanzó a borrar la copia antes de que la segunda subida guardara su fila
+        Files.delete(path);
+
+        upload(secondApplicationId, "propertyAppraisal", "mismo avalúo");
+
+        assertEquals("mismo avalúo", Files.readString(path));
+    }
+
+    @Test
+    void sweepUnreferencedContent_ShouldKeepContentPublishedAfterCutoff() throws Exception {
+        Instant beforeUpload = Instant.now().minusSeconds(60);
+        DocumentEntity document = upload(firstApplicationId, "incomeProof", "recién subido");
+        Path path = documentService.getContentPath(document);
+        documentService.deleteDocument(document.getId());
+
+        assertEquals(0, documentService.sweepUnreferencedContent(beforeUpload));
+        assertTrue(Files.exists(path));
+    }
+
+    @Test
+    void deleteDocument_WithSharedContent_ShouldKeepFileUntilLastReference() throws Exception {
+        DocumentEntity first = upload(firstApplicationId, "propertyAppraisal", "mismo avalúo");
+        DocumentEntity second = upload(secondApplicationId, "propertyAppraisal", "mismo avalúo");
+        Path path = documentService.getContentPath(first);
+        assertEquals(first.getContentHash(), second.getContentHash());
+
+        assertTrue(documentService.deleteDocument(first.getId()));
+        documentService.sweepUnreferencedContent(afterUploads());
+        assertTrue(Files.exists(path));
+
+        documentService.deleteByApplicationId(secondApplicationId);
+        documentService.sweepUnreferencedContent(afterUploads());
+        assertFalse(Files.exists(path));
+        assertEquals(0, documentRepository.count());
+    }
+}
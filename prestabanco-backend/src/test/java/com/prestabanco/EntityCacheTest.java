@@ -0,0 +1,194 @@
+package com.prestabanco;
+
+import com.prestabanco.config.EntityCacheConfig;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.SavingsRepository;
+import com.prestabanco.repositories.UserRepository;
+import com.prestabanco.services.ColumnPatcher;
+import com.prestabanco.services.SavingsLedgerService;
+import com.prestabanco.services.SavingsLedgerService.TransactionRequest;
+import com.prestabanco.services.SavingsService;
+import com.prestabanco.services.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin la transacción de la prueba: cada llamada al servicio abre la suya, como en producción,
+// y las lecturas repetidas solo pueden evitar la base de datos a través del caché de segundo nivel
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({EntityCacheConfig.class, UserService.class, SavingsService.class, ColumnPatcher.class,
+        SavingsLedgerService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SavingsService savingsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SavingsRepository savingsRepository;
+
+    @Autowired
+    private SavingsLedgerService savingsLedgerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    private Statistics statistics;
+    private UserEntity user;
+    private SavingsEntity savings;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        UserEntity newUser = new UserEntity();
+        newUser.setRut("12345678-9");
+        newUser.setEmail("juan.perez@email.com");
+        newUser.setAge(35);
+        newUser.setRole(UserEntity.UserRole.CLIENT);
+        user = userRepository.save(newUser);
+
+        SavingsEntity newSavings = new SavingsEntity();
+        newSavings.setUser(user);
+        newSavings.setAccountNumber("1234567890");
+        newSavings.setCurrentBalance(new BigDecimal("30000"));
+        savings = savingsRepository.save(newSavings);
+
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        savingsRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUserByEmailAndRut_RepeatedLookups_ShouldNotQueryDatabase() {
+        assertTrue(userService.getUserByEmail("juan.perez@email.com").isPresent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(user.getId(), userService.getUserByEmail("juan.perez@email.com").orElseThrow().getId());
+            assertEquals(user.getId(), userService.getUserById(user.getId()).orElseThrow().getId());
+        }
+        // El RUT nuevo cuesta una consulta; la segunda búsqueda ya pasa por el índice y el caché
+        assertEquals("12345678-9", userService.getUserByRut("12345678-9").orElseThrow().getRut());
+        assertEquals("12345678-9", userService.getUserByRut("12345678-9").orElseThrow().getRut());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(7, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void updateUser_ShouldForgetPreviousEmailAndServeNewState() {
+        userService.getUserByEmail("juan.perez@email.com");
+
+        UserEntity changed = userService.getUserById(user.getId()).orElseThrow();
+        changed.setEmail("juan.p@email.com");
+        changed.setPassword(null);
+        userService.updateUser(changed);
+
+        assertTrue(userService.getUserByEmail("juan.perez@email.com").isEmpty());
+        assertEquals("juan.p@email.com", userService.getUserByEmail("juan.p@email.com").orElseThrow().getEmail());
+        assertEquals("juan.p@email.com", userService.getUserById(user.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void deleteUser_ShouldEvictUserAndNaturalKeys() {
+        userService.getUserByEmail("juan.perez@email.com");
+        savingsRepository.deleteAll();
+
+        userService.deleteUser(user.getId());
+
+        assertTrue(userService.getUserById(user.getId()).isEmpty());
+        assertTrue(userService.getUserByEmail("juan.perez@email.com").isEmpty());
+        assertTrue(userService.getUserByRut("12345678-9").isEmpty());
+    }
+
+    @Test
+    void getSavingsByUserId_RepeatedLookups_ShouldNotQueryDatabase() {
+        assertTrue(savingsService.getSavingsByUserId(user.getId()).isPresent());
+
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            SavingsEntity cached = savingsService.getSavingsByUserId(user.getId()).orElseThrow();
+            assertEquals(savings.getId(), cached.getId());
+            assertEquals("juan.perez@email.com", cached.getUser().getEmail());
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateSavings_ShouldForgetPreviousAccountNumberAndServeNewState() {
+        savingsService.getSavingsByAccountNumber("1234567890");
+        savingsService.getSavingsByUserId(user.getId());
+
+        SavingsEntity changed = savingsService.getSavingsById(savings.getId()).orElseThrow();
+        changed.setAccountNumber("0987654321");
+        // El saldo lo mantiene el libro de movimientos; PUT cambia el resto de la cuenta
+        changed.setMeetsSavingsCriteria(true);
+        savingsService.updateSavings(changed);
+
+        assertTrue(savingsService.getSavingsByAccountNumber("1234567890").isEmpty());
+        assertEquals(savings.getId(), savingsService.getSavingsByAccountNumber("0987654321").orElseThrow().getId());
+        assertTrue(savingsService.getSavingsByUserId(user.getId()).orElseThrow().getMeetsSavingsCriteria());
+    }
+
+    @Test
+    void recordTransaction_WithReadBeforeCommit_ShouldServeNewBalanceAfterCommit() {
+        savingsService.getSavingsById(savings.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            savingsLedgerService.record(savings.getId(),
+                    new TransactionRequest("DEPOSIT", new BigDecimal("5000"), LocalDateTime.of(2026, 1, 10, 10, 0)));
+            // Otra petición lee la cuenta antes de la confirmación: ve la fila anterior y la deja en el caché
+            SavingsEntity concurrent = CompletableFuture.supplyAsync(
+                    () -> savingsService.getSavingsById(savings.getId()).orElseThrow()).join();
+            assertEquals(0, new BigDecimal("30000").compareTo(concurrent.getCurrentBalance()));
+        });
+
+        assertEquals(0, new BigDecimal("35000").compareTo(
+                savingsService.getSavingsById(savings.getId()).orElseThrow().getCurrentBalance()));
+    }
+}
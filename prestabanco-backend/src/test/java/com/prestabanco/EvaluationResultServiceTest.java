@@ -0,0 +1,170 @@
+package com.prestabanco;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.CreditEvaluationEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.CreditEvaluationRepository;
+import com.prestabanco.services.CreditEvaluationService;
+import com.prestabanco.services.CreditEvaluationService.CreditEvaluationResult;
+import com.prestabanco.services.CreditEvaluationService.EvaluationMode;
+import com.prestabanco.services.EvaluationResultService;
+import com.prestabanco.services.LoanCalculatorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EvaluationResultServiceTest {
+
+    @Mock
+    private CreditEvaluationRepository evaluationRepository;
+
+    @Spy
+    private CreditEvaluationService evaluationService = new CreditEvaluationService();
+
+    @Spy
+    private LoanCalculatorService calculatorService = new LoanCalculatorService();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private EvaluationResultService evaluationResultService;
+
+    private ApplicationEntity application;
+    private SavingsEntity savings;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = new UserEntity();
+        user.setId(1L);
+        user.setAge(35);
+
+        application = new ApplicationEntity();
+        application.setId(10L);
+        application.setUser(user);
+        application.setMonthlyIncome(new BigDecimal("6000.00"));
+        application.setEmploymentYears(2);
+        application.setCurrentDebt(new BigDecimal("500.00"));
+        application.setRequestedAmount(new BigDecimal("160000.00"));
+        application.setPropertyValue(new BigDecimal("250000.00"));
+        application.setPropertyType(ApplicationEntity.PropertyType.FIRST_HOME);
+        application.setTerm(20);
+        application.setInterestRate(new BigDecimal("5.5"));
+
+        savings = new SavingsEntity();
+        savings.setId(5L);
+        savings.setUser(user);
+        savings.setCurrentBalance(new BigDecimal("30000.00"));
+        savings.setMonthlyDepositsAmount(new BigDecimal("300.00"));
+        savings.setConsecutiveMonthsWithBalance(14);
+        savings.setSignificantWithdrawalsCount(0);
+    }
+
+    private CreditEvaluationEntity evaluateAndCaptureStored() {
+        when(evaluationRepository.findByApplicationId(10L)).thenReturn(Optional.empty());
+        evaluationResultService.evaluate(application, savings, EvaluationMode.FULL);
+
+        ArgumentCaptor<CreditEvaluationEntity> stored = ArgumentCaptor.forClass(CreditEvaluationEntity.class);
+        verify(evaluationRepository).save(stored.capture());
+        return stored.getValue();
+    }
+
+    @Test
+    void evaluate_FirstTime_ShouldRunRulesAndStoreResult() {
+        CreditEvaluationEntity stored = evaluateAndCaptureStored();
+
+        assertEquals(10L, stored.getApplicationId());
+        assertEquals(64, stored.getFingerprint().length());
+        assertEquals(CreditEvaluationService.DEFAULT_POLICY_VERSION, stored.getPolicyVersion());
+        assertEquals("FULL", stored.getMode());
+        assertNotNull(stored.getDetails());
+        verify(evaluationService).evaluateApplication(any(), any(), any(), any(), eq(EvaluationMode.FULL));
+    }
+
+    @Test
+    void evaluate_WithUnchangedFingerprint_ShouldReturnStoredResultWithoutRunningRules() {
+        CreditEvaluationEntity stored = evaluateAndCaptureStored();
+        CreditEvaluationResult first = evaluationService.evaluateApplication(
+                application, application.getUser(), savings,
+                calculatorService.calculateMonthlyPayment(new BigDecimal("160000.00"), new BigDecimal("5.5"), 20));
+        clearInvocations(evaluationService, calculatorService);
+        when(evaluationRepository.findByApplicationId(10L)).thenReturn(Optional.of(stored));
+
+        CreditEvaluationResult result = evaluationResultService.evaluate(application, savings, EvaluationMode.FULL);
+
+        verify(evaluationService, never()).evaluateApplication(any(), any(), any(), any(), any());
+        verify(calculatorService, never()).calculateMonthlyPayment(any(), any(), anyInt());
+        assertEquals(first.isApproved(), result.isApproved());
+        assertEquals(first.getMessage(), result.getMessage());
+        assertEquals(first.getEvaluationDetails().size(), result.getEvaluationDetails().size());
+        for (int i = 0; i < first.getEvaluationDetails().size(); i++) {
+            assertEquals(first.getEvaluationDetails().get(i).getRule(), result.getEvaluationDetails().get(i).getRule());
+            assertEquals(first.getEvaluationDetails().get(i).isPassed(), result.getEvaluationDetails().get(i).isPassed());
+        }
+    }
+
+    @Test
+    void evaluate_WithChangedSavings_ShouldRunRulesAgain() {
+        CreditEvaluationEntity stored = evaluateAndCaptureStored();
+        String previousFingerprint = stored.getFingerprint();
+        when(evaluationRepository.findByApplicationId(10L)).thenReturn(Optional.of(stored));
+
+        savings.setCurrentBalance(new BigDecimal("1000.00"));
+        evaluationResultService.evaluate(application, savings, EvaluationMode.FULL);
+
+        verify(evaluationService, times(2)).evaluateApplication(any(), any(), any(), any(), any());
+        assertNotEquals(previousFingerprint, stored.getFingerprint());
+    }
+
+    @Test
+    void evaluate_WithChangedLargestWithdrawal_ShouldRunRulesAgain() {
+        savings.setLargestWithdrawalLast6Months(new BigDecimal("1000.00"));
+        CreditEvaluationEntity stored = evaluateAndCaptureStored();
+        String previousFingerprint = stored.getFingerprint();
+        when(evaluationRepository.findByApplicationId(10L)).thenReturn(Optional.of(stored));
+
+        // Solo lo lee R75: basta para que el resultado guardado deje de servir
+        savings.setLargestWithdrawalLast6Months(new BigDecimal("20000.00"));
+        evaluationResultService.evaluate(application, savings, EvaluationMode.FULL);
+
+        verify(evaluationService, times(2)).evaluateApplication(any(), any(), any(), any(), any());
+        assertNotEquals(previousFingerprint, stored.getFingerprint());
+    }
+
+    @Test
+    void evaluate_WithDifferentMode_ShouldRunRulesAgain() {
+        CreditEvaluationEntity stored = evaluateAndCaptureStored();
+        when(evaluationRepository.findByApplicationId(10L)).thenReturn(Optional.of(stored));
+
+        evaluationResultService.evaluate(application, savings, EvaluationMode.FAIL_FAST);
+
+        verify(evaluationService).evaluateApplication(any(), any(), any(), any(), eq(EvaluationMode.FAIL_FAST));
+        assertEquals("FAIL_FAST", stored.getMode());
+    }
+
+    @Test
+    void evaluate_WithEquivalentDecimalScale_ShouldKeepFingerprint() {
+        CreditEvaluationEntity stored = evaluateAndCaptureStored();
+        when(evaluationRepository.findByApplicationId(10L)).thenReturn(Optional.of(stored));
+
+        application.setInterestRate(new BigDecimal("5.50"));
+        evaluationResultService.evaluate(application, savings, EvaluationMode.FULL);
+
+        verify(evaluationService, times(1)).evaluateApplication(any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,134 @@
+package com.prestabanco;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+import com.prestabanco.entities.ApplicationEntity.PropertyType;
+import com.prestabanco.services.ExportService;
+import com.prestabanco.services.ExportService.ExportFormat;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (rut, email) values ('12345678-9', 'juan.perez@email.com')");
+        userId = jdbcTemplate.queryForObject("select id from users", Long.class);
+
+        // Estados y tipos alternados: IN_REVIEW/APPROVED/REJECTED y FIRST_HOME/SECOND_HOME
+        List<Object[]> applications = new ArrayList<>();
+        ApplicationStatus[] statuses = {ApplicationStatus.IN_REVIEW, ApplicationStatus.APPROVED, ApplicationStatus.REJECTED};
+        for (int i = 0; i < 3000; i++) {
+            applications.add(new Object[]{userId, statuses[i % 3].ordinal(), i % 2, 100000000 + i, 20, "4.50"});
+        }
+        jdbcTemplate.batchUpdate("insert into applications (user_id, status, property_type, requested_amount, term, "
+                + "interest_rate) values (?, ?, ?, ?, ?, ?)", applications);
+
+        for (int day = 1; day <= 10; day++) {
+            jdbcTemplate.update("insert into loans (user_id, property_type, requested_amount, term, interest_rate, "
+                            + "monthly_payment, simulation_date) values (?, ?, 80000000, 20, 4.5, 506000.00, ?)",
+                    userId, day % 2, LocalDateTime.of(2024, 3, day, 10, 30));
+        }
+    }
+
+    private static List<String> lines(byte[] bytes) {
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        return text.isEmpty() ? List.of() : List.of(text.split("\n"));
+    }
+
+    @Test
+    void exportApplications_Csv_ShouldStreamFilteredRowsInIdOrderWithoutManagingEntities() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = exportService.exportApplications(List.of(ApplicationStatus.APPROVED, ApplicationStatus.REJECTED),
+                PropertyType.SECOND_HOME, ExportFormat.CSV, false, output);
+
+        List<String> lines = lines(output.toByteArray());
+        assertEquals(1000, count);
+        assertEquals(1001, lines.size());
+        assertEquals("id,userId,status,propertyType,requestedAmount,term,interestRate,monthlyIncome,"
+                + "employmentYears,currentDebt,propertyValue,documentationComplete", lines.get(0));
+        // i = 1: APPROVED y SECOND_HOME
+        assertTrue(lines.get(1).matches("\\d+," + userId + ",APPROVED,SECOND_HOME,100000001.00,20,4.50,,,,,"),
+                lines.get(1));
+        assertTrue(lines.stream().skip(1).allMatch(line -> line.contains(",SECOND_HOME,")
+                && (line.contains(",APPROVED,") || line.contains(",REJECTED,"))));
+        // Proyecciones: ninguna entidad se carga ni queda en el contexto de persistencia
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void exportApplications_WithoutFilters_ShouldExportEveryRow() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(3000, exportService.exportApplications(null, null, ExportFormat.NDJSON, false, output));
+        assertEquals(3000, lines(output.toByteArray()).size());
+    }
+
+    @Test
+    void exportLoans_NdjsonGzip_ShouldFilterByDateRange() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = exportService.exportLoans(PropertyType.FIRST_HOME,
+                LocalDateTime.of(2024, 3, 3, 0, 0), LocalDateTime.of(2024, 3, 9, 0, 0),
+                ExportFormat.NDJSON, true, output);
+
+        byte[] json;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            json = gzip.readAllBytes();
+        }
+        List<String> lines = lines(json);
+        // Días pares (FIRST_HOME) entre el 3 y el 8: 4, 6 y 8
+        assertEquals(3, count);
+        assertEquals(3, lines.size());
+        List<String> dates = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode loan = objectMapper.readTree(line);
+            assertEquals("FIRST_HOME", loan.get("propertyType").asText());
+            assertEquals(userId, loan.get("userId").asLong());
+            dates.add(loan.get("simulationDate").asText());
+        }
+        assertEquals(List.of("2024-03-04T10:30:00", "2024-03-06T10:30:00", "2024-03-08T10:30:00"), dates);
+    }
+}
@@ -0,0 +1,175 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+import com.prestabanco.entities.ApplicationEntity.PropertyType;
+import com.prestabanco.entities.LoanEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.projections.ApplicationSummary;
+import com.prestabanco.repositories.projections.LoanSummary;
+import com.prestabanco.services.ApplicationService;
+import com.prestabanco.services.ApplicationStatusCounters;
+import com.prestabanco.services.ColumnPatcher;
+import com.prestabanco.services.CursorPage;
+import com.prestabanco.services.DocumentService;
+import com.prestabanco.services.LoanService;
+import com.prestabanco.services.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ApplicationService.class, ApplicationStatusCounters.class, LoanService.class, UserService.class, ColumnPatcher.class})
+class KeysetPaginationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    // ApplicationService lo usa solo al borrar solicitudes
+    @MockBean
+    private DocumentService documentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private UserService userService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        ApplicationStatus[] statuses = {
+                ApplicationStatus.APPROVED, ApplicationStatus.REJECTED, ApplicationStatus.IN_REVIEW,
+                ApplicationStatus.APPROVED, ApplicationStatus.CANCELLED, ApplicationStatus.IN_REVIEW,
+                ApplicationStatus.REJECTED};
+        for (int i = 0; i < statuses.length; i++) {
+            UserEntity user = new UserEntity();
+            user.setRut("1000000" + i + "-K");
+            user.setEmail("cliente" + i + "@email.com");
+            entityManager.persist(user);
+
+            ApplicationEntity application = new ApplicationEntity();
+            application.setUser(user);
+            application.setStatus(statuses[i]);
+            application.setPropertyType(i % 2 == 0 ? PropertyType.FIRST_HOME : PropertyType.COMMERCIAL);
+            application.setRequestedAmount(new BigDecimal("100000000"));
+            entityManager.persist(application);
+
+            LoanEntity loan = new LoanEntity();
+            loan.setUser(user);
+            loan.setPropertyType(application.getPropertyType());
+            entityManager.persist(loan);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void getApplicationsPage_ShouldWalkAllRowsWithOneStatementPerPage() {
+        List<ApplicationSummary> all = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<ApplicationSummary> page = applicationService.getApplicationsPage(cursor, 3, null, null);
+            assertTrue(page.getItems().size() <= 3);
+            page.getItems().forEach(application -> assertNotNull(application.userId()));
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(7, all.size());
+        assertEquals(3, pages);
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).id() < all.get(i).id());
+        }
+        // Id y nombre del usuario vienen en el mismo SELECT: una sentencia por página, sin N+1
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getApplicationsPage_ShouldApplyStatusAndPropertyTypeFilters() {
+        CursorPage<ApplicationSummary> closed = applicationService.getApplicationsPage(null, 10,
+                List.of(ApplicationStatus.APPROVED, ApplicationStatus.REJECTED, ApplicationStatus.CANCELLED), null);
+        assertEquals(5, closed.getItems().size());
+        assertNull(closed.getNextCursor());
+
+        CursorPage<ApplicationSummary> commercialApproved = applicationService.getApplicationsPage(null, 10,
+                List.of(ApplicationStatus.APPROVED), PropertyType.COMMERCIAL);
+        assertEquals(1, commercialApproved.getItems().size());
+        assertEquals(PropertyType.COMMERCIAL, commercialApproved.getItems().get(0).propertyType());
+    }
+
+    @Test
+    void getApplicationsPage_WhenExactlyOnePageRemains_ShouldNotReturnCursor() {
+        CursorPage<ApplicationSummary> page = applicationService.getApplicationsPage(null, 7, null, null);
+
+        assertEquals(7, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getLoansPage_ShouldFilterByPropertyTypeAndPage() {
+        CursorPage<LoanSummary> first = loanService.getLoansPage(null, 2, PropertyType.FIRST_HOME);
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        CursorPage<LoanSummary> second = loanService.getLoansPage(first.getNextCursor(), 2, PropertyType.FIRST_HOME);
+        assertEquals(2, second.getItems().size());
+        assertNull(second.getNextCursor());
+        second.getItems().forEach(loan -> assertEquals(PropertyType.FIRST_HOME, loan.propertyType()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUsersPage_ShouldReturnNextCursorUntilLastPage() {
+        CursorPage<UserEntity> first = userService.getUsersPage(null, 5);
+        assertEquals(5, first.getItems().size());
+        assertEquals(first.getItems().get(4).getId(), first.getNextCursor());
+
+        CursorPage<UserEntity> second = userService.getUsersPage(first.getNextCursor(), 5);
+        assertEquals(2, second.getItems().size());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void clampLimit_ShouldApplyDefaultAndMaximum() {
+        assertEquals(CursorPage.DEFAULT_LIMIT, CursorPage.clampLimit(null));
+        assertEquals(CursorPage.DEFAULT_LIMIT, CursorPage.clampLimit(0));
+        assertEquals(CursorPage.MAX_LIMIT, CursorPage.clampLimit(1_000_000));
+        assertEquals(10, CursorPage.clampLimit(10));
+    }
+}
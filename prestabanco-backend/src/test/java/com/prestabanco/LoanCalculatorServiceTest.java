@@ -1,6 +1,7 @@
 package com.prestabanco;
 
 import com.prestabanco.services.LoanCalculatorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -165,4 +166,62 @@ class LoanCalculatorServiceTest {
         assertTrue(monthlyPayment.compareTo(BigDecimal.ZERO) > 0);
         assertTrue(totalCost.compareTo(loanAmount) > 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void calculateMonthlyPayment_MatchesExactFormula() {
+        BigDecimal[] rates = {new BigDecimal("3.1"), new BigDecimal("5.5"), new BigDecimal("7.25"), new BigDecimal("9.9")};
+        int[] terms = {5, 15, 20, 30};
+        BigDecimal loanAmount = new BigDecimal("87654321");
+
+        for (BigDecimal rate : rates) {
+            for (int years : terms) {
+                // Fórmula original sin caché: P * r * (1+r)^n / ((1+r)^n - 1)
+                BigDecimal monthlyRate = rate
+                        .divide(BigDecimal.valueOf(12), 6, RoundingMode.HALF_UP)
+                        .divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_UP);
+                BigDecimal compoundFactor = BigDecimal.ONE.add(monthlyRate).pow(years * 12);
+                BigDecimal expected = loanAmount.multiply(monthlyRate).multiply(compoundFactor)
+                        .divide(compoundFactor.subtract(BigDecimal.ONE), 0, RoundingMode.HALF_UP);
+
+                assertEquals(expected, calculatorService.calculateMonthlyPayment(loanAmount, rate, years),
+                        "Tasa " + rate + ", plazo " + years);
+            }
+        }
+    }
+
+    @Test
+    void annuityFactorCache_ShouldRecordHitsAndMisses() {
+        calculatorService.clearFactorCache();
+        long initialHits = calculatorService.getFactorCacheStats().hitCount();
+        long initialMisses = calculatorService.getFactorCacheStats().missCount();
+
+        calculatorService.calculateMonthlyPayment(new BigDecimal("10000000"), new BigDecimal("5.5"), 20);
+        calculatorService.calculateMonthlyPayment(new BigDecimal("20000000"), new BigDecimal("5.50"), 20);
+        calculatorService.calculateTotalCost(new BigDecimal("30000000"), new BigDecimal("5.5"), 20);
+
+        assertEquals(1, calculatorService.getFactorCacheStats().missCount() - initialMisses);
+        assertEquals(2, calculatorService.getFactorCacheStats().hitCount() - initialHits);
+        assertEquals(1, calculatorService.getFactorCacheSize());
+    }
+
+    @Test
+    void meterRegistry_ShouldExposeCallCountsAndFactorCacheHits() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoanCalculatorService service = new LoanCalculatorService();
+        service.setMeterRegistry(registry);
+
+        service.calculateMonthlyPayment(new BigDecimal("10000000"), new BigDecimal("5.5"), 20);
+        service.calculateMonthlyPayment(new BigDecimal("20000000"), new BigDecimal("5.5"), 20);
+        service.calculateTotalCost(new BigDecimal("30000000"), new BigDecimal("5.5"), 20);
+
+        // La cuota calculada dentro del costo total no cuenta como llamada al simulador
+        assertEquals(2, registry.get("prestabanco.calculator.calls").tag("operation", "monthly_payment")
+                .functionCounter().count());
+        assertEquals(1, registry.get("prestabanco.calculator.calls").tag("operation", "total_cost")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "loanCalculator.annuityFactors")
+                .tag("result", "miss").functionCounter().count());
+        assertEquals(2, registry.get("cache.gets").tag("cache", "loanCalculator.annuityFactors")
+                .tag("result", "hit").functionCounter().count());
+    }
+}
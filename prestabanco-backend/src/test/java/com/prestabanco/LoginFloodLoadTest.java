@@ -0,0 +1,139 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.services.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Prueba de carga: ./mvnw test -Dgroups=load -DexcludedGroups=none
+// Mide la latencia de un endpoint de lectura sin carga y durante una ráfaga de logins con
+// contraseña incorrecta. Los límites por correo e IP se suben para que toda la ráfaga llegue
+// a bcrypt (como un ataque distribuido desde muchas IPs) y quede a cargo del pool de login.
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loginflood;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "prestabanco.documents.storage-dir=target/load-test-documents",
+        "prestabanco.security.bcrypt.strength=10",
+        "prestabanco.login.rate-limit.per-email=1000000",
+        "prestabanco.login.rate-limit.per-ip=1000000"
+})
+class LoginFloodLoadTest {
+
+    private static final int FLOOD_CLIENTS = 32;
+    private static final int READ_SAMPLES = 300;
+    private static final long READ_BUDGET_NANOS = TimeUnit.SECONDS.toNanos(20);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void readEndpoint_ShouldKeepLatencyDuringLoginFlood() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setRut("12345678-9");
+        user.setEmail("juan.perez@email.com");
+        user.setPassword("password123");
+        user.setRole(UserEntity.UserRole.CLIENT);
+        Long userId = userService.createUser(user).getId();
+
+        long[] baseline = measureReads(userId);
+
+        Map<Integer, LongAdder> loginStatuses = new ConcurrentHashMap<>();
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_CLIENTS);
+        HttpRequest login = HttpRequest.newBuilder(uri("/api/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"juan.perez@email.com\",\"password\":\"incorrecta\"}"))
+                .build();
+        for (int i = 0; i < FLOOD_CLIENTS; i++) {
+            flood.execute(() -> {
+                while (flooding.get()) {
+                    try {
+                        int status = client.send(login, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        loginStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    } catch (Exception e) {
+                        loginStatuses.computeIfAbsent(-1, s -> new LongAdder()).increment();
+                    }
+                }
+            });
+        }
+
+        long[] underFlood;
+        try {
+            Thread.sleep(1000);
+            underFlood = measureReads(userId);
+        } finally {
+            flooding.set(false);
+            flood.shutdown();
+            assertTrue(flood.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        System.out.printf("%nLectura sin carga:      %3d muestras  p50 %7.1f ms  p95 %7.1f ms  p99 %7.1f ms%n",
+                baseline.length, percentile(baseline, 50), percentile(baseline, 95), percentile(baseline, 99));
+        System.out.printf("Lectura durante ráfaga: %3d muestras  p50 %7.1f ms  p95 %7.1f ms  p99 %7.1f ms%n",
+                underFlood.length, percentile(underFlood, 50), percentile(underFlood, 95), percentile(underFlood, 99));
+        System.out.println("Respuestas de login por estado: " + loginStatuses);
+
+        // Sin aislamiento cada login ocupa un hilo de Tomcat con bcrypt y la lectura espera
+        // detrás de decenas de hashes; con el pool acotado solo compite con uno por núcleo
+        double allowed = Math.max(5 * percentile(baseline, 95), percentile(baseline, 95) + 100);
+        assertTrue(percentile(underFlood, 95) <= allowed,
+                "p95 de lectura durante la ráfaga: " + percentile(underFlood, 95) + " ms (máximo " + allowed + ")");
+    }
+
+    private long[] measureReads(Long userId) throws Exception {
+        HttpRequest read = HttpRequest.newBuilder(uri("/api/users/" + userId)).GET().build();
+        long[] nanos = new long[READ_SAMPLES];
+        int samples = 0;
+        long deadline = System.nanoTime() + READ_BUDGET_NANOS;
+        // Con las lecturas bloqueadas detrás de los logins se corta por tiempo en lugar de por muestras
+        while (samples < READ_SAMPLES && System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(read, HttpResponse.BodyHandlers.discarding());
+            nanos[samples++] = System.nanoTime() - start;
+            assertEquals(200, response.statusCode());
+        }
+        long[] measured = Arrays.copyOf(nanos, samples);
+        Arrays.sort(measured);
+        return measured;
+    }
+
+    private static double percentile(long[] sortedNanos, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,116 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.services.LoginRateLimiter;
+import com.prestabanco.services.LoginService;
+import com.prestabanco.services.UserService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoginRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final LoginRateLimiter rateLimiter = new LoginRateLimiter(3, 5, Duration.ofSeconds(60), clock::get);
+
+    @Test
+    void tryAcquire_ShouldRejectEmailOverLimitUntilOldestAttemptLeavesWindow() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("juan.perez@email.com", "10.0.0." + i));
+            advance(10);
+        }
+
+        // El intento más antiguo fue hace 30 s: faltan 30 s para liberar un cupo
+        assertEquals(30_000, rateLimiter.tryAcquire("juan.perez@email.com", "10.0.0.9"));
+        // Mayúsculas y espacios no abren una ventana nueva
+        assertTrue(rateLimiter.tryAcquire(" Juan.Perez@Email.com", "10.0.0.9") > 0);
+
+        advance(30);
+        assertEquals(0, rateLimiter.tryAcquire("juan.perez@email.com", "10.0.0.9"));
+        assertTrue(rateLimiter.tryAcquire("juan.perez@email.com", "10.0.0.9") > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldRejectIpOverLimitAcrossDifferentEmails() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("cliente" + i + "@email.com", "10.0.0.1"));
+        }
+
+        assertTrue(rateLimiter.tryAcquire("otro@email.com", "10.0.0.1") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("otro@email.com", "10.0.0.2"));
+    }
+
+    @Test
+    void tryAcquire_WhenRejectedByIp_ShouldNotConsumeEmailAttempts() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("cliente" + i + "@email.com", "10.0.0.1");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryAcquire("juan.perez@email.com", "10.0.0.1") > 0);
+        }
+
+        assertEquals(0, rateLimiter.tryAcquire("juan.perez@email.com", "10.0.0.2"));
+    }
+
+    @Test
+    void login_WhenThrottled_ShouldNotVerifyPassword() {
+        UserService userService = mock(UserService.class);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        try {
+            LoginService loginService = new LoginService(userService, rateLimiter, executor);
+            for (int i = 0; i < 3; i++) {
+                loginService.login("juan.perez@email.com", "incorrecta", "10.0.0.1")
+                        .exceptionally(e -> null).join();
+            }
+
+            LoginService.TooManyAttemptsException error = assertThrows(LoginService.TooManyAttemptsException.class,
+                    () -> loginService.login("juan.perez@email.com", "incorrecta", "10.0.0.1"));
+            assertTrue(error.getRetryAfterSeconds() >= 1);
+            verify(userService, times(3)).validateLogin(any(), any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void login_WhenPoolQueueIsFull_ShouldRejectImmediately() throws Exception {
+        UserService userService = mock(UserService.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.validateLogin(any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return new UserEntity();
+        });
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1),
+                new ThreadPoolExecutor.AbortPolicy());
+        try {
+            LoginService loginService = new LoginService(userService,
+                    new LoginRateLimiter(100, 100, Duration.ofSeconds(60), clock::get), executor);
+            CompletableFuture<UserEntity> running = loginService.login("a@email.com", "x", "10.0.0.1");
+            CompletableFuture<UserEntity> queued = loginService.login("b@email.com", "x", "10.0.0.1");
+
+            assertThrows(RejectedExecutionException.class,
+                    () -> loginService.login("c@email.com", "x", "10.0.0.1"));
+
+            release.countDown();
+            assertNotNull(running.get(5, TimeUnit.SECONDS));
+            assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void advance(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
@@ -0,0 +1,68 @@
+package com.prestabanco;
+
+import com.prestabanco.services.LoanCalculatorService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compara el camino rápido en punto fijo contra el camino de referencia en BigDecimal
+class MonthlyPaymentDifferentialTest {
+
+    private static final int ITERATIONS = Integer.getInteger("differential.iterations", 2_000_000);
+    private static final int RATE_TERM_PAIRS = 1500;
+
+    private final LoanCalculatorService calculatorService = new LoanCalculatorService();
+
+    @Test
+    void fastPath_ShouldMatchReferenceForRandomInputs() {
+        SplittableRandom random = new SplittableRandom(20241018L);
+
+        // Conjunto acotado de pares (tasa, plazo) para que quepan en el caché de factores
+        BigDecimal[] rates = new BigDecimal[RATE_TERM_PAIRS];
+        int[] years = new int[RATE_TERM_PAIRS];
+        for (int i = 0; i < RATE_TERM_PAIRS; i++) {
+            rates[i] = BigDecimal.valueOf(random.nextInt(1, 2501), 2); // 0.01% a 25.00%
+            years[i] = random.nextInt(1, 41);
+        }
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            int pair = random.nextInt(RATE_TERM_PAIRS);
+            // Montos log-uniformes entre 1 peso y 1e13 pesos
+            long amount = Math.max(1L, (long) Math.pow(10, random.nextDouble() * 13));
+            BigDecimal loanAmount = BigDecimal.valueOf(amount);
+
+            BigDecimal expected = calculatorService.calculateMonthlyPaymentExact(loanAmount, rates[pair], years[pair]);
+            BigDecimal actual = calculatorService.calculateMonthlyPayment(loanAmount, rates[pair], years[pair]);
+
+            if (!expected.equals(actual)) {
+                fail("Diferencia para monto " + amount + ", tasa " + rates[pair] + ", plazo " + years[pair]
+                        + ": esperado " + expected + ", obtenido " + actual);
+            }
+        }
+    }
+
+    @Test
+    void fastPath_ShouldFallBackForFractionalAmounts() {
+        long fallbacksBefore = calculatorService.getFastPathFallbackCount();
+
+        BigDecimal loanAmount = new BigDecimal("12345678.5");
+        BigDecimal rate = new BigDecimal("5.5");
+        BigDecimal expected = calculatorService.calculateMonthlyPaymentExact(loanAmount, rate, 20);
+
+        assertEquals(expected, calculatorService.calculateMonthlyPayment(loanAmount, rate, 20));
+        assertEquals(fallbacksBefore + 1, calculatorService.getFastPathFallbackCount());
+    }
+
+    @Test
+    void fastPath_ShouldAcceptAmountsWithTrailingZeros() {
+        long fallbacksBefore = calculatorService.getFastPathFallbackCount();
+
+        BigDecimal result = calculatorService.calculateMonthlyPayment(new BigDecimal("250000.00"), new BigDecimal("5.5"), 20);
+
+        assertEquals(0, result.scale());
+        assertEquals(fallbacksBefore, calculatorService.getFastPathFallbackCount());
+    }
+}
@@ -0,0 +1,52 @@
+package com.prestabanco;
+
+import com.prestabanco.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderTest {
+
+    private final SecurityConfig securityConfig = new SecurityConfig();
+
+    @Test
+    void legacyHashWithoutPrefix_ShouldMatchAndRequireUpgrade() {
+        PasswordEncoder encoder = securityConfig.passwordEncoder(10, 250);
+        // Formato de los hashes de pruebas.sql: bcrypt sin prefijo de algoritmo
+        String legacyHash = BCrypt.hashpw("password123", BCrypt.gensalt(10));
+
+        assertTrue(encoder.matches("password123", legacyHash));
+        assertFalse(encoder.matches("password124", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    void hashWithLowerCost_ShouldRequireUpgrade() {
+        PasswordEncoder encoder = securityConfig.passwordEncoder(11, 250);
+        String oldCost = securityConfig.passwordEncoder(10, 250).encode("admin123");
+
+        assertTrue(oldCost.startsWith("{bcrypt}$2a$10$"));
+        assertTrue(encoder.matches("admin123", oldCost));
+        assertTrue(encoder.upgradeEncoding(oldCost));
+    }
+
+    @Test
+    void currentHash_ShouldNotRequireUpgrade() {
+        PasswordEncoder encoder = securityConfig.passwordEncoder(10, 250);
+        String current = encoder.encode("exec123");
+
+        assertTrue(encoder.matches("exec123", current));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    @Test
+    void calibratedStrength_ShouldNotGoBelowMinimum() {
+        // Con costo 0 se mide el equipo; una latencia objetivo de 1 ms queda acotada al mínimo (10)
+        PasswordEncoder encoder = securityConfig.passwordEncoder(0, 1);
+
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + BCrypt.hashpw("x", BCrypt.gensalt(9))));
+        assertFalse(encoder.upgradeEncoding("{bcrypt}" + BCrypt.hashpw("x", BCrypt.gensalt(10))));
+    }
+}
@@ -0,0 +1,131 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+import com.prestabanco.entities.ApplicationEntity.PropertyType;
+import com.prestabanco.repositories.projections.PortfolioTotals;
+import com.prestabanco.repositories.projections.PropertyTypeTotals;
+import com.prestabanco.repositories.projections.StatusTotals;
+import com.prestabanco.services.ApplicationStatusCounters;
+import com.prestabanco.services.ApplicationStatusCounters.StatusCounts;
+import com.prestabanco.services.PortfolioStatsService;
+import com.prestabanco.services.PortfolioStatsService.PortfolioStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PortfolioStatsService.class, ApplicationStatusCounters.class})
+class PortfolioStatsServiceTest {
+
+    @Autowired
+    private PortfolioStatsService portfolioStatsService;
+
+    @Autowired
+    private ApplicationStatusCounters statusCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (rut, email) values ('12345678-9', 'juan.perez@email.com')");
+        long userId = jdbcTemplate.queryForObject("select id from users", Long.class);
+
+        // 3 IN_REVIEW, 2 APPROVED y 1 REJECTED; FIRST_HOME las pares y COMMERCIAL las impares
+        ApplicationStatus[] statuses = {ApplicationStatus.IN_REVIEW, ApplicationStatus.APPROVED,
+                ApplicationStatus.IN_REVIEW, ApplicationStatus.REJECTED, ApplicationStatus.IN_REVIEW,
+                ApplicationStatus.APPROVED};
+        for (int i = 0; i < statuses.length; i++) {
+            jdbcTemplate.update("insert into applications (user_id, status, property_type, requested_amount, term, "
+                            + "interest_rate) values (?, ?, ?, ?, ?, ?)",
+                    userId, statuses[i].ordinal(), (i % 2 == 0 ? PropertyType.FIRST_HOME : PropertyType.COMMERCIAL).ordinal(),
+                    100000000 + i * 10000000, 20 + i, i % 2 == 0 ? "4.00" : "6.00");
+        }
+        jdbcTemplate.update("insert into loans (user_id, property_type, requested_amount, term, interest_rate, "
+                + "simulation_date) values (?, 1, 50000000, 15, 5.0, ?)", userId, LocalDateTime.of(2024, 3, 1, 10, 0));
+        jdbcTemplate.update("insert into loans (user_id, property_type, requested_amount, term, interest_rate, "
+                + "simulation_date) values (?, 1, 70000000, 25, 6.0, ?)", userId, LocalDateTime.of(2024, 3, 2, 10, 0));
+    }
+
+    @Test
+    void getPortfolioStats_ShouldAggregateInTheDatabaseWithoutLoadingEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        PortfolioStats stats = portfolioStatsService.getPortfolioStats();
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(5, statistics.getPrepareStatementCount());
+
+        PortfolioTotals applications = stats.getApplications();
+        assertEquals(6, applications.count());
+        assertEquals(0, new BigDecimal("750000000").compareTo(applications.requestedAmount()));
+        assertEquals(5.0, applications.averageInterestRate(), 1e-9);
+        assertEquals(22.5, applications.averageTerm(), 1e-9);
+
+        assertEquals(List.of(ApplicationStatus.IN_REVIEW, ApplicationStatus.APPROVED, ApplicationStatus.REJECTED),
+                stats.getApplicationsByStatus().stream().map(StatusTotals::status).toList());
+        StatusTotals inReview = stats.getApplicationsByStatus().get(0);
+        assertEquals(3, inReview.count());
+        // Montos de i = 0, 2 y 4
+        assertEquals(0, new BigDecimal("360000000").compareTo(inReview.requestedAmount()));
+
+        List<PropertyTypeTotals> byType = stats.getApplicationsByPropertyType();
+        assertEquals(2, byType.size());
+        assertEquals(PropertyType.FIRST_HOME, byType.get(0).propertyType());
+        assertEquals(3, byType.get(0).count());
+        assertEquals(4.0, byType.get(0).averageInterestRate(), 1e-9);
+        assertEquals(22.0, byType.get(0).averageTerm(), 1e-9);
+        assertEquals(PropertyType.COMMERCIAL, byType.get(1).propertyType());
+        assertEquals(0, new BigDecimal("390000000").compareTo(byType.get(1).requestedAmount()));
+
+        assertEquals(2, stats.getLoans().count());
+        assertEquals(5.5, stats.getLoans().averageInterestRate(), 1e-9);
+        assertEquals(20.0, stats.getLoans().averageTerm(), 1e-9);
+        assertEquals(PropertyType.SECOND_HOME, stats.getLoansByPropertyType().get(0).propertyType());
+        assertEquals(0, new BigDecimal("120000000").compareTo(stats.getLoansByPropertyType().get(0).requestedAmount()));
+    }
+
+    @Test
+    void statusCounts_ShouldLoadFromDatabaseAndThenTrackChangesInMemory() {
+        StatusCounts loaded = portfolioStatsService.reconcileStatusCounts();
+        assertNotNull(loaded.getReconciledAt());
+        assertEquals(6, loaded.getTotal());
+        assertEquals(3L, loaded.getCounts().get(ApplicationStatus.IN_REVIEW));
+        assertEquals(0L, loaded.getCounts().get(ApplicationStatus.CANCELLED));
+
+        statusCounters.created(ApplicationStatus.IN_REVIEW);
+        statusCounters.changed(ApplicationStatus.IN_REVIEW, ApplicationStatus.APPROVED);
+        statusCounters.changed(ApplicationStatus.APPROVED, ApplicationStatus.APPROVED);
+        statusCounters.deleted(ApplicationStatus.REJECTED);
+        statusCounters.created(null);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatusCounts counts = portfolioStatsService.getStatusCounts();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(6, counts.getTotal());
+        assertEquals(3L, counts.getCounts().get(ApplicationStatus.IN_REVIEW));
+        assertEquals(3L, counts.getCounts().get(ApplicationStatus.APPROVED));
+        assertEquals(0L, counts.getCounts().get(ApplicationStatus.REJECTED));
+    }
+}
@@ -0,0 +1,177 @@
+package com.prestabanco;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.DocumentEntity;
+import com.prestabanco.entities.LoanEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.projections.ApplicationSummary;
+import com.prestabanco.repositories.projections.LoanSummary;
+import com.prestabanco.repositories.projections.SavingsView;
+import com.prestabanco.services.ApplicationService;
+import com.prestabanco.services.ApplicationStatusCounters;
+import com.prestabanco.services.ColumnPatcher;
+import com.prestabanco.services.DocumentService;
+import com.prestabanco.services.LoanService;
+import com.prestabanco.services.SavingsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ApplicationService.class, ApplicationStatusCounters.class, LoanService.class, SavingsService.class, ColumnPatcher.class})
+class ProjectionQueriesTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    // ApplicationService lo usa solo al borrar solicitudes
+    @MockBean
+    private DocumentService documentService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private SavingsService savingsService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Statistics statistics;
+    private UserEntity user;
+    private ApplicationEntity withDocuments;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = new UserEntity();
+        user.setFirstName("Juan");
+        user.setLastName("Pérez");
+        user.setEmail("juan.perez@email.com");
+        user.setPassword("$2a$10$hashDePrueba");
+        entityManager.persist(user);
+
+        withDocuments = new ApplicationEntity();
+        withDocuments.setUser(user);
+        withDocuments.setStatus(ApplicationEntity.ApplicationStatus.IN_REVIEW);
+        withDocuments.setPropertyType(ApplicationEntity.PropertyType.FIRST_HOME);
+        withDocuments.setRequestedAmount(new BigDecimal("100000000"));
+        entityManager.persist(withDocuments);
+
+        DocumentEntity document = new DocumentEntity();
+        document.setApplicationId(withDocuments.getId());
+        document.setDocumentType("incomeProof");
+        document.setFileName("liquidacion.pdf");
+        document.setContentHash("0".repeat(64));
+        entityManager.persist(document);
+
+        ApplicationEntity withoutDocuments = new ApplicationEntity();
+        withoutDocuments.setUser(user);
+        withoutDocuments.setStatus(ApplicationEntity.ApplicationStatus.IN_REVIEW);
+        entityManager.persist(withoutDocuments);
+
+        LoanEntity loan = new LoanEntity();
+        loan.setUser(user);
+        loan.setPropertyType(ApplicationEntity.PropertyType.COMMERCIAL);
+        loan.setMonthlyPayment(new BigDecimal("650000"));
+        entityManager.persist(loan);
+
+        SavingsEntity savings = new SavingsEntity();
+        savings.setUser(user);
+        savings.setAccountNumber("1234567890");
+        savings.setCurrentBalance(new BigDecimal("30000"));
+        entityManager.persist(savings);
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void applicationSummaries_ShouldCarryUserIdAndNameWithoutDocuments() throws Exception {
+        List<ApplicationSummary> summaries = applicationService.getApplicationSummariesByUserId(user.getId());
+
+        assertEquals(2, summaries.size());
+        assertEquals(user.getId(), summaries.get(0).userId());
+        assertEquals("Juan Pérez", summaries.get(0).userName());
+        assertTrue(summaries.get(0).hasDocuments());
+        assertFalse(summaries.get(1).hasDocuments());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        String json = objectMapper.writeValueAsString(summaries);
+        assertFalse(json.contains("password"));
+        assertFalse(json.contains("liquidacion.pdf"));
+    }
+
+    @Test
+    void applicationsPage_ShouldFlagApplicationsWithDocuments() {
+        List<ApplicationSummary> page = applicationService.getApplicationsPage(null, 10, null, null).getItems();
+
+        assertEquals(2, page.size());
+        assertEquals(withDocuments.getId(), page.get(0).id());
+        assertTrue(page.get(0).hasDocuments());
+        assertFalse(page.get(1).hasDocuments());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void loanSummaries_ShouldFilterByPropertyType() {
+        List<LoanSummary> all = loanService.getLoanSummariesByUserId(user.getId(), null);
+        List<LoanSummary> firstHome = loanService.getLoanSummariesByUserId(
+                user.getId(), ApplicationEntity.PropertyType.FIRST_HOME);
+
+        assertEquals(1, all.size());
+        assertEquals("Juan Pérez", all.get(0).userName());
+        assertEquals(0, new BigDecimal("650000").compareTo(all.get(0).monthlyPayment()));
+        assertTrue(firstHome.isEmpty());
+    }
+
+    @Test
+    void savingsView_ShouldExposeUserIdOnly() throws Exception {
+        Optional<SavingsView> view = savingsService.getSavingsViewByUserId(user.getId());
+
+        assertTrue(view.isPresent());
+        assertEquals(user.getId(), view.get().userId());
+        assertEquals("1234567890", view.get().accountNumber());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(objectMapper.writeValueAsString(view.get()).contains("password"));
+    }
+
+    @Test
+    void userEntity_ShouldNeverSerializePasswordHash() throws Exception {
+        UserEntity loaded = entityManager.find(UserEntity.class, user.getId());
+
+        String json = objectMapper.writeValueAsString(loaded);
+
+        assertFalse(json.contains("password"));
+        UserEntity parsed = objectMapper.readValue("{\"email\":\"a@b.cl\",\"password\":\"secreta\"}", UserEntity.class);
+        assertEquals("secreta", parsed.getPassword());
+    }
+}
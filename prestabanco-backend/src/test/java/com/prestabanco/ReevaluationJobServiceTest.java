@@ -0,0 +1,171 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.ApplicationEntity.ApplicationStatus;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.SavingsRepository;
+import com.prestabanco.services.ApplicationStatusCounters;
+import com.prestabanco.services.CreditEvaluationService;
+import com.prestabanco.services.LoanCalculatorService;
+import com.prestabanco.services.ReevaluationJobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReevaluationJobServiceTest {
+
+    private ApplicationRepository applicationRepository;
+    private SavingsRepository savingsRepository;
+    private CreditEvaluationService evaluationService;
+    private ApplicationStatusCounters statusCounters;
+    private JdbcTemplate jdbcTemplate;
+    private ExecutorService executor;
+    private ReevaluationJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        applicationRepository = mock(ApplicationRepository.class);
+        savingsRepository = mock(SavingsRepository.class);
+        evaluationService = mock(CreditEvaluationService.class);
+        statusCounters = mock(ApplicationStatusCounters.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        executor = Executors.newFixedThreadPool(2);
+        jobService = new ReevaluationJobService(applicationRepository, savingsRepository,
+                new LoanCalculatorService(), evaluationService, statusCounters, jdbcTemplate, executor, 2);
+
+        // Las solicitudes con id par se aprueban, las impares se rechazan
+        when(evaluationService.evaluateApplication(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ApplicationEntity application = invocation.getArgument(0);
+                    boolean approved = application.getId() % 2 == 0;
+                    return new CreditEvaluationService.CreditEvaluationResult(approved, List.of(), "");
+                });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> rows = invocation.getArgument(1);
+                    int[] counts = new int[rows.size()];
+                    Arrays.fill(counts, 1);
+                    return counts;
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ApplicationEntity application(long id, ApplicationStatus status) {
+        UserEntity user = new UserEntity();
+        user.setId(100 + id);
+
+        ApplicationEntity application = new ApplicationEntity();
+        application.setId(id);
+        application.setUser(user);
+        application.setRequestedAmount(new BigDecimal("100000000"));
+        application.setInterestRate(new BigDecimal("4.5"));
+        application.setTerm(20);
+        application.setStatus(status);
+        return application;
+    }
+
+    @Test
+    void start_ShouldPageByIdAndWriteOnlyChangedStatuses() throws Exception {
+        List<ApplicationEntity> firstPage = List.of(
+                application(1, ApplicationStatus.IN_EVALUATION),
+                application(2, ApplicationStatus.IN_EVALUATION));
+        List<ApplicationEntity> secondPage = List.of(
+                application(3, ApplicationStatus.PRE_APPROVED));
+        when(applicationRepository.countByStatusInAndIdGreaterThan(anyCollection(), eq(0L))).thenReturn(3L);
+        when(applicationRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(anyCollection(), eq(0L), any(Limit.class)))
+                .thenReturn(firstPage);
+        when(applicationRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(anyCollection(), eq(2L), any(Limit.class)))
+                .thenReturn(secondPage);
+        SavingsEntity savings = new SavingsEntity();
+        savings.setUser(firstPage.get(0).getUser());
+        when(savingsRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(savings));
+
+        jobService.start(0);
+        assertTrue(jobService.awaitTermination(Duration.ofSeconds(10)));
+
+        ReevaluationJobService.JobProgress progress = jobService.getProgress();
+        assertEquals(ReevaluationJobService.JobStatus.COMPLETED, progress.getStatus());
+        assertEquals(3, progress.getTotal());
+        assertEquals(3, progress.getProcessed());
+        assertEquals(2, progress.getChanged());
+        assertEquals(0, progress.getFailed());
+        assertEquals(3, progress.getLastProcessedId());
+
+        // Un SELECT de ahorros por página, no uno por solicitud
+        verify(savingsRepository, times(2)).findByUserIdIn(anyCollection());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+        List<Object[]> written = new ArrayList<>();
+        rows.getAllValues().forEach(written::addAll);
+        assertEquals(2, written.size());
+        assertArrayEquals(new Object[]{ApplicationStatus.PRE_APPROVED.ordinal(), 2L, ApplicationStatus.IN_EVALUATION.ordinal()},
+                written.get(0));
+        assertArrayEquals(new Object[]{ApplicationStatus.IN_EVALUATION.ordinal(), 3L, ApplicationStatus.PRE_APPROVED.ordinal()},
+                written.get(1));
+
+        // Cada UPDATE aplicado mueve una solicitud entre los contadores por estado
+        verify(statusCounters).changed(ApplicationStatus.IN_EVALUATION, ApplicationStatus.PRE_APPROVED);
+        verify(statusCounters).changed(ApplicationStatus.PRE_APPROVED, ApplicationStatus.IN_EVALUATION);
+        verifyNoMoreInteractions(statusCounters);
+    }
+
+    @Test
+    void start_WhenEvaluationFails_ShouldCountFailureAndContinue() throws Exception {
+        ApplicationEntity broken = application(1, ApplicationStatus.IN_EVALUATION);
+        broken.setRequestedAmount(null);
+        when(applicationRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(anyCollection(), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(broken, application(2, ApplicationStatus.IN_EVALUATION)));
+        when(savingsRepository.findByUserIdIn(anyCollection())).thenReturn(Collections.emptyList());
+
+        jobService.start(0);
+        assertTrue(jobService.awaitTermination(Duration.ofSeconds(10)));
+
+        ReevaluationJobService.JobProgress progress = jobService.getProgress();
+        assertEquals(ReevaluationJobService.JobStatus.COMPLETED, progress.getStatus());
+        assertEquals(1, progress.getFailed());
+        assertEquals(1, progress.getChanged());
+    }
+
+    @Test
+    void start_FromId_ShouldResumeAfterThatId() throws Exception {
+        when(applicationRepository.findByStatusInAndIdGreaterThanOrderByIdAsc(anyCollection(), eq(50L), any(Limit.class)))
+                .thenReturn(Collections.emptyList());
+
+        jobService.start(50);
+        assertTrue(jobService.awaitTermination(Duration.ofSeconds(10)));
+
+        verify(applicationRepository).findByStatusInAndIdGreaterThanOrderByIdAsc(anyCollection(), eq(50L), any(Limit.class));
+        assertEquals(ReevaluationJobService.JobStatus.COMPLETED, jobService.getProgress().getStatus());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void pause_WhenIdle_ShouldThrow() {
+        assertThrows(IllegalStateException.class, () -> jobService.pause());
+        assertEquals(ReevaluationJobService.JobStatus.IDLE, jobService.getProgress().getStatus());
+    }
+}
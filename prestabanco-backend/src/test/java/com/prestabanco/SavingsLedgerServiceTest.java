@@ -0,0 +1,139 @@
+package com.prestabanco;
+
+import com.prestabanco.services.SavingsLedger.Aggregates;
+import com.prestabanco.services.SavingsLedgerService;
+import com.prestabanco.services.SavingsLedgerService.RebuildResult;
+import com.prestabanco.services.SavingsLedgerService.TransactionRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(SavingsLedgerService.class)
+class SavingsLedgerServiceTest {
+
+    private static final String AGGREGATE_COLUMNS = "select current_balance, last_transaction_date, "
+            + "monthly_deposits_count, monthly_deposits_amount, largest_withdrawal_last6months, largest_withdrawal_date, "
+            + "consecutive_months_with_balance, significant_withdrawals_count, last_six_months_average_balance, "
+            + "balance_positive_since from savings where id = ?";
+
+    @Autowired
+    private SavingsLedgerService savingsLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long savingsId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into users (rut, email) values ('12345678-9', 'juan.perez@email.com')");
+        savingsId = createSavings("000123", "0");
+    }
+
+    private long createSavings(String accountNumber, String balance) {
+        jdbcTemplate.update("insert into savings (user_id, account_number, current_balance, opening_date) "
+                        + "values ((select id from users), ?, ?, ?)",
+                accountNumber, new BigDecimal(balance), LocalDateTime.of(2025, 12, 1, 9, 0));
+        return jdbcTemplate.queryForObject("select id from savings where account_number = ?", Long.class, accountNumber);
+    }
+
+    private Aggregates record(String type, String amount, LocalDateTime occurredAt) {
+        return savingsLedgerService.record(savingsId, new TransactionRequest(type, new BigDecimal(amount), occurredAt));
+    }
+
+    private void recordHistory() {
+        record("DEPOSIT", "1000", LocalDateTime.of(2026, 1, 10, 10, 0));
+        record("DEPOSIT", "500", LocalDateTime.of(2026, 2, 5, 10, 0));
+        record("WITHDRAWAL", "900", LocalDateTime.of(2026, 2, 20, 10, 0));
+        record("DEPOSIT", "400", LocalDateTime.of(2026, 4, 1, 10, 0));
+    }
+
+    @Test
+    void record_ShouldUpdateAggregatesOverTheSixMonthWindow() {
+        recordHistory();
+
+        // Ventana nov–abr: nov y dic son anteriores a la cuenta; marzo arrastra el cierre de febrero
+        Map<String, Object> savings = jdbcTemplate.queryForMap(AGGREGATE_COLUMNS, savingsId);
+        assertEquals(0, new BigDecimal("1000").compareTo((BigDecimal) savings.get("current_balance")));
+        assertEquals(0, new BigDecimal("800.00").compareTo((BigDecimal) savings.get("last_six_months_average_balance")));
+        assertEquals(0, new BigDecimal("475.00").compareTo((BigDecimal) savings.get("monthly_deposits_amount")));
+        assertEquals(0, new BigDecimal("900").compareTo((BigDecimal) savings.get("largest_withdrawal_last6months")));
+        assertEquals(1, ((Number) savings.get("significant_withdrawals_count")).intValue());
+        assertEquals(4, ((Number) savings.get("consecutive_months_with_balance")).intValue());
+    }
+
+    @Test
+    void record_WhenWindowSlides_ShouldDropOldWithdrawals() {
+        recordHistory();
+
+        Aggregates aggregates = record("WITHDRAWAL", "100", LocalDateTime.of(2026, 8, 15, 10, 0));
+
+        // Ventana mar–ago: el retiro de febrero ya no cuenta, pero su saldo al cierre sí
+        assertEquals(0, new BigDecimal("900").compareTo(aggregates.currentBalance()));
+        assertEquals(0, new BigDecimal("100").compareTo(aggregates.largestWithdrawalLast6Months()));
+        assertEquals(LocalDateTime.of(2026, 8, 15, 10, 0), aggregates.largestWithdrawalDate());
+        assertEquals(0, aggregates.significantWithdrawalsCount());
+        assertEquals(0, new BigDecimal("916.67").compareTo(aggregates.lastSixMonthsAverageBalance()));
+        assertEquals(0, new BigDecimal("66.67").compareTo(aggregates.monthlyDepositsAmount()));
+        assertEquals(8, aggregates.consecutiveMonthsWithBalance());
+    }
+
+    @Test
+    void record_OnAccountWithBalance_ShouldAddOpeningBalance() {
+        savingsId = createSavings("000456", "2000");
+
+        Aggregates aggregates = record("WITHDRAWAL", "1500", LocalDateTime.of(2026, 1, 10, 10, 0));
+
+        assertEquals(0, new BigDecimal("500").compareTo(aggregates.currentBalance()));
+        assertEquals(1, aggregates.significantWithdrawalsCount());
+        assertEquals(0, aggregates.monthlyDepositsCount());
+        assertEquals(2, aggregates.consecutiveMonthsWithBalance());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select count(*) from savings_transactions where savings_id = ?", Integer.class, savingsId));
+    }
+
+    @Test
+    void record_WithInvalidMovements_ShouldBeRejected() {
+        record("DEPOSIT", "1000", LocalDateTime.of(2026, 3, 1, 10, 0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> record("DEPOSIT", "10", LocalDateTime.of(2026, 2, 1, 10, 0)));
+        assertThrows(IllegalStateException.class,
+                () -> record("WITHDRAWAL", "1000.01", LocalDateTime.of(2026, 3, 2, 10, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> record("OPENING_BALANCE", "10", LocalDateTime.of(2026, 3, 2, 10, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> record("DEPOSIT", "0", LocalDateTime.of(2026, 3, 2, 10, 0)));
+    }
+
+    @Test
+    void rebuild_ShouldMatchIncrementalAggregates() {
+        recordHistory();
+        record("WITHDRAWAL", "100", LocalDateTime.of(2026, 8, 15, 10, 0));
+        Map<String, Object> incremental = jdbcTemplate.queryForMap(AGGREGATE_COLUMNS, savingsId);
+        int months = jdbcTemplate.queryForObject("select count(*) from savings_ledger_months", Integer.class);
+
+        jdbcTemplate.update("update savings set current_balance = 0, consecutive_months_with_balance = 0, "
+                + "last_six_months_average_balance = null where id = ?", savingsId);
+        RebuildResult result = savingsLedgerService.rebuild(null);
+
+        assertEquals(1, result.getAccounts());
+        assertEquals(5, result.getTransactions());
+        assertEquals(incremental, jdbcTemplate.queryForMap(AGGREGATE_COLUMNS, savingsId));
+        assertEquals(months, jdbcTemplate.queryForObject("select count(*) from savings_ledger_months", Integer.class));
+
+        // Tras reconstruir, los movimientos siguientes parten de los resúmenes reescritos
+        Aggregates next = record("DEPOSIT", "100", LocalDateTime.of(2026, 8, 20, 10, 0));
+        assertEquals(0, new BigDecimal("1000").compareTo(next.currentBalance()));
+    }
+}
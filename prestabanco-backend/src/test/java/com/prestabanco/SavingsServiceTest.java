@@ -2,6 +2,7 @@ package com.prestabanco;
 
 import com.prestabanco.entities.SavingsEntity;
 import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.CreditEvaluationRepository;
 import com.prestabanco.repositories.SavingsRepository;
 import com.prestabanco.services.SavingsService;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +26,9 @@ class SavingsServiceTest {
     @Mock
     private SavingsRepository savingsRepository;
 
+    @Mock
+    private CreditEvaluationRepository evaluationRepository;
+
     @InjectMocks
     private SavingsService savingsService;
 
@@ -144,6 +148,7 @@ class SavingsServiceTest {
         assertEquals(new BigDecimal("1500000"), result.getCurrentBalance());
         assertEquals(6, result.getMonthlyDepositsCount());
         verify(savingsRepository).save(testSavings);
+        verify(evaluationRepository).deleteBySavingsId(testSavings.getId());
     }
 
     @Test
@@ -153,6 +158,7 @@ class SavingsServiceTest {
         savingsService.deleteSavings(1L);
 
         verify(savingsRepository).deleteById(1L);
+        verify(evaluationRepository).deleteBySavingsId(1L);
     }
 
     @Test
@@ -192,4 +198,29 @@ class SavingsServiceTest {
         assertEquals(withdrawalDate, result.getLargestWithdrawalDate());
         assertTrue(result.getCurrentBalance().compareTo(new BigDecimal("500000")) == 0);
     }
+
+    @Test
+    void updateSavings_OnExistingAccount_ShouldKeepLedgerFields() {
+        SavingsEntity stored = new SavingsEntity();
+        stored.setId(1L);
+        stored.setUser(testUser);
+        stored.setAccountNumber("123456789");
+        stored.setCurrentBalance(new BigDecimal("1000000"));
+        stored.setConsecutiveMonthsWithBalance(12);
+        stored.setLargestWithdrawalLast6Months(new BigDecimal("200000"));
+        when(savingsRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(savingsRepository.save(any(SavingsEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        testSavings.setAccountNumber("987654321");
+        testSavings.setCurrentBalance(new BigDecimal("9999999"));
+        testSavings.setConsecutiveMonthsWithBalance(60);
+        testSavings.setLargestWithdrawalLast6Months(BigDecimal.ZERO);
+
+        SavingsEntity result = savingsService.updateSavings(testSavings);
+
+        assertEquals("987654321", result.getAccountNumber());
+        assertEquals(new BigDecimal("1000000"), result.getCurrentBalance());
+        assertEquals(12, result.getConsecutiveMonthsWithBalance());
+        assertEquals(new BigDecimal("200000"), result.getLargestWithdrawalLast6Months());
+    }
 }
@@ -0,0 +1,165 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.UserRepository;
+import com.prestabanco.services.ContentAddressedStore;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Flyway crea el esquema de la base embebida con las mismas migraciones que producción
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // H2 marca con "tableScan" los recorridos completos de la tabla
+    private void assertIndexed(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    private List<String> indexNames(String table) {
+        return jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_name = ?", String.class, table);
+    }
+
+    @Test
+    void migrations_ShouldBeAppliedInOrder() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"version\" is not null order by \"installed_rank\"",
+                String.class);
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8"), versions);
+    }
+
+    @Test
+    void migrations_ShouldCreateLookupIndexes() {
+        assertTrue(indexNames("APPLICATIONS").contains("IDX_APPLICATIONS_USER_ID"));
+        assertTrue(indexNames("LOANS").contains("IDX_LOANS_USER_ID_PROPERTY_TYPE"));
+        assertTrue(indexNames("SAVINGS").contains("IDX_SAVINGS_USER_ID"));
+        assertTrue(indexNames("SAVINGS").stream().anyMatch(name -> name.startsWith("UK_SAVINGS_ACCOUNT_NUMBER")));
+        assertTrue(indexNames("USERS").stream().anyMatch(name -> name.startsWith("UK_USERS_EMAIL")));
+        assertTrue(indexNames("USERS").stream().anyMatch(name -> name.startsWith("UK_USERS_RUT")));
+        assertTrue(indexNames("DOCUMENTS").contains("IDX_DOCUMENTS_CONTENT_HASH"));
+        assertTrue(indexNames("SAVINGS_TRANSACTIONS").contains("IDX_SAVINGS_TRANSACTIONS_SAVINGS_ID_OCCURRED_AT"));
+    }
+
+    @Test
+    void lookups_ShouldNotScanWholeTables() {
+        assertIndexed("select * from applications where user_id = 1");
+        assertIndexed("select * from loans where user_id = 1 and property_type = 0");
+        assertIndexed("select * from savings where user_id = 1");
+        assertIndexed("select * from savings where account_number = '000123'");
+        assertIndexed("select * from users where email = 'juan.perez@email.com'");
+        assertIndexed("select * from users where rut = '12345678-9'");
+    }
+
+    @Test
+    void users_WithDuplicateEmail_ShouldBeRejected() {
+        UserEntity first = new UserEntity();
+        first.setRut("12345678-9");
+        first.setEmail("juan.perez@email.com");
+        userRepository.saveAndFlush(first);
+
+        UserEntity duplicate = new UserEntity();
+        duplicate.setRut("98765432-1");
+        duplicate.setEmail("juan.perez@email.com");
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(duplicate));
+    }
+
+    @Test
+    void legacyDocuments_ShouldMoveToStoreAndDropColumn(@TempDir Path storageDir) throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:documentos-legados;DB_CLOSE_DELAY=-1");
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("3").load().migrate();
+        legacy.update("insert into users (email) values ('juan.perez@email.com')");
+        String pdf = Base64.getEncoder().encodeToString("%PDF-1.4 liquidación".getBytes(StandardCharsets.UTF_8));
+        legacy.update("insert into applications (user_id, documents) values ((select id from users), ?)",
+                "{\"incomeProof\":{\"name\":\"liquidacion.pdf\",\"type\":\"application/pdf\","
+                        + "\"content\":\"data:application/pdf;base64," + pdf + "\"}}");
+
+        Flyway.configure().dataSource(dataSource)
+                .placeholders(Map.of("documents-dir", storageDir.toString()))
+                .load().migrate();
+
+        Map<String, Object> document = legacy.queryForMap(
+                "select document_type, file_name, content_type, file_size, content_hash from documents");
+        assertEquals("incomeProof", document.get("DOCUMENT_TYPE"));
+        assertEquals("liquidacion.pdf", document.get("FILE_NAME"));
+        assertEquals("application/pdf", document.get("CONTENT_TYPE"));
+        String hash = (String) document.get("CONTENT_HASH");
+        assertEquals("%PDF-1.4 liquidación",
+                Files.readString(new ContentAddressedStore(storageDir).resolve(hash)));
+        assertEquals(0, legacy.queryForObject("select count(*) from information_schema.columns "
+                + "where table_name = 'APPLICATIONS' and column_name = 'DOCUMENTS'", Integer.class));
+        legacy.execute("SHUTDOWN");
+    }
+
+    @Test
+    void baselinedDatabase_ShouldReceiveTablesAddedAfterBaseline(@TempDir Path storageDir) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:linea-base;DB_CLOSE_DELAY=-1");
+        JdbcTemplate existing = new JdbcTemplate(dataSource);
+
+        // Base creada por Hibernate antes de las migraciones: el esquema de V1, sin historial de Flyway
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql"))
+                .execute(dataSource);
+        existing.update("insert into users (email) values ('juan.perez@email.com')");
+        existing.update("insert into applications (user_id) values ((select id from users))");
+
+        Flyway.configure().dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .placeholders(Map.of("documents-dir", storageDir.toString()))
+                .load().migrate();
+
+        // V1 queda como línea base y se aplican todas las siguientes
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8"), existing.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"version\" is not null order by \"installed_rank\"",
+                String.class));
+        existing.update("insert into credit_evaluations (application_id, fingerprint) "
+                + "values ((select id from applications), ?)", "0".repeat(64));
+        assertEquals(1, existing.queryForObject("select count(*) from credit_evaluations", Integer.class));
+        existing.execute("SHUTDOWN");
+    }
+
+    @Test
+    void sequenceIds_ShouldContinueAfterExistingRows() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:ids-por-secuencia;DB_CLOSE_DELAY=-1");
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("4").load().migrate();
+        legacy.update("insert into users (email) values ('a@email.com'), ('b@email.com'), ('c@email.com')");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        // Un INSERT sin id toma el siguiente valor de la secuencia, que avanza de a 50
+        legacy.update("insert into users (email) values ('d@email.com')");
+        assertEquals(4L, legacy.queryForObject("select id from users where email = 'd@email.com'", Long.class));
+        assertEquals(54L, legacy.queryForObject("select next value for users_seq", Long.class));
+        assertEquals(1L, legacy.queryForObject("select next value for savings_seq", Long.class));
+        legacy.execute("SHUTDOWN");
+    }
+}
@@ -0,0 +1,63 @@
+package com.prestabanco;
+
+import com.prestabanco.services.LoanCalculatorService;
+import com.prestabanco.services.SimulationGridService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class SimulationGridServiceTest {
+
+    @Spy
+    private LoanCalculatorService calculatorService = new LoanCalculatorService();
+
+    @InjectMocks
+    private SimulationGridService gridService;
+
+    @Test
+    void simulateGrid_ShouldMatchSingleCellCalculations() {
+        BigDecimal amount = new BigDecimal("80000000");
+
+        SimulationGridService.SimulationGrid grid = gridService.simulateGrid(amount,
+                new BigDecimal("3.0"), new BigDecimal("10.0"), new BigDecimal("0.1"), 5, 30, 1);
+
+        assertEquals(71, grid.getRates().size());
+        assertEquals(26, grid.getTerms().length);
+        assertEquals(71 * 26, grid.getMonthlyPayments().length);
+        assertEquals(0, new BigDecimal("10.0").compareTo(grid.getRates().get(70)));
+        // La grilla no pasa por el caché de factores compartido
+        assertEquals(0, calculatorService.getFactorCacheSize());
+
+        for (int i = 0; i < grid.getRates().size(); i += 7) {
+            for (int j = 0; j < grid.getTerms().length; j += 5) {
+                BigDecimal rate = grid.getRates().get(i);
+                int years = grid.getTerms()[j];
+                int cell = i * grid.getTerms().length + j;
+
+                assertEquals(calculatorService.calculateMonthlyPayment(amount, rate, years).longValueExact(),
+                        grid.getMonthlyPayments()[cell]);
+                assertEquals(calculatorService.calculateTotalCost(amount, rate, years).longValueExact(),
+                        grid.getTotalCosts()[cell]);
+            }
+        }
+    }
+
+    @Test
+    void simulateGrid_WithInvalidRanges_ShouldThrowException() {
+        BigDecimal amount = new BigDecimal("80000000");
+
+        assertThrows(IllegalArgumentException.class, () -> gridService.simulateGrid(amount,
+                new BigDecimal("10.0"), new BigDecimal("3.0"), new BigDecimal("0.1"), 5, 30, 1));
+        assertThrows(IllegalArgumentException.class, () -> gridService.simulateGrid(amount,
+                new BigDecimal("3.0"), new BigDecimal("10.0"), new BigDecimal("0.1"), 30, 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> gridService.simulateGrid(amount,
+                new BigDecimal("0.01"), new BigDecimal("20.0"), new BigDecimal("0.01"), 1, 40, 1));
+    }
+}
@@ -0,0 +1,80 @@
+package com.prestabanco;
+
+import com.prestabanco.config.ExecutorConfig;
+import com.prestabanco.config.SqlStatementCounter;
+import com.prestabanco.config.SqlStatementMetricsInterceptor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlStatementMetricsInterceptor interceptor = new SqlStatementMetricsInterceptor(registry);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void afterCompletion_ShouldRecordStatementsByUriPattern() {
+        MockHttpServletRequest request = request("GET", "/api/users/{id}");
+
+        interceptor.preHandle(request, response, null);
+        SqlStatementCounter.INSTANCE.inspect("select 1");
+        SqlStatementCounter.INSTANCE.inspect("select 2");
+        interceptor.afterCompletion(request, response, null, null);
+
+        // Fuera de una petición no se cuenta nada
+        SqlStatementCounter.INSTANCE.inspect("select 3");
+
+        DistributionSummary summary = summary("GET", "/api/users/{id}");
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void asyncRequest_ShouldCountStatementsFromLoginPoolAndRecordOnAsyncDispatch() throws Exception {
+        ExecutorService loginExecutor = new ExecutorConfig().loginExecutor(1, 4);
+        try {
+            MockHttpServletRequest request = request("POST", "/api/users/login");
+
+            interceptor.preHandle(request, response, null);
+            CompletableFuture<Void> login = CompletableFuture.runAsync(
+                    () -> SqlStatementCounter.INSTANCE.inspect("select * from users where email = ?"), loginExecutor);
+            interceptor.afterConcurrentHandlingStarted(request, response, null);
+            login.get();
+            assertTrue(registry.find("prestabanco.http.server.requests.sql").summaries().isEmpty());
+
+            request.setDispatcherType(DispatcherType.ASYNC);
+            interceptor.preHandle(request, response, null);
+            SqlStatementCounter.INSTANCE.inspect("update users set password = ?");
+            interceptor.afterCompletion(request, response, null, null);
+
+            DistributionSummary summary = summary("POST", "/api/users/login");
+            assertEquals(1, summary.count());
+            assertEquals(2, summary.totalAmount());
+        } finally {
+            loginExecutor.shutdownNow();
+        }
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        return registry.get("prestabanco.http.server.requests.sql")
+                .tag("method", method)
+                .tag("uri", uri)
+                .summary();
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
@@ -0,0 +1,290 @@
+package com.prestabanco;
+
+import com.prestabanco.entities.ApplicationEntity;
+import com.prestabanco.entities.SavingsEntity;
+import com.prestabanco.entities.UserEntity;
+import com.prestabanco.repositories.ApplicationRepository;
+import com.prestabanco.repositories.SavingsRepository;
+import com.prestabanco.repositories.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Benchmark de los dos modos de ejecución: ./mvnw test -Dgroups=load -DexcludedGroups=none -Dtest=ThreadingModeLoadTest
+// (la JVM de las pruebas debe ser Java 21+). Levanta la aplicación dos veces, con hilos de plataforma
+// y con hilos virtuales, sobre H2 con una latencia fija por sentencia JDBC que simula la ida y vuelta
+// a PostgreSQL. Clientes concurrentes evalúan solicitudes y leen el listado; se reporta throughput,
+// p50 y p99 de cada modo. En el modo virtual se registran con JFR los hilos virtuales fijados a su
+// portador (jdk.VirtualThreadPinned), que deben ser cero.
+@Tag("load")
+class ThreadingModeLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 600);
+    private static final long STATEMENT_LATENCY_MILLIS = Long.getLong("load.statement-latency-ms", 100);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("load.measurement-seconds", 15));
+
+    private static final Set<Class<?>> JDBC_TYPES =
+            Set.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class);
+
+    private record RunResult(String mode, long requests, long errors, double seconds,
+                             double p50Millis, double p99Millis, long pinnedEvents) {
+        double throughput() {
+            return requests / seconds;
+        }
+    }
+
+    @Test
+    void compareThroughputAndTailLatency() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Los hilos virtuales requieren Java 21 o superior");
+
+        RunResult platform = run(false);
+        RunResult virtual = run(true);
+
+        System.out.printf("%n%d clientes, %d ms por sentencia JDBC, %d s de medición%n",
+                CLIENTS, STATEMENT_LATENCY_MILLIS, MEASUREMENT.toSeconds());
+        System.out.println("modo        peticiones   req/s     p50 ms     p99 ms   errores  fijados");
+        for (RunResult result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %11d %7.1f %10.1f %10.1f %9d %8d%n", result.mode(), result.requests(),
+                    result.throughput(), result.p50Millis(), result.p99Millis(), result.errors(), result.pinnedEvents());
+        }
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertEquals(0, virtual.pinnedEvents(), "hilos virtuales fijados a su portador durante JDBC");
+    }
+
+    private RunResult run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "plataforma";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                PrestabancoAppApplication.class, SlowJdbcDataSource.class)
+                .run(
+                        "--server.port=0",
+                        "--management.server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--prestabanco.documents.storage-dir=target/load-test-documents",
+                        "--prestabanco.security.bcrypt.strength=10",
+                        "--load.database=threading-" + mode,
+                        "--load.pool-size=" + CLIENTS);
+        try {
+            long applicationId = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            List<HttpRequest> requests = List.of(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/applications/"
+                            + applicationId + "/evaluate")).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/applications?limit=20"))
+                            .GET().build());
+
+            drive(client, requests, WARMUP, null);
+
+            LongAdder pinned = new LongAdder();
+            Map<String, LongAdder> pinnedAt = new ConcurrentHashMap<>();
+            try (RecordingStream recording = new RecordingStream()) {
+                recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+                recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                    pinned.increment();
+                    pinnedAt.computeIfAbsent(describe(event.getStackTrace() == null
+                            ? List.of() : event.getStackTrace().getFrames()), key -> new LongAdder()).increment();
+                });
+                recording.startAsync();
+
+                // El trabajo de reevaluación consulta la base con su candado tomado: también se lanza durante la medición
+                client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/admin/reevaluation"))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+
+                RunResult result = drive(client, requests, MEASUREMENT, mode);
+                Thread.sleep(1000);
+                pinnedAt.forEach((frames, count) -> System.out.println("Fijado " + count + " veces en: " + frames));
+                return new RunResult(mode, result.requests(), result.errors(), result.seconds(),
+                        result.p50Millis(), result.p99Millis(), pinned.sum());
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    // Carga en lazo cerrado: cada cliente envía la siguiente petición apenas recibe la respuesta anterior
+    private RunResult drive(HttpClient client, List<HttpRequest> requests, Duration duration, String mode)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<long[]> latencies = new ArrayList<>();
+        int[] counts = new int[CLIENTS];
+        LongAdder errors = new LongAdder();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < CLIENTS; i++) {
+            long[] samples = new long[4_096];
+            latencies.add(samples);
+            int clientIndex = i;
+            Thread thread = new Thread(() -> {
+                int n = 0;
+                try {
+                    while (System.nanoTime() < deadline && n < samples.length) {
+                        HttpRequest request = requests.get((clientIndex + n) % requests.size());
+                        long sent = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        samples[n++] = System.nanoTime() - sent;
+                    }
+                } finally {
+                    counts[clientIndex] = n;
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long total = Arrays.stream(counts).asLongStream().sum();
+        long[] all = new long[(int) total];
+        int offset = 0;
+        for (int i = 0; i < CLIENTS; i++) {
+            System.arraycopy(latencies.get(i), 0, all, offset, counts[i]);
+            offset += counts[i];
+        }
+        Arrays.sort(all);
+        return new RunResult(mode, total, errors.sum(), seconds, percentile(all, 50), percentile(all, 99), 0);
+    }
+
+    private static long seed(ConfigurableApplicationContext context) {
+        UserEntity user = new UserEntity();
+        user.setRut("12345678-9");
+        user.setEmail("juan.perez@email.com");
+        user.setPassword("no-usada");
+        user.setAge(35);
+        user.setRole(UserEntity.UserRole.CLIENT);
+        context.getBean(UserRepository.class).save(user);
+
+        SavingsEntity savings = new SavingsEntity();
+        savings.setUser(user);
+        savings.setAccountNumber("0000000001");
+        savings.setCurrentBalance(new BigDecimal("20000000"));
+        savings.setConsecutiveMonthsWithBalance(12);
+        savings.setMonthlyDepositsAmount(new BigDecimal("500000"));
+        savings.setSignificantWithdrawalsCount(0);
+        context.getBean(SavingsRepository.class).save(savings);
+
+        ApplicationRepository applications = context.getBean(ApplicationRepository.class);
+        ApplicationEntity evaluated = null;
+        for (int i = 0; i < 50; i++) {
+            ApplicationEntity application = new ApplicationEntity();
+            application.setUser(user);
+            application.setPropertyType(ApplicationEntity.PropertyType.FIRST_HOME);
+            application.setStatus(ApplicationEntity.ApplicationStatus.IN_EVALUATION);
+            application.setRequestedAmount(new BigDecimal("100000000"));
+            application.setTerm(20);
+            application.setInterestRate(new BigDecimal("4.5"));
+            application.setMonthlyIncome(new BigDecimal("3000000"));
+            application.setEmploymentYears(5);
+            application.setCurrentDebt(new BigDecimal("200000"));
+            application.setPropertyValue(new BigDecimal("150000000"));
+            application.setDocumentationComplete(true);
+            evaluated = applications.save(application);
+        }
+        return evaluated.getId();
+    }
+
+    private static String describe(List<RecordedFrame> frames) {
+        StringBuilder description = new StringBuilder();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("com.prestabanco") || description.length() == 0) {
+                description.append(type).append('.').append(frame.getMethod().getName()).append(" < ");
+            }
+        }
+        return description.toString();
+    }
+
+    private static double percentile(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    // Sin @Configuration para que el escaneo de componentes de las otras pruebas no la recoja;
+    // se registra como fuente solo en este benchmark
+    static class SlowJdbcDataSource {
+
+        @Bean
+        DataSource dataSource(@Value("${load.database}") String database, @Value("${load.pool-size}") int poolSize) {
+            JdbcDataSource h2 = new JdbcDataSource();
+            h2.setURL("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+            h2.setUser("sa");
+
+            HikariDataSource pool = new HikariDataSource();
+            pool.setDataSource(withLatency(DataSource.class, h2));
+            pool.setMaximumPoolSize(poolSize);
+            pool.setMinimumIdle(poolSize);
+            return pool;
+        }
+    }
+
+    // Envuelve conexiones y sentencias; cada execute* espera la latencia simulada antes de llegar a H2
+    @SuppressWarnings("unchecked")
+    private static <T> T withLatency(Class<T> type, Object target) {
+        return (T) Proxy.newProxyInstance(ThreadingModeLoadTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (target instanceof Statement && method.getName().startsWith("execute")) {
+                        Thread.sleep(STATEMENT_LATENCY_MILLIS);
+                    }
+                    Object result = invoke(method, target, args);
+                    Class<?> returnType = method.getReturnType();
+                    return result != null && JDBC_TYPES.contains(returnType) ? withLatency(returnType, result) : result;
+                });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
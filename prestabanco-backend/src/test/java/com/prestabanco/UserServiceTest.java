@@ -173,6 +173,56 @@ class UserServiceTest {
 
         assertNotNull(result);
         assertEquals(testUser.getEmail(), result.getEmail());
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).updatePasswordHash(any(), any(), any());
+    }
+
+    @Test
+    void validateLogin_WhenHashIsOutdated_ShouldStoreUpgradedHash() {
+        when(userRepository.findByEmail("juan.perez@email.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches(TEST_PASSWORD, TEST_PASSWORD)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(TEST_PASSWORD)).thenReturn(true);
+        when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn("{bcrypt}nuevo_hash");
+        when(userRepository.updatePasswordHash(1L, TEST_PASSWORD, "{bcrypt}nuevo_hash")).thenReturn(1);
+
+        UserEntity result = userService.validateLogin("juan.perez@email.com", TEST_PASSWORD);
+
+        assertEquals("{bcrypt}nuevo_hash", result.getPassword());
+        verify(userRepository, never()).save(any(UserEntity.class));
+    }
+
+    @Test
+    void validateLogin_WhenHashChangedConcurrently_ShouldKeepStoredHash() {
+        when(userRepository.findByEmail("juan.perez@email.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches(TEST_PASSWORD, TEST_PASSWORD)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(TEST_PASSWORD)).thenReturn(true);
+        when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn("{bcrypt}nuevo_hash");
+        when(userRepository.updatePasswordHash(1L, TEST_PASSWORD, "{bcrypt}nuevo_hash")).thenReturn(0);
+
+        UserEntity result = userService.validateLogin("juan.perez@email.com", TEST_PASSWORD);
+
+        assertEquals(TEST_PASSWORD, result.getPassword());
+    }
+
+    @Test
+    void validateLogin_WithoutPassword_ShouldNotCompareHashes() {
+        testUser.setPassword(null);
+        when(userRepository.findByEmail("juan.perez@email.com")).thenReturn(Optional.of(testUser));
+
+        assertThrows(RuntimeException.class, () -> userService.validateLogin("juan.perez@email.com", null));
+        assertThrows(RuntimeException.class, () -> userService.validateLogin("juan.perez@email.com", " "));
+        verify(passwordEncoder, never()).matches(any(), any());
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    void validateLogin_WhenPasswordIsDisabled_ShouldThrowException() {
+        testUser.setPassword(UserEntity.DISABLED_PASSWORD);
+        when(userRepository.findByEmail("juan.perez@email.com")).thenReturn(Optional.of(testUser));
+
+        assertThrows(RuntimeException.class, () ->
+                userService.validateLogin("juan.perez@email.com", TEST_PASSWORD));
+        verify(passwordEncoder, never()).matches(any(), any());
     }
 
     @Test
@@ -0,0 +1,27 @@
+package com.prestabanco.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// En el paquete de config porque BcryptStrength no es pública
+class BcryptStrengthTest {
+
+    // Tiempos medidos en el equipo de desarrollo (1 CPU): costo 10 79 ms, costo 11 162 ms, costo 12 319 ms
+    @Test
+    void forTarget_WithMeasuredTimings_ShouldPickLargestCostUnderTarget() {
+        assertEquals(11, BcryptStrength.forTarget(250, 10, 79));
+        assertEquals(11, BcryptStrength.forTarget(250, 11, 162));
+        assertEquals(11, BcryptStrength.forTarget(250, 12, 319));
+        // Extrapolado desde el costo de prueba: 79 ms a costo 10 son ~19,75 ms a costo 8
+        assertEquals(11, BcryptStrength.forTarget(250, 8, 19.75));
+        assertEquals(12, BcryptStrength.forTarget(330, 11, 162));
+    }
+
+    @Test
+    void forTarget_ShouldClampToSupportedRange() {
+        assertEquals(BcryptStrength.MIN_STRENGTH, BcryptStrength.forTarget(250, 12, 2000));
+        assertEquals(BcryptStrength.MAX_STRENGTH, BcryptStrength.forTarget(250, 8, 0.001));
+        assertEquals(BcryptStrength.MAX_STRENGTH, BcryptStrength.forTarget(250, 8, 0));
+    }
+}
@@ -19,6 +19,7 @@ import {
     TextField
 } from '@mui/material';
 import ApplicationService from '../services/application.service';
+import DocumentService from '../services/document.service';
 import { useNavigate } from 'react-router-dom'; 
 import CloseIcon from '@mui/icons-material/Close';
 import IconButton from '@mui/material/IconButton';
@@ -27,6 +28,7 @@ import IconButton from '@mui/material/IconButton';
 function ApplicationManagement() {
     const navigate = useNavigate(); 
     const [applications, setApplications] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState(null);
     const [successMessage, setSuccessMessage] = useState(null); 
@@ -34,6 +36,17 @@ function ApplicationManagement() {
     const [openDialog, setOpenDialog] = useState(false);
     const [previewDialog, setPreviewDialog] = useState(false);
     const [previewFile, setPreviewFile] = useState(null);
+    const [documents, setDocuments] = useState({});
+
+    const loadDocuments = async (applicationId) => {
+        try {
+            const previews = await DocumentService.getPreviewsByApplicationId(applicationId);
+            setDocuments(prev => ({ ...prev, [applicationId]: previews }));
+        } catch (err) {
+            setError('Error al cargar los documentos');
+            console.error('Error:', err);
+        }
+    };
 
     const handlePreviewFile = (fileData) => {
         setPreviewFile(fileData);
@@ -113,10 +126,12 @@ function ApplicationManagement() {
         fetchApplications();
     }, []);
 
-    const fetchApplications = async () => {
+    // Sin cursor se recarga la primera página; con cursor se agrega la página siguiente
+    const fetchApplications = async (cursor = null) => {
         try {
-            const response = await ApplicationService.getAll();
-            setApplications(response.data);
+            const response = await ApplicationService.getAll({ cursor });
+            setApplications(prev => cursor ? [...prev, ...response.data.items] : response.data.items);
+            setNextCursor(response.data.nextCursor);
         } catch (err) {
             setError('Error al cargar las solicitudes');
             console.error('Error:', err);
@@ -125,13 +140,20 @@ function ApplicationManagement() {
         }
     };
 
-    const handleStatusChange = async (applicationId, newStatus) => {
+    const handleStatusChange = async (application, newStatus) => {
         try {
-            await ApplicationService.updateStatus(applicationId, newStatus);
+            await ApplicationService.updateStatus(application.id, newStatus, application);
             await fetchApplications(); 
             setOpenDialog(false);
         } catch (err) {
-            setError('Error al actualizar el estado');
+            // 409: transición no permitida o la solicitud cambió desde que se cargó el listado
+            if (err.response?.status === 409) {
+                setError(err.response.data.error);
+                await fetchApplications();
+                setOpenDialog(false);
+            } else {
+                setError('Error al actualizar el estado');
+            }
             console.error('Error:', err);
         }
     };
@@ -208,7 +230,7 @@ function ApplicationManagement() {
                                         Solicitud #{application.id}
                                     </Typography>
                                     <Typography color="text.secondary">
-                                        Cliente: {application.user.firstName} {application.user.lastName}
+                                        Cliente: {application.userName}
                                     </Typography>
                                 </Grid>
                                 <Grid item xs={12} md={6} sx={{ textAlign: 'right' }}>
@@ -310,14 +332,21 @@ function ApplicationManagement() {
                             </Grid>
 
 
-                            {application.documents && (
+                            {application.hasDocuments && !documents[application.id] && (
+                                <Button variant="outlined" size="small" sx={{ mt: 2 }}
+                                        onClick={() => loadDocuments(application.id)}>
+                                    Ver documentos adjuntos
+                                </Button>
+                            )}
+
+                            {documents[application.id] && (
                                 <Grid container spacing={3} sx={{ mt: 1 }}>
                                     <Grid item xs={12}>
                                         <Typography variant="h6" gutterBottom>
                                             Documentos Adjuntos
                                         </Typography>
                                         <Grid container spacing={2}>
-                                            {Object.entries(JSON.parse(application.documents || '{}')).map(([key, doc]) => (
+                                            {Object.entries(documents[application.id]).map(([key, doc]) => (
                                                 <Grid item xs={12} md={4} key={key}>
                                                     <Paper sx={{ p: 2, bgcolor: 'grey.50' }}>
                                                         <Box sx={{ display: 'flex', justifyContent: 'space-between', alignItems: 'center' }}>
@@ -359,6 +388,14 @@ function ApplicationManagement() {
                     </Card>
                 ))}
 
+                {nextCursor && (
+                    <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
+                        <Button variant="outlined" onClick={() => fetchApplications(nextCursor)}>
+                            Cargar más
+                        </Button>
+                    </Box>
+                )}
+
                 <Dialog open={openDialog} onClose={() => setOpenDialog(false)}>
                     <DialogTitle>Cambiar Estado</DialogTitle>
                     <DialogContent>
@@ -367,7 +404,7 @@ function ApplicationManagement() {
                             label="Estado"
                             fullWidth
                             value={selectedApplication?.status || ''}
-                            onChange={(e) => handleStatusChange(selectedApplication.id, e.target.value)}
+                            onChange={(e) => handleStatusChange(selectedApplication, e.target.value)}
                         >
                             {applicationStatuses.map((option) => (
                                 <MenuItem key={option.value} value={option.value}>
@@ -378,7 +415,7 @@ function ApplicationManagement() {
                     </DialogContent>
                     <DialogActions>
                         <Button onClick={() => setOpenDialog(false)}>Cancelar</Button>
-                        <Button onClick={() => handleStatusChange(selectedApplication.id, selectedApplication.status)}>
+                        <Button onClick={() => handleStatusChange(selectedApplication, selectedApplication.status)}>
                             Guardar
                         </Button>
                     </DialogActions>
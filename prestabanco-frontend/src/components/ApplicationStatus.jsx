@@ -18,6 +18,7 @@ import {
     Button
 } from '@mui/material';
 import ApplicationService from '../services/application.service';
+import DocumentService from '../services/document.service';
 import UserService from '../services/user.service';
 import CloseIcon from '@mui/icons-material/Close';
 
@@ -26,6 +27,18 @@ function ApplicationStatus() {
     const [applications, setApplications] = useState([]);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState(null);
+    const [documents, setDocuments] = useState({});
+
+    const loadDocuments = async (applicationId) => {
+        try {
+            const previews = await DocumentService.getPreviewsByApplicationId(applicationId);
+            setDocuments(prev => ({ ...prev, [applicationId]: previews }));
+        } catch (err) {
+            setError('Error al cargar los documentos');
+            console.error('Error:', err);
+        }
+    };
+
     const currentUser = UserService.getCurrentUser();
     const [previewDialog, setPreviewDialog] = useState(false);
     const [previewFile, setPreviewFile] = useState(null);
@@ -265,13 +278,20 @@ function ApplicationStatus() {
                                     </Typography>
                                 </Box>
 
-                                {application.documents && (
+                                {application.hasDocuments && !documents[application.id] && (
+                                    <Button variant="outlined" size="small" sx={{ mt: 2 }}
+                                            onClick={() => loadDocuments(application.id)}>
+                                        Ver documentos adjuntos
+                                    </Button>
+                                )}
+
+                                {documents[application.id] && (
                                     <>
                                         <Typography variant="h6" sx={{ mt: 3, mb: 2 }}>
                                             Documentos Adjuntos
                                         </Typography>
                                         <Grid container spacing={2}>
-                                            {Object.entries(JSON.parse(application.documents || '{}')).map(([key, doc]) => (
+                                            {Object.entries(documents[application.id]).map(([key, doc]) => (
                                                 <Grid item xs={12} md={6} key={key}>
                                                     <Paper sx={{ p: 2, bgcolor: 'grey.50' }}>
                                                         <Box sx={{ display: 'flex', justifyContent: 'space-between', alignItems: 'center' }}>
@@ -6,28 +6,34 @@ import {
   Paper, 
   List, 
   ListItem, 
-  ListItemText 
+  ListItemText,
+  Button
 } from '@mui/material';
 import ApplicationService from '../services/application.service';
 
+// El historial solo muestra solicitudes cerradas; el filtro se aplica en el servidor
+const HISTORY_STATUSES = ['APPROVED', 'IN_DISBURSEMENT', 'REJECTED', 'CANCELLED'];
+
 const SolicitudesClientes = () => {
   const [applications, setApplications] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
 
-  useEffect(() => {
-    const fetchApplications = async () => {
-      try {
-        const response = await ApplicationService.getAll();
-        setApplications(response.data);
-      } catch (err) {
-        setError('Error al cargar las solicitudes');
-        console.error('Error:', err);
-      } finally {
-        setLoading(false);
-      }
-    };
+  const fetchApplications = async (cursor = null) => {
+    try {
+      const response = await ApplicationService.getAll({ cursor, status: HISTORY_STATUSES });
+      setApplications(prev => cursor ? [...prev, ...response.data.items] : response.data.items);
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      setError('Error al cargar las solicitudes');
+      console.error('Error:', err);
+    } finally {
+      setLoading(false);
+    }
+  };
 
+  useEffect(() => {
     fetchApplications();
   }, []);
 
@@ -35,7 +41,7 @@ const SolicitudesClientes = () => {
   const clientesConSolicitudes = {};
   
   applications.forEach(app => {
-    const clienteNombre = `${app.user.firstName} ${app.user.lastName}`;
+    const clienteNombre = app.userName;
     
     if (!clientesConSolicitudes[clienteNombre]) {
       clientesConSolicitudes[clienteNombre] = {
@@ -169,6 +175,14 @@ const SolicitudesClientes = () => {
             </Paper>
           ))
         )}
+
+        {nextCursor && (
+          <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
+            <Button variant="outlined" onClick={() => fetchApplications(nextCursor)}>
+              Cargar más
+            </Button>
+          </Box>
+        )}
       </Container>
     </Box>
   );
@@ -23,6 +23,7 @@ import {
     IconButton
 } from '@mui/material';
 import ApplicationService from '../services/application.service';
+import DocumentService from '../services/document.service';
 import UserService from '../services/user.service';
 import CloseIcon from '@mui/icons-material/Close';
 
@@ -214,7 +215,8 @@ const LoanApplication = () => {
                         name: file.name,
                         type: file.type,
                         size: file.size,
-                        content: base64 // Se guarda el archivo en Base64
+                        file, // Se sube como multipart al enviar la solicitud
+                        content: base64 // Solo para la vista previa
                     }
                 }
             });
@@ -367,27 +369,6 @@ const LoanApplication = () => {
         setLoading(true);
         try {
 
-            // Crear un objeto limpio para los documentos
-            const documentsToSend = {};
-            
-            // Procesar cada documento
-            Object.entries(formData.documents).forEach(([key, doc]) => {
-                if (doc && doc.content) {
-                    documentsToSend[key] = {
-                        name: doc.name,
-                        type: doc.type,
-                        content: doc.content
-                    };
-                }
-            });
-
-            const jsonString = JSON.stringify(documentsToSend);
-            console.log('Tamaño de los documentos en bytes:', new Blob([jsonString]).size);
-
-            if (new Blob([jsonString]).size > 1024 * 1024 * 10) { // 10MB límite
-                throw new Error('Los documentos son demasiado grandes. El límite es 10MB.');
-            }
-
             const applicationData = {
                 user: currentUser,
                 propertyType: formData.propertyType,
@@ -399,13 +380,18 @@ const LoanApplication = () => {
                 employmentYears: parseInt(formData.employmentYears),
                 currentDebt: parseFloat(formData.currentDebt || 0),
                 propertyValue: parseFloat(formData.propertyValue),
-                documentationComplete: true,
-                documents: jsonString
+                documentationComplete: true
             };
 
             console.log('Enviando aplicación:', applicationData);
 
-            await ApplicationService.create(applicationData);
+            const response = await ApplicationService.create(applicationData);
+
+            // Los archivos se suben aparte, uno por tipo de documento
+            await Promise.all(Object.entries(formData.documents)
+                .filter(([, doc]) => doc && doc.file)
+                .map(([key, doc]) => DocumentService.create(response.data.id, key, doc.file)));
+
             navigate('/applications');
         } catch (err) {
             setError('Error al enviar la solicitud');
@@ -17,7 +17,13 @@ const Login = () => {
             await UserService.login(credentials);
             navigate('/');
         } catch (err) {
-            setError('Email o contraseña incorrectos');
+            const status = err.response?.status;
+            if (status === 429 || status === 503) {
+                // Límite de intentos o servicio de login saturado: el backend envía el mensaje
+                setError(err.response.data?.error || 'Demasiados intentos, espere antes de volver a intentar');
+            } else {
+                setError('Email o contraseña incorrectos');
+            }
         }
     };
 
@@ -1,8 +1,13 @@
 // src/services/application.service.js
 import httpClient from "../http-common";
 
-const getAll = () => {
-    return httpClient.get('/api/applications');
+// Listado paginado: params = { cursor, limit, status: ['APPROVED', ...], propertyType }
+// La respuesta trae { items, nextCursor }; nextCursor es null en la última página
+const getAll = (params = {}) => {
+    const { status, ...rest } = params;
+    return httpClient.get('/api/applications', {
+        params: { ...rest, status: Array.isArray(status) ? status.join(',') : status }
+    });
 }
 
 const create = data => {
@@ -33,8 +38,13 @@ const getByStatus = status => {
     return httpClient.get(`/api/applications/status/${status}`);
 }
 
-const updateStatus = (id, newStatus) => {
-    return httpClient.put(`/api/applications/${id}/status`, { status: newStatus });
+// current = { status, version } tal como se listó; si otro ejecutivo la cambió entretanto responde 409
+const updateStatus = (id, newStatus, current) => {
+    return httpClient.put(`/api/applications/${id}/status`, {
+        status: newStatus,
+        currentStatus: current?.status,
+        version: current?.version
+    });
 };
 
 
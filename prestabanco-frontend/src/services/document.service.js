@@ -1,20 +1,32 @@
 // src/services/document.service.js
 import httpClient from "../http-common";
 
-const getAll = () => {
-    return httpClient.get('/api/documents');
+// Metadatos paginados por cursor (params: { cursor, limit })
+const getAll = (params = {}) => {
+    return httpClient.get('/api/documents', { params });
 }
 
-const create = data => {
-    return httpClient.post("/api/documents", data);
+// Sube el archivo como multipart; si la solicitud ya tiene un documento de ese tipo, se reemplaza
+const create = (applicationId, documentType, file) => {
+    const data = new FormData();
+    data.append('applicationId', applicationId);
+    data.append('documentType', documentType);
+    data.append('file', file);
+    return httpClient.post("/api/documents", data, {
+        headers: { 'Content-Type': 'multipart/form-data' }
+    });
 }
 
 const get = id => {
     return httpClient.get(`/api/documents/${id}`);
 }
 
-const update = (id, data) => {
-    return httpClient.put(`/api/documents/${id}`, data);
+const update = (id, file) => {
+    const data = new FormData();
+    data.append('file', file);
+    return httpClient.put(`/api/documents/${id}`, data, {
+        headers: { 'Content-Type': 'multipart/form-data' }
+    });
 }
 
 const remove = id => {
@@ -25,13 +37,30 @@ const getByApplicationId = applicationId => {
     return httpClient.get(`/api/documents/application/${applicationId}`);
 }
 
+// URL del contenido, para usarla directamente en <img> u <object> (el backend admite Range)
+const getContentUrl = id => {
+    return `${httpClient.defaults.baseURL}/api/documents/${id}/content`;
+}
+
+// Documentos de la solicitud con la forma que usa la vista previa: { [tipo]: { name, type, content } }
+const getPreviewsByApplicationId = async applicationId => {
+    const response = await getByApplicationId(applicationId);
+    return Object.fromEntries(response.data.map(doc => [doc.documentType, {
+        name: doc.fileName,
+        type: doc.contentType,
+        content: getContentUrl(doc.id)
+    }]));
+}
+
 const documentService = { 
     getAll, 
     create, 
     get, 
     update, 
     remove,
-    getByApplicationId 
+    getByApplicationId,
+    getContentUrl,
+    getPreviewsByApplicationId
 };
 
-export default documentService;
\ No newline at end of file
+export default documentService;
@@ -1,8 +1,9 @@
 // src/services/loan.service.js
 import httpClient from "../http-common";
 
-const getAll = () => {
-    return httpClient.get('/api/loans');
+// Listado paginado: params = { cursor, limit, propertyType }; responde { items, nextCursor }
+const getAll = (params = {}) => {
+    return httpClient.get('/api/loans', { params });
 }
 
 const create = data => {
@@ -37,6 +38,13 @@ const simulate = (data) => {
     });
 };
 
+// Matriz tasa × plazo en una sola llamada (respuesta columnar)
+const simulateGrid = (amount, options = {}) => {
+    return httpClient.get("/api/loans/simulate/grid", {
+        params: { amount: parseFloat(amount), ...options }
+    });
+};
+
 const getByUserId = userId => {
     return httpClient.get(`/api/loans/user/${userId}`);
 }
@@ -49,7 +57,8 @@ const loanService = {
     remove,
     calculateCost,
     getByUserId, 
-    simulate
+    simulate,
+    simulateGrid
 };
 
 export default loanService;
\ No newline at end of file
@@ -1,8 +1,9 @@
 // src/services/user.service.js
 import httpClient from "../http-common";
 
-const getAll = () => {
-    return httpClient.get('/api/users');
+// Listado paginado: params = { cursor, limit }; responde { items, nextCursor }
+const getAll = (params = {}) => {
+    return httpClient.get('/api/users', { params });
 }
 
 const create = data => {
@@ -1,19 +1,19 @@
 -- Insertar usuarios con contraseñas cifradas
 INSERT INTO users (rut, first_name, last_name, email, password, phone_number, age, role) VALUES  
 ('12345678-9', 'Juan', 'Pérez', 'juan.perez@email.com', 
- '$2a$10$H.PGnIMG9jySmdRb2TrVpeaYF0Gg9DKrPJX.z7KU/G5RmcnHU3iQi', -- password123 cifrado
+ '$2a$10$hI3/NpinQr.xgSBuzS/YGuRtjgSUOAMd/TDG4hsDnGj3WVTPQZKlS', -- password123 cifrado
  '+56912345678', 35, 0), 
 ('98765432-1', 'María', 'González', 'maria.gonzalez@email.com', 
- '$2a$10$Ynv7fYqeRIaqiMsiiPNJi.IKYhV0FY3ACMd4c8RvfWcl2ivI7i726', -- password456 cifrado
+ '$2a$10$Y.vO6/JLhCgIOdo9plzkKusY/M7M1v5TmaLEVTp.0/lm7fTtCldzK', -- password456 cifrado
  '+56987654321', 42, 0), 
 ('11111111-1', 'Carlos', 'Rodríguez', 'carlos.rodriguez@prestabanco.com', 
- '$2a$10$nV0.Bz4gIZuRqkW.1YB6a.eC2YwfjQI1Z9W0.rqy90XSOMnngQ0Tu', -- admin123 cifrado
+ '$2a$10$Q3CJHhuSKYFmoFMC2VjVFuz1AivjdcU.qitkoNXR718deYeMLKt6u', -- admin123 cifrado
  '+56911111111', 45, 1), 
 ('22222222-2', 'Ana', 'Silva', 'ana.silva@email.com', 
- '$2a$10$XJAXk3Pwn.9A.6EjaoVR2.caDmn0kVZ0VreXZsvCPQfWUjKJAKLSS', -- password789 cifrado
+ '$2a$10$Os52XOULzOjEnETG0I5RZuWv6hr6HZVYJdanidHvCjYSS89.VsTkq', -- password789 cifrado
  '+56922222222', 29, 0), 
 ('33333333-3', 'Pedro', 'Martínez', 'pedro.martinez@prestabanco.com', 
- '$2a$10$tYbZEsXj2GOvEpdAEvFgOePqRLDx4S/7TqpE1YvEpRi5XgqZ94/1.', -- exec123 cifrado
+ '$2a$10$MvK/HgBHgk8Mggc.w0CNpONzUaJc0U8taQAk53M7SKRwFqNLGh6FK', -- exec123 cifrado
  '+56933333333', 38, 1);  
 
 -- Insertar aplicaciones (esta parte queda igual)